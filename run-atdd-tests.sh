@@ -51,8 +51,8 @@ check_prerequisites() {
     mvn_version=$(mvn -version | head -n 1)
     print_status "Maven version: $mvn_version"
     
-    # Check LambdaTest credentials
-    if [[ -z "$LT_USERNAME" ]] || [[ -z "$LT_ACCESS_KEY" ]]; then
+    # Check LambdaTest credentials (not needed for local browsers)
+    if [[ "$ATDD_BACKEND" != "local" ]] && { [[ -z "$LT_USERNAME" ]] || [[ -z "$LT_ACCESS_KEY" ]]; }; then
         print_error "LambdaTest credentials not found!"
         print_error "Please set LT_USERNAME and LT_ACCESS_KEY environment variables"
         print_error "Example:"
@@ -104,6 +104,98 @@ run_feature_file() {
     print_success "Feature file execution completed"
 }
 
+# Function to run one shard of the suite (e.g. 2/8)
+run_shard() {
+    local shard=$1
+    local strategy=${2:-hash}
+    
+    print_status "Running shard $shard ($strategy strategy)..."
+    mvn verify -Datdd.shard="$shard" -Datdd.shard.strategy="$strategy"
+    print_success "Shard $shard completed"
+}
+
+# Function to merge per-shard reports into target/cucumber-reports
+merge_shard_reports() {
+    print_status "Merging shard reports: $*"
+    mvn compile -q
+    java -cp "target/classes:$(mvn dependency:build-classpath -q -Dmdep.outputFile=/dev/stdout)" \
+        com.lambdatest.atdd.reporting.ReportMerger target/cucumber-reports "$@"
+    print_success "Shard reports merged into target/cucumber-reports"
+}
+
+# Function to compile the feature files into the scenario index used for tag selection
+build_scenario_index() {
+    print_status "Compiling scenario index..."
+    mvn compile test-compile -q
+    java -cp "target/test-classes:target/classes:$(mvn dependency:build-classpath -q -Dmdep.outputFile=/dev/stdout)" \
+        com.lambdatest.atdd.execution.ScenarioIndexCompiler src/test/resources/features/ecommerce com.lambdatest.atdd target/atdd/scenario-index.bin
+    print_success "Scenario index written to target/atdd/scenario-index.bin"
+}
+
+# Function to run scenarios in headless browsers on this machine instead of the LambdaTest grid
+run_local_tests() {
+    local tags=${1:-@smoke}
+    print_status "Running $tags scenarios in local ${ATDD_LOCAL_BROWSER:-chrome} browsers..."
+    mvn verify -Datdd.backend=local -Datdd.local.browser="${ATDD_LOCAL_BROWSER:-chrome}" -Dcucumber.filter.tags="$tags"
+    print_success "Local run completed"
+}
+
+# Function to run scenarios in the browser and record their HTTP requests for load replay
+record_load_flows() {
+    local tags=${1:-@smoke}
+    print_status "Recording HTTP requests of $tags scenarios..."
+    mvn verify -Datdd.load.record=true -Dcucumber.filter.tags="$tags"
+    print_success "Recordings written to target/atdd/load-recordings/"
+}
+
+# Function to replay a recording as concurrent virtual users
+replay_load_flow() {
+    print_status "Replaying $1 against $2..."
+    mvn compile -q
+    java -cp "target/classes:$(mvn dependency:build-classpath -q -Dmdep.outputFile=/dev/stdout)" \
+        com.lambdatest.atdd.load.LoadReplayer "$@"
+    print_success "Load report written to target/atdd/load-report.json"
+}
+
+# Daemon runner port (must match -Datdd.daemon.port)
+DAEMON_PORT=${ATDD_DAEMON_PORT:-7799}
+# Written by the daemon at start (mode 0600); every request must present it
+DAEMON_TOKEN_FILE="target/atdd/daemon.token"
+
+# Function to start the long-lived daemon runner in the background
+start_daemon() {
+    print_status "Starting ATDD daemon on port $DAEMON_PORT..."
+    mkdir -p target/atdd
+    mvn dependency:build-classpath -q -Dmdep.outputFile=target/atdd/daemon.classpath
+    # Credentials reach the daemon through the exported environment, never the command line (visible in ps)
+    nohup java -cp "target/test-classes:target/classes:$(cat target/atdd/daemon.classpath)" \
+        -Datdd.daemon.port="$DAEMON_PORT" \
+        com.lambdatest.atdd.runners.DaemonRunner > target/atdd/daemon.log 2>&1 &
+    echo $! > target/atdd/daemon.pid
+    print_success "Daemon started (pid $(cat target/atdd/daemon.pid), log target/atdd/daemon.log)"
+}
+
+# Function to send one request line to the daemon and stream its response
+# Uses bash's /dev/tcp so no JVM starts on the client side; exits with the run's status
+daemon_request() {
+    local request=$1
+    if [[ ! -r "$DAEMON_TOKEN_FILE" ]] || ! { exec 3<>"/dev/tcp/127.0.0.1/$DAEMON_PORT"; } 2>/dev/null; then
+        print_error "ATDD daemon is not running on port $DAEMON_PORT (start it with: $0 daemon start)"
+        exit 1
+    fi
+    printf '%s\n%s\n' "$(cat "$DAEMON_TOKEN_FILE")" "$request" >&3
+    local status=1
+    while IFS= read -r line <&3; do
+        if [[ "$line" == EXIT\ * ]]; then
+            status=${line#EXIT }
+        else
+            echo "$line"
+        fi
+    done
+    exec 3<&-
+    return "$status"
+}
+
 # Function to generate reports
 generate_reports() {
     print_status "Generating test reports..."
@@ -120,6 +212,11 @@ generate_reports() {
             echo "  📋 JSON Report: target/cucumber-reports/Cucumber.json"
         fi
         
+        if [[ -f "target/cucumber-reports/live/index.html" ]]; then
+            echo "  ⏱️  Live Report: target/cucumber-reports/live/index.html"
+            echo "  📨 Message Stream: target/cucumber-reports/cucumber.ndjson"
+        fi
+        
         print_status "LambdaTest Dashboard: https://automation.lambdatest.com/build"
     else
         print_warning "No test reports found. Tests may not have run successfully."
@@ -139,6 +236,16 @@ show_usage() {
     echo "  critical               Run critical tests only (@critical tag)"
     echo "  feature <file>         Run specific feature file"
     echo "  tags <tag_expression>  Run tests with custom tag expression"
+    echo "  shard <i/n> [strategy] Run shard i of n (strategy: hash or duration)"
+    echo "  merge <dir>...         Merge per-shard cucumber.json/cucumber.xml reports"
+    echo "  index                  Compile features into the scenario index (target/atdd/scenario-index.bin)"
+    echo "  daemon start|stop|status"
+    echo "                         Manage the long-lived runner (warm JVM, glue and sessions)"
+    echo "  daemon run <args>      Run Cucumber options/feature paths on the daemon"
+    echo "  local [tags]           Run scenarios in local headless browsers, no credentials (default @smoke)"
+    echo "  load record [tags]     Record the HTTP requests of scenarios (default @smoke)"
+    echo "  load replay <recording> <target-url> [users] [iterations] [ramp-up-s] [think-time-factor]"
+    echo "                         Replay a recording as virtual users (no browsers)"
     echo "  clean                  Clean previous test artifacts only"
     echo "  help                   Show this help message"
     echo ""
@@ -148,6 +255,11 @@ show_usage() {
     echo "  $0 critical                          # Run critical tests"
     echo "  $0 feature src/test/resources/features/ecommerce/product-search.feature"
     echo "  $0 tags \"@smoke and @critical\"       # Custom tag expression"
+    echo "  $0 shard 2/8 duration                # Second of eight duration-balanced shards"
+    echo "  $0 merge shards/1 shards/2           # Merge reports collected from two shards"
+    echo "  $0 daemon run --tags \"@smoke\"        # Run on the warm daemon"
+    echo "  ATDD_LOCAL_BROWSER=firefox $0 local \"@critical\"  # Critical tests in local headless Firefox"
+    echo "  $0 load replay target/atdd/load-recordings/add-product-to-cart.json https://staging.example.com 500 3"
     echo ""
     echo "Environment Variables Required:"
     echo "  LT_USERNAME          Your LambdaTest username"
@@ -226,6 +338,83 @@ main() {
             run_tests_with_tags "$2" "custom tag"
             generate_reports
             ;;
+        "shard")
+            if [[ -z "$2" ]]; then
+                print_error "Shard is required"
+                echo "Usage: $0 shard <index>/<total> [hash|duration]"
+                exit 1
+            fi
+            check_prerequisites
+            clean_previous_runs
+            compile_project
+            run_shard "$2" "$3"
+            generate_reports
+            ;;
+        "merge")
+            if [[ -z "$2" ]]; then
+                print_error "At least one shard report directory is required"
+                echo "Usage: $0 merge <shard_report_dir>..."
+                exit 1
+            fi
+            shift
+            merge_shard_reports "$@"
+            generate_reports
+            ;;
+        "index")
+            build_scenario_index
+            exit 0
+            ;;
+        "local")
+            ATDD_BACKEND=local
+            check_prerequisites
+            compile_project
+            run_local_tests "$2"
+            exit 0
+            ;;
+        "load")
+            case $2 in
+                "record")
+                    check_prerequisites
+                    compile_project
+                    record_load_flows "$3"
+                    ;;
+                "replay")
+                    if [[ -z "$3" ]] || [[ -z "$4" ]]; then
+                        print_error "Usage: $0 load replay <recording.json> <target-url> [users] [iterations] [ramp-up-s] [think-time-factor]"
+                        exit 1
+                    fi
+                    shift 2
+                    replay_load_flow "$@"
+                    ;;
+                *)
+                    print_error "Usage: $0 load record [tags] | load replay <recording.json> <target-url> [...]"
+                    exit 1
+                    ;;
+            esac
+            exit 0
+            ;;
+        "daemon")
+            case $2 in
+                "start")
+                    check_prerequisites
+                    compile_project
+                    start_daemon
+                    ;;
+                "run")
+                    shift 2
+                    # Re-quote each argument so tag expressions with spaces survive the request line
+                    daemon_request "run$(printf ' "%s"' "$@")" || exit $?
+                    ;;
+                "status"|"stop")
+                    daemon_request "$2"
+                    ;;
+                *)
+                    print_error "Usage: $0 daemon start|run <args>|status|stop"
+                    exit 1
+                    ;;
+            esac
+            exit 0
+            ;;
         *)
             print_error "Unknown option: $action"
             show_usage
@@ -25,6 +25,36 @@ public class TestConfiguration {
         }
         return System.getenv(key);
     }
+
+    /**
+     * Gets configuration value like {@link #getConfigValue(String)} but falls back to a default
+     * when the key is not set (or is an unresolved Maven placeholder such as "${atdd.shard}")
+     */
+    private static String getConfigValue(String key, String defaultValue) {
+        String value = getConfigValue(key);
+        if (value == null || value.trim().isEmpty() || value.startsWith("${")) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    /**
+     * Gets a whole-number configuration value like {@link #getConfigValue(String, String)}
+     *
+     * @throws IllegalArgumentException naming the key if the value is not a whole number of at least {@code min}
+     */
+    private static int getIntConfigValue(String key, int defaultValue, int min) {
+        String value = getConfigValue(key, String.valueOf(defaultValue));
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below with the key
+        }
+        throw new IllegalArgumentException("-D" + key + " must be a whole number of at least " + min + ", got '" + value + "'");
+    }
     
 
     // E-Commerce URLs
@@ -50,12 +80,154 @@ public class TestConfiguration {
         public static final int DEFAULT_TIMEOUT = 30;
         public static final int PAGE_LOAD_TIMEOUT = 60;
         public static final int IMPLICIT_WAIT = 10;
+        // Seconds the grid keeps a session without commands (LT:Options idleTimeout)
+        public static final int IDLE_TIMEOUT = 300;
         public static final String BUILD_NAME = "ATDD Tests - " + 
             java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         public static final String PROJECT_NAME = "ATDD Guide Project";
         public static final String RESOLUTION = "1920x1080";
+        public static final int COMMAND_HISTORY_SIZE = 20;
+        public static final String FAILURE_SNAPSHOT_DIR = "target/failure-snapshots";
+    }
+    
+    // Sharding Configuration (-Datdd.shard=2/8)
+    public static class Sharding {
+        public static final String SHARD = getConfigValue("atdd.shard", null);
+        public static final String STRATEGY = getConfigValue("atdd.shard.strategy", "hash");
+        public static final String DURATIONS_FILE = getConfigValue("atdd.shard.durations", ".atdd/scenario-durations.tsv");
     }
     
+    // Locator Profiling Configuration (-Datdd.profile.locators=true)
+    public static class Profiling {
+        public static final boolean LOCATORS = Boolean.parseBoolean(getConfigValue("atdd.profile.locators", "false"));
+        public static final int ITERATIONS = 5;
+    }
+
+    // In-session Scenario Retry Configuration (-Datdd.retry.count=1)
+    public static class Retry {
+        public static final int COUNT = getIntConfigValue("atdd.retry.count", 0, 0);
+        public static final String TAGS = getConfigValue("atdd.retry.tags", "not @no-retry");
+        public static final String EXCEPTIONS = getConfigValue("atdd.retry.exceptions",
+            "org.openqa.selenium.TimeoutException,org.openqa.selenium.StaleElementReferenceException,"
+            + "org.openqa.selenium.NoSuchSessionException,org.openqa.selenium.remote.UnreachableBrowserException");
+    }
+
+    // Grid Session Admission Configuration (-Datdd.grid.max-sessions=5)
+    public static class Grid {
+        public static final int MAX_SESSIONS = getIntConfigValue("atdd.grid.max-sessions", 3, 1);
+        public static final int PROVISION_DEADLINE_SECONDS = getIntConfigValue("atdd.grid.provision-deadline", 300, 0);
+        public static final long BACKOFF_INITIAL_MILLIS = 1000;
+        public static final long BACKOFF_MAX_MILLIS = 30000;
+    }
+
+    // Compiled Scenario Index Configuration (-Datdd.index=false to disable)
+    public static class Index {
+        public static final boolean ENABLED = Boolean.parseBoolean(getConfigValue("atdd.index", "true"));
+        public static final String FILE = getConfigValue("atdd.index.file", "target/atdd/scenario-index.bin");
+        public static final String FEATURES = "src/test/resources/features/ecommerce";
+        public static final String GLUE = "com.lambdatest.atdd";
+    }
+
+    // Daemon Runner Configuration (-Datdd.daemon.port=7799)
+    public static class Daemon {
+        public static final int PORT = getIntConfigValue("atdd.daemon.port", 7799, 1);
+        public static final String DEFAULT_FEATURES = "src/test/resources/features";
+        public static final String GLUE = "com.lambdatest.atdd";
+        // Access token of the running daemon, readable by its owner only
+        public static final String TOKEN_FILE = "target/atdd/daemon.token";
+    }
+
+    // Web Vitals Capture Configuration (-Datdd.vitals=false to disable)
+    public static class Vitals {
+        public static final boolean ENABLED = Boolean.parseBoolean(getConfigValue("atdd.vitals", "true"));
+        public static final String FILE = getConfigValue("atdd.vitals.file", "target/atdd/web-vitals.ndjson");
+    }
+
+    // Load Recording and Replay Configuration (-Datdd.load.record=true)
+    public static class Load {
+        public static final boolean RECORD = Boolean.parseBoolean(getConfigValue("atdd.load.record", "false"));
+        public static final String RECORDINGS_DIR = getConfigValue("atdd.load.recordings", "target/atdd/load-recordings");
+        public static final String REPORT_FILE = "target/atdd/load-report.json";
+        public static final int REQUEST_TIMEOUT_SECONDS = 30;
+    }
+
+    // Live Telemetry Configuration (-Datdd.telemetry.port=9464, off by default)
+    public static class Telemetry {
+        public static final int PORT = getIntConfigValue("atdd.telemetry.port", 0, 0);
+        public static final String BIND_ADDRESS = getConfigValue("atdd.telemetry.bind", "127.0.0.1");
+    }
+
+    // Scenario Watchdog Configuration (seconds, off by default; -Datdd.watchdog.scenario=600 and tags @scenario-timeout=N and @step-timeout=N enable it)
+    public static class Watchdog {
+        public static final int SCENARIO_TIMEOUT_SECONDS = getIntConfigValue("atdd.watchdog.scenario", 0, 0);
+        public static final int STEP_TIMEOUT_SECONDS = getIntConfigValue("atdd.watchdog.step", 0, 0);
+    }
+
+    // Fail-fast Circuit Breaker Configuration (-Datdd.breaker.threshold=1, 0 disables)
+    public static class CircuitBreaker {
+        public static final int THRESHOLD = getIntConfigValue("atdd.breaker.threshold", 0, 0);
+        // Scenarios inherit their feature's tags, so the expression must select a subset of the features' scenarios
+        public static final String PRIORITY_TAGS = getConfigValue("atdd.breaker.tags", "@critical");
+    }
+
+    // Browser Backend Configuration (-Datdd.backend=local for headless browsers on this machine)
+    public static class Backend {
+        public static final String NAME = getConfigValue("atdd.backend", "grid");
+        public static final String LOCAL_BROWSER = getConfigValue("atdd.local.browser", "chrome");
+        public static final int LOCAL_POOL_SIZE = getIntConfigValue("atdd.local.pool-size",
+            Runtime.getRuntime().availableProcessors(), 1);
+        public static final boolean LOCAL_HEADLESS = Boolean.parseBoolean(getConfigValue("atdd.local.headless", "true"));
+    }
+
+    // Browser Context Configuration (-Datdd.contexts.per-session=4 serves several scenarios per grid session, 1 disables)
+    public static class Contexts {
+        public static final int PER_SESSION = getIntConfigValue("atdd.contexts.per-session", 1, 1);
+    }
+
+    // Performance History Configuration (-Datdd.perf=true records timings, -Datdd.perf.fail-on=1 fails the run on a significant regression)
+    public static class Performance {
+        // Off by default: the history file is only useful where CI keeps it between builds
+        public static final boolean ENABLED = Boolean.parseBoolean(getConfigValue("atdd.perf", "false"));
+        public static final String HISTORY_FILE = getConfigValue("atdd.perf.history", ".atdd/perf-history.tsv");
+        public static final int HISTORY_RUNS = getIntConfigValue("atdd.perf.runs", 20, 1);
+        public static final int MIN_BASELINE_RUNS = 3;
+        public static final int MAX_SAMPLES_PER_KEY = 200;
+        public static final double ALPHA = Double.parseDouble(getConfigValue("atdd.perf.alpha", "0.01"));
+        public static final double MIN_INCREASE_PERCENT = Double.parseDouble(getConfigValue("atdd.perf.min-increase", "20"));
+        public static final long MIN_DELTA_MILLIS = getIntConfigValue("atdd.perf.min-delta", 100, 0);
+        public static final int FAIL_ON = getIntConfigValue("atdd.perf.fail-on", 0, 0);
+        public static final String SUMMARY_FILE = "target/atdd/performance-regressions.md";
+    }
+
+    // Search Results Configuration (-Datdd.search.max-pages=50 bounds how far a results stream follows the pagination)
+    public static class Search {
+        public static final int MAX_PAGES = getIntConfigValue("atdd.search.max-pages", 20, 1);
+    }
+
+    // Product Catalog Configuration (-Datdd.catalog=false clicks products on the home page instead, -Datdd.catalog.cache= disables the cache)
+    public static class Catalog {
+        public static final boolean ENABLED = Boolean.parseBoolean(getConfigValue("atdd.catalog", "true"));
+        public static final String CACHE_FILE = getConfigValue("atdd.catalog.cache", ".atdd/product-catalog.tsv");
+        public static final int CACHE_TTL_HOURS = getIntConfigValue("atdd.catalog.ttl-hours", 24, 1);
+        public static final int PAGE_LIMIT = 100;
+        public static final int MAX_PAGES = 20;
+        public static final int REQUEST_TIMEOUT_SECONDS = 15;
+        public static final int BUILD_TIMEOUT_SECONDS = 60;
+    }
+
+    // Optional Report Configuration (-Datdd.reports=pretty,html,junit adds Cucumber's buffering formatters)
+    public static class Reports {
+        public static final String OPTIONAL = getConfigValue("atdd.reports", "");
+    }
+
+    // External Example Source Configuration (-Datdd.examples.limit=100 and -Datdd.examples.sample=5 override the tags, -1 keeps them)
+    public static class Examples {
+        public static final long LIMIT = Long.parseLong(getConfigValue("atdd.examples.limit", "-1"));
+        public static final double SAMPLE_PERCENT = Double.parseDouble(getConfigValue("atdd.examples.sample", "-1"));
+        public static final long SEED = Long.parseLong(getConfigValue("atdd.examples.seed", "42"));
+        public static final int MAX_REPORTED_FAILURES = 50;
+    }
+
     // Test Status
     public static class Status {
         public static final String PASSED = "passed";
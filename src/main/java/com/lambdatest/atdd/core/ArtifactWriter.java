@@ -0,0 +1,82 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes compressed test artifacts on a single background I/O thread
+ * Callers hand over bytes that are already in memory and return immediately; pending writes are
+ * drained by a shutdown hook so nothing is lost when the test JVM exits
+ */
+public final class ArtifactWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactWriter.class);
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "atdd-artifact-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ArtifactWriter::drain, "atdd-artifact-writer-drain"));
+    }
+
+    private ArtifactWriter() {
+    }
+
+    /**
+     * Asynchronously writes the given entries into a zip archive
+     *
+     * @param target The archive to create
+     * @param entries Entry names and contents, written in iteration order
+     * @return Future completing when the archive has been written
+     */
+    public static Future<Path> writeZip(Path target, Map<String, byte[]> entries) {
+        Map<String, byte[]> snapshot = new LinkedHashMap<>(entries);
+        return executor.submit(() -> {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel);
+                 ZipOutputStream zip = new ZipOutputStream(out)) {
+                for (Map.Entry<String, byte[]> entry : snapshot.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(entry.getKey()));
+                    zip.write(entry.getValue());
+                    zip.closeEntry();
+                }
+            } catch (IOException e) {
+                logger.error("Could not write artifact {}: {}", target, e.getMessage(), e);
+                throw e;
+            }
+            logger.debug("Artifact written: {}", target);
+            return target;
+        });
+    }
+
+    private static void drain() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Artifact writer did not finish within 30 seconds, some artifacts may be incomplete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.Connection;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Serves several scenarios from one grid session through isolated WebDriver BiDi user contexts
+ * (-Datdd.contexts.per-session=4, off by default)
+ *
+ * Each host session holds up to {@code contextsPerSession} user contexts, each with its own cookies and
+ * storage and one window. A scenario gets a RemoteWebDriver whose commands are routed to its window:
+ * navigation goes over BiDi ({@code browsingContext.navigate}), so page loads of different scenarios
+ * overlap; other commands are WebDriver Classic commands, which act on the session's current window and
+ * are therefore sent one at a time per host, each after switching to the scenario's window.
+ * Each host session is checked once before its first context is leased: a cookie and a localStorage
+ * entry set in one probe context must not be visible in a second one. A browser without user contexts
+ * or failing the check disables the pool for the run, and scenarios fall back to a session of their own.
+ */
+public class BrowserContextPool {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContextPool.class);
+    private static final String PROBE_NAME = "atdd-isolation-probe";
+    // Names what the page can see of the probe value %s: "cookie", "localStorage", both or nothing
+    private static final String PROBE_READ_SCRIPT =
+        "(function(value) {" +
+        "  var seen = [];" +
+        "  if (document.cookie.split('; ').indexOf('" + PROBE_NAME + "=' + value) >= 0) { seen.push('cookie'); }" +
+        "  if (window.localStorage.getItem('" + PROBE_NAME + "') === value) { seen.push('localStorage'); }" +
+        "  return seen.join(' ');" +
+        "})('%s')";
+    private static final String PROBE_WRITE_SCRIPT =
+        "document.cookie = '" + PROBE_NAME + "=%1$s; path=/';" +
+        "window.localStorage.setItem('" + PROBE_NAME + "', '%1$s');" +
+        PROBE_READ_SCRIPT.replace("%s", "%1$s");
+    private static final Duration BIDI_TIMEOUT = Duration.ofSeconds(TestConfiguration.TestConfig.DEFAULT_TIMEOUT);
+    private static final Duration NAVIGATION_TIMEOUT = Duration.ofSeconds(TestConfiguration.TestConfig.PAGE_LOAD_TIMEOUT);
+
+    public static final String LEASED = "browser_contexts.leased";
+    public static final String HOSTS = "browser_contexts.hosts";
+    public static final String ISOLATION_FAILURES = "browser_contexts.isolation_failures";
+
+    private final int contextsPerSession;
+    private final int maxHosts;
+    private final Supplier<RemoteWebDriver> sessionFactory;
+    private final Consumer<RemoteWebDriver> sessionCloser;
+    private final Function<URI, BidiSession> bidiConnector;
+    private final List<Host> hosts = new CopyOnWriteArrayList<>();
+    private final Map<WebDriver, Lease> leases = new ConcurrentHashMap<>();
+    private final Object monitor = new Object();
+    private int hostsStarting;
+    private volatile String unsupportedReason;
+
+    /**
+     * @param contextsPerSession Scenarios served by one grid session at once
+     * @param maxHosts Maximum number of host sessions, 0 or less for no limit
+     * @param sessionFactory Creates a host session with the "webSocketUrl" capability and takes its admission slot
+     * @param sessionCloser Quits a host session and returns its admission slot
+     */
+    public BrowserContextPool(int contextsPerSession, int maxHosts, Supplier<RemoteWebDriver> sessionFactory,
+                              Consumer<RemoteWebDriver> sessionCloser) {
+        this(contextsPerSession, maxHosts, sessionFactory, sessionCloser, BrowserContextPool::connect);
+    }
+
+    /**
+     * @param bidiConnector Opens the WebDriver BiDi connection of a host session from its "webSocketUrl"
+     */
+    BrowserContextPool(int contextsPerSession, int maxHosts, Supplier<RemoteWebDriver> sessionFactory,
+                       Consumer<RemoteWebDriver> sessionCloser, Function<URI, BidiSession> bidiConnector) {
+        this.contextsPerSession = contextsPerSession;
+        this.maxHosts = maxHosts > 0 ? maxHosts : Integer.MAX_VALUE;
+        this.sessionFactory = sessionFactory;
+        this.sessionCloser = sessionCloser;
+        this.bidiConnector = bidiConnector;
+        RunMetrics.gauge(HOSTS, hosts::size);
+    }
+
+    /**
+     * @return false once a host session turned out not to support isolated user contexts
+     */
+    public boolean isAvailable() {
+        return unsupportedReason == null;
+    }
+
+    /**
+     * Opens an isolated context on a host session with room, starting a host if none has room
+     * Waits while every host is full and no further host may be started.
+     *
+     * @param commandHistorySize Commands kept for failure snapshots, as for other sessions
+     * @return The scenario's driver, or null if the browser cannot isolate contexts (use a session of its own)
+     * @throws SessionNotCreatedException if no host session can be provisioned
+     */
+    public RemoteWebDriver acquire(int commandHistorySize) {
+        while (isAvailable()) {
+            Host host = reserveHost();
+            if (host == null) {
+                return null;
+            }
+            try {
+                verifyIsolation(host);
+                return openContext(host, commandHistorySize);
+            } catch (WebDriverException e) {
+                host.broken = true;
+                unreserve(host);
+                retireIfIdle(host);
+                if (!host.verified) {
+                    disable("user contexts are not available or not isolated (" + firstLine(e) + ")");
+                    return null;
+                }
+                // A host that worked before has most likely lost its session; the next attempt starts another
+                logger.warn("Could not open a browser context on session {}: {}", host.sessionId, firstLine(e));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a driver is a context of this pool
+     *
+     * @param driver A driver
+     * @return true if the driver came from {@link #acquire(int)} and was not released yet
+     */
+    public boolean owns(WebDriver driver) {
+        return leases.containsKey(driver);
+    }
+
+    /**
+     * Closes a scenario's context, with its cookies and storage; the host session stays open for the next one
+     *
+     * @param driver A driver taken with {@link #acquire(int)}
+     */
+    public void release(WebDriver driver) {
+        Lease lease = leases.remove(driver);
+        if (lease == null) {
+            return;
+        }
+        try {
+            send(lease.host, "browser.removeUserContext", Map.of("userContext", lease.userContext));
+        } catch (WebDriverException e) {
+            logger.debug("Could not remove browser context of session {}: {}", lease.host.sessionId, firstLine(e));
+            lease.host.broken = true;
+        }
+        unreserve(lease.host);
+        retireIfIdle(lease.host);
+    }
+
+    /**
+     * Closes a context from another thread, e.g. for the scenario watchdog; the scenario's pending command fails
+     *
+     * @param driver A driver taken with {@link #acquire(int)}
+     */
+    public void discard(WebDriver driver) {
+        release(driver);
+    }
+
+    /**
+     * Records a scenario outcome on its host session: one failed context marks the whole grid session failed
+     *
+     * @param driver A driver taken with {@link #acquire(int)}
+     * @param passed false if the scenario failed
+     * @param reason Failure reason, sent to the grid as for a session of its own
+     */
+    public void reportStatus(WebDriver driver, boolean passed, String reason) {
+        Lease lease = leases.get(driver);
+        if (lease == null || passed) {
+            return;
+        }
+        lease.host.failed = true;
+        lease.host.classicLock.lock();
+        try {
+            lease.host.driver.executeScript("lambda-status=" + TestConfiguration.Status.FAILED);
+            if (reason != null) {
+                lease.host.driver.executeScript("lambda-exceptions", reason);
+            }
+        } catch (WebDriverException e) {
+            logger.error("Failed to update LambdaTest status: {}", e.getMessage());
+        } finally {
+            lease.host.classicLock.unlock();
+        }
+    }
+
+    /**
+     * Quits every host session; contexts still leased are closed with them
+     */
+    public void shutdown() {
+        leases.clear();
+        for (Host host : hosts) {
+            hosts.remove(host);
+            close(host);
+        }
+    }
+
+    private Host reserveHost() {
+        synchronized (monitor) {
+            while (isAvailable()) {
+                for (Host host : hosts) {
+                    if (!host.broken && host.leased < contextsPerSession) {
+                        host.leased++;
+                        return host;
+                    }
+                }
+                if (hosts.size() + hostsStarting < maxHosts) {
+                    hostsStarting++;
+                    break;
+                }
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SessionNotCreatedException("Interrupted while waiting for a browser context");
+                }
+            }
+            if (!isAvailable()) {
+                return null;
+            }
+        }
+        Host host = null;
+        try {
+            host = startHost();
+        } finally {
+            synchronized (monitor) {
+                hostsStarting--;
+                if (host != null) {
+                    host.leased++;
+                    hosts.add(host);
+                }
+                monitor.notifyAll();
+            }
+        }
+        return host;
+    }
+
+    private Host startHost() {
+        RemoteWebDriver driver = sessionFactory.get();
+        Object webSocketUrl = driver.getCapabilities().getCapability("webSocketUrl");
+        if (!(webSocketUrl instanceof String url) || url.isEmpty()) {
+            sessionCloser.accept(driver);
+            disable("the grid session has no WebDriver BiDi endpoint");
+            return null;
+        }
+        BidiSession connection;
+        try {
+            connection = bidiConnector.apply(URI.create(url));
+        } catch (RuntimeException e) {
+            sessionCloser.accept(driver);
+            disable("the WebDriver BiDi connection failed (" + firstLine(e) + ")");
+            return null;
+        }
+        logger.info("Session {} serves up to {} scenarios in isolated browser contexts", driver.getSessionId(), contextsPerSession);
+        return new Host(driver, connection);
+    }
+
+    private RemoteWebDriver openContext(Host host, int commandHistorySize) {
+        String userContext = (String) send(host, "browser.createUserContext", Map.of()).get("userContext");
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("type", "window");
+            params.put("userContext", userContext);
+            // The top-level browsing context id doubles as the WebDriver Classic window handle
+            String context = (String) send(host, "browsingContext.create", params).get("context");
+            RecordingCommandExecutor executor = new RecordingCommandExecutor(
+                new ContextCommandExecutor(host, context), commandHistorySize);
+            RemoteWebDriver driver = new RemoteWebDriver(executor, host.driver.getCapabilities());
+            leases.put(driver, new Lease(host, userContext));
+            RunMetrics.counter(LEASED).increment();
+            return driver;
+        } catch (RuntimeException e) {
+            try {
+                send(host, "browser.removeUserContext", Map.of("userContext", userContext));
+            } catch (WebDriverException ignored) {
+                // The session is gone or the context was never usable
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks once per host that user contexts do not share cookies or storage: a cookie and a localStorage
+     * entry written in one probe context must be readable there and invisible in a second one
+     *
+     * @throws WebDriverException if the probe fails or the contexts are not isolated
+     */
+    private void verifyIsolation(Host host) {
+        synchronized (host) {
+            if (host.verified) {
+                return;
+            }
+            String value = UUID.randomUUID().toString();
+            String writer = (String) send(host, "browser.createUserContext", Map.of()).get("userContext");
+            String reader = null;
+            try {
+                reader = (String) send(host, "browser.createUserContext", Map.of()).get("userContext");
+                String written = evaluate(host, openProbePage(host, writer), String.format(PROBE_WRITE_SCRIPT, value));
+                String leaked = evaluate(host, openProbePage(host, reader), String.format(PROBE_READ_SCRIPT, value));
+                if (!"cookie localStorage".equals(written)) {
+                    throw new WebDriverException("The isolation probe could not be read back from its own context (saw '" + written + "')");
+                }
+                if (!leaked.isEmpty()) {
+                    RunMetrics.counter(ISOLATION_FAILURES).increment();
+                    throw new WebDriverException("Browser contexts of session " + host.sessionId + " are not isolated: "
+                        + "the probe's " + leaked.replace(" ", " and ") + " leaked into another context");
+                }
+                host.verified = true;
+            } finally {
+                removeQuietly(host, writer);
+                if (reader != null) {
+                    removeQuietly(host, reader);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a window of a user context on the shop, so the probe uses the scenarios' cookie and storage origin
+     */
+    private static String openProbePage(Host host, String userContext) {
+        String context = (String) send(host, "browsingContext.create", Map.of("type", "window", "userContext", userContext)).get("context");
+        send(host, "browsingContext.navigate",
+            Map.of("context", context, "url", TestConfiguration.ECOMMERCE_BASE_URL, "wait", "interactive"), NAVIGATION_TIMEOUT);
+        return context;
+    }
+
+    private static String evaluate(Host host, String context, String expression) {
+        Map<String, Object> evaluated = send(host, "script.evaluate",
+            Map.of("expression", expression, "target", Map.of("context", context), "awaitPromise", false));
+        if (!"success".equals(evaluated.get("type")) || !(evaluated.get("result") instanceof Map<?, ?> result)) {
+            throw new WebDriverException("The isolation probe script failed: " + evaluated.get("exceptionDetails"));
+        }
+        return String.valueOf(result.get("value"));
+    }
+
+    private static void removeQuietly(Host host, String userContext) {
+        try {
+            send(host, "browser.removeUserContext", Map.of("userContext", userContext));
+        } catch (WebDriverException e) {
+            logger.debug("Could not remove probe context of session {}: {}", host.sessionId, firstLine(e));
+        }
+    }
+
+    private static Map<String, Object> send(Host host, String method, Map<String, Object> params) {
+        return send(host, method, params, BIDI_TIMEOUT);
+    }
+
+    private static Map<String, Object> send(Host host, String method, Map<String, Object> params, Duration timeout) {
+        return host.bidi.send(method, params, timeout);
+    }
+
+    private static BidiSession connect(URI uri) {
+        HttpClient client = HttpClient.Factory.createDefault().createClient(ClientConfig.defaultConfig().baseUri(uri));
+        Connection connection = new Connection(client, uri.toString());
+        return new BidiSession() {
+            @Override
+            public Map<String, Object> send(String method, Map<String, Object> params, Duration timeout) {
+                Map<String, Object> result = connection.sendAndWait(
+                    new org.openqa.selenium.bidi.Command<Map<String, Object>>(method, params, Map.class), timeout);
+                return result != null ? result : Map.of();
+            }
+
+            @Override
+            public void close() {
+                connection.close();
+            }
+        };
+    }
+
+    private void unreserve(Host host) {
+        synchronized (monitor) {
+            host.leased--;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Quits a broken host once its last scenario has let go of it
+     */
+    private void retireIfIdle(Host host) {
+        synchronized (monitor) {
+            if (!host.broken || host.leased > 0 || !hosts.remove(host)) {
+                return;
+            }
+            monitor.notifyAll();
+        }
+        close(host);
+    }
+
+    private void disable(String reason) {
+        synchronized (monitor) {
+            if (unsupportedReason == null) {
+                unsupportedReason = reason;
+                logger.warn("Browser contexts disabled, scenarios use a session of their own: {}", reason);
+            }
+            monitor.notifyAll();
+        }
+        // Hosts give their admission slots back once their remaining scenarios are done
+        for (Host host : hosts) {
+            host.broken = true;
+            retireIfIdle(host);
+        }
+    }
+
+    private void close(Host host) {
+        try {
+            host.bidi.close();
+        } catch (RuntimeException e) {
+            logger.debug("Error while closing BiDi connection: {}", e.getMessage());
+        }
+        try {
+            host.driver.executeScript("lambda-status=" + (host.failed ? TestConfiguration.Status.FAILED : TestConfiguration.Status.PASSED));
+        } catch (RuntimeException e) {
+            logger.debug("Could not set status of session {}: {}", host.sessionId, e.getMessage());
+        }
+        sessionCloser.accept(host.driver);
+    }
+
+    private static String firstLine(Throwable e) {
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage().lines().findFirst().orElse("");
+    }
+
+    /**
+     * WebDriver BiDi connection of a host session
+     */
+    interface BidiSession {
+
+        /**
+         * Sends a command and waits for its result
+         *
+         * @return The command's result, empty if it has none
+         * @throws WebDriverException if the command fails or times out
+         */
+        Map<String, Object> send(String method, Map<String, Object> params, Duration timeout);
+
+        void close();
+    }
+
+    private record Lease(Host host, String userContext) {
+    }
+
+    private static final class Host {
+        private final RemoteWebDriver driver;
+        private final CommandExecutor executor;
+        private final SessionId sessionId;
+        private final BidiSession bidi;
+        // Classic commands act on the session's current window, so they are sent one at a time
+        private final ReentrantLock classicLock = new ReentrantLock(true);
+        private String currentWindow;
+        private int leased;
+        private volatile boolean verified;
+        private volatile boolean broken;
+        private volatile boolean failed;
+
+        Host(RemoteWebDriver driver, BidiSession bidi) {
+            this.driver = driver;
+            this.executor = driver.getCommandExecutor();
+            this.sessionId = driver.getSessionId();
+            this.bidi = bidi;
+        }
+    }
+
+    /**
+     * Command executor of one scenario's context: attaches to the host session instead of creating one,
+     * navigates over BiDi and switches the host session to the context's window before classic commands
+     */
+    private static final class ContextCommandExecutor implements CommandExecutor {
+        private static final Json JSON = new Json();
+        private static final Set<String> NOT_SENT = Set.of(DriverCommand.NEW_SESSION, DriverCommand.QUIT);
+        private final Host host;
+        private volatile String window;
+
+        ContextCommandExecutor(Host host, String window) {
+            this.host = host;
+            this.window = window;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            if (NOT_SENT.contains(command.getName())) {
+                // The pool removes the context on release; the host session is not this scenario's to quit
+                Response response = new Response(host.sessionId);
+                response.setState(ErrorCodes.SUCCESS_STRING);
+                response.setValue(DriverCommand.NEW_SESSION.equals(command.getName()) ? capabilities(host.driver.getCapabilities()) : null);
+                return response;
+            }
+            if (DriverCommand.GET.equals(command.getName())) {
+                send(host, "browsingContext.navigate",
+                    Map.of("context", window, "url", command.getParameters().get("url"), "wait", "complete"), NAVIGATION_TIMEOUT);
+                Response response = new Response(host.sessionId);
+                response.setState(ErrorCodes.SUCCESS_STRING);
+                return response;
+            }
+            host.classicLock.lock();
+            try {
+                if (!window.equals(host.currentWindow)) {
+                    host.currentWindow = null;
+                    Response switched = host.executor.execute(
+                        new Command(host.sessionId, DriverCommand.SWITCH_TO_WINDOW, Map.of("handle", window)));
+                    if (!isSuccess(switched)) {
+                        return switched;
+                    }
+                    host.currentWindow = window;
+                }
+                Response response = host.executor.execute(command);
+                if (DriverCommand.SWITCH_TO_WINDOW.equals(command.getName())
+                    && isSuccess(response)) {
+                    // The scenario moved to another of its windows; later commands follow it
+                    window = String.valueOf(command.getParameters().get("handle"));
+                    host.currentWindow = window;
+                }
+                return response;
+            } finally {
+                host.classicLock.unlock();
+            }
+        }
+
+        private static boolean isSuccess(Response response) {
+            return response.getState() == null || ErrorCodes.SUCCESS_STRING.equals(response.getState());
+        }
+
+        // In wire format, as a new session response would carry them (e.g. platformName as a string)
+        private static Map<String, Object> capabilities(Capabilities capabilities) {
+            return JSON.toType(JSON.toJson(capabilities), Json.MAP_TYPE);
+        }
+    }
+}
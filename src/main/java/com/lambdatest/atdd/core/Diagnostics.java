@@ -0,0 +1,127 @@
+package com.lambdatest.atdd.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+
+/**
+ * Diagnostic helpers that cost nothing unless their log level is enabled
+ *
+ * Every WebDriver call is a remote round trip to the grid, so diagnostics must never be computed
+ * eagerly just to build a log line. Values are either wrapped in {@link #lazy(Supplier)} and passed
+ * as SLF4J arguments (formatted only if the event is logged), or gathered in a single script call.
+ */
+public final class Diagnostics {
+
+    /**
+     * Installs a small in-page buffer of console messages (window.__atddConsole) once per document
+     * Meant to be prepended to a script that already runs after navigation, so it costs no extra round trip
+     */
+    public static final String CONSOLE_HOOK_SCRIPT =
+        "if (!window.__atddConsole) {" +
+        "  window.__atddConsole = [];" +
+        "  var push = function(entry) {" +
+        "    window.__atddConsole.push(entry);" +
+        "    if (window.__atddConsole.length > 200) { window.__atddConsole.shift(); }" +
+        "  };" +
+        "  ['log', 'info', 'warn', 'error'].forEach(function(level) {" +
+        "    var original = console[level];" +
+        "    console[level] = function() {" +
+        "      try { push(level + ': ' + Array.prototype.map.call(arguments, String).join(' ')); } catch (e) {}" +
+        "      return original.apply(console, arguments);" +
+        "    };" +
+        "  });" +
+        "  window.addEventListener('error', function(e) { push('uncaught: ' + e.message); });" +
+        "}";
+
+    private static final String PAGE_STATE_SCRIPT =
+        "var limit = arguments[0];" +
+        "function describe(list) {" +
+        "  var out = [];" +
+        "  for (var i = 0; i < Math.min(list.length, limit); i++) {" +
+        "    var e = list[i];" +
+        "    out.push({tag: e.tagName.toLowerCase(), id: e.id || '', cls: e.className || '', type: e.type || ''," +
+        "              value: e.value || '', text: (e.innerText || '').trim().substring(0, 80)," +
+        "              visible: !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)});" +
+        "  }" +
+        "  return out;" +
+        "}" +
+        "return {title: document.title, url: location.href, readyState: document.readyState," +
+        "        buttons: describe(document.querySelectorAll('button'))," +
+        "        buttonCount: document.querySelectorAll('button').length," +
+        "        inputs: describe(document.querySelectorAll('input[type=button], input[type=submit]'))};";
+
+    private Diagnostics() {
+    }
+
+    /**
+     * Wraps a value so it is only computed when a log statement is actually formatted
+     * Usage: {@code logger.debug("URL: {}", Diagnostics.lazy(driver::getCurrentUrl))}
+     *
+     * @param supplier The value supplier, typically a remote WebDriver call
+     * @return An object whose toString() evaluates the supplier
+     */
+    public static Object lazy(Supplier<?> supplier) {
+        return new Object() {
+            @Override
+            public String toString() {
+                try {
+                    return String.valueOf(supplier.get());
+                } catch (RuntimeException e) {
+                    return "<unavailable: " + e.getClass().getSimpleName() + ">";
+                }
+            }
+        };
+    }
+
+    /**
+     * Collects title, URL, ready state and a summary of the clickable elements in one script call
+     *
+     * @param driver The WebDriver instance
+     * @param elementLimit Maximum number of buttons/inputs to describe
+     * @return Page state map, or an empty map if the page cannot be queried
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> pageState(WebDriver driver, int elementLimit) {
+        if (!(driver instanceof JavascriptExecutor js)) {
+            return Collections.emptyMap();
+        }
+        try {
+            Object state = js.executeScript(PAGE_STATE_SCRIPT, elementLimit);
+            return state instanceof Map ? (Map<String, Object>) state : Collections.emptyMap();
+        } catch (RuntimeException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Logs a page summary (title and URL at ERROR, element details at DEBUG) using a single round trip
+     *
+     * @param logger The logger to write to
+     * @param driver The WebDriver instance
+     * @param elementLimit Maximum number of buttons/inputs to describe when DEBUG is enabled
+     */
+    @SuppressWarnings("unchecked")
+    public static void logPageStateOnError(Logger logger, WebDriver driver, int elementLimit) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        Map<String, Object> state = pageState(driver, logger.isDebugEnabled() ? elementLimit : 0);
+        logger.error("Current page: title='{}', url='{}', readyState={}", state.get("title"), state.get("url"), state.get("readyState"));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Found {} button elements:", state.get("buttonCount"));
+            for (Map<String, Object> button : (List<Map<String, Object>>) state.getOrDefault("buttons", List.of())) {
+                logger.debug("  Button: id='{}', class='{}', text='{}', visible={}",
+                    button.get("id"), button.get("cls"), button.get("text"), button.get("visible"));
+            }
+            for (Map<String, Object> input : (List<Map<String, Object>>) state.getOrDefault("inputs", List.of())) {
+                logger.debug("  Input: id='{}', type='{}', value='{}'", input.get("id"), input.get("type"), input.get("value"));
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lambdatest.atdd.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Captures a local failure artifact for a scenario in two remote round trips
+ * (one screenshot, one script for URL, title, DOM and console messages) and hands it to
+ * {@link ArtifactWriter}, so the caller never waits on disk I/O
+ */
+public final class FailureSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(FailureSnapshot.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private static final String PAGE_SNAPSHOT_SCRIPT =
+        "return {url: location.href, title: document.title, readyState: document.readyState," +
+        "        dom: document.documentElement ? document.documentElement.outerHTML : ''," +
+        "        console: window.__atddConsole || []};";
+
+    private FailureSnapshot() {
+    }
+
+    /**
+     * Captures the current browser state and schedules the archive to be written
+     *
+     * @param driver The WebDriver instance of the failed scenario
+     * @param scenarioName The scenario name, used for the archive name
+     * @param recentCommands The last WebDriver commands sent for this session
+     * @return Path the archive will be written to
+     */
+    @SuppressWarnings("unchecked")
+    public static Path capture(WebDriver driver, String scenarioName, List<String> recentCommands) {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("scenario", scenarioName);
+        metadata.put("capturedAt", Instant.now().toString());
+        metadata.put("sessionId", WebDriverFactory.getSessionId());
+
+        // Round trip 1: screenshot
+        if (driver instanceof TakesScreenshot screenshotDriver) {
+            try {
+                entries.put("screenshot.png", screenshotDriver.getScreenshotAs(OutputType.BYTES));
+            } catch (RuntimeException e) {
+                metadata.put("screenshotError", e.getMessage());
+            }
+        }
+
+        // Round trip 2: URL, title, DOM and buffered console messages
+        if (driver instanceof JavascriptExecutor js) {
+            try {
+                Object state = js.executeScript(PAGE_SNAPSHOT_SCRIPT);
+                if (state instanceof Map<?, ?> page) {
+                    Map<String, Object> pageState = (Map<String, Object>) page;
+                    entries.put("dom.html", String.valueOf(pageState.getOrDefault("dom", "")).getBytes(StandardCharsets.UTF_8));
+                    metadata.put("url", pageState.get("url"));
+                    metadata.put("title", pageState.get("title"));
+                    metadata.put("readyState", pageState.get("readyState"));
+                    metadata.put("console", pageState.get("console"));
+                }
+            } catch (RuntimeException e) {
+                metadata.put("pageStateError", e.getMessage());
+            }
+        }
+
+        metadata.put("recentCommands", recentCommands);
+        try {
+            entries.put("snapshot.json", MAPPER.writeValueAsBytes(metadata));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize failure snapshot metadata: {}", e.getMessage());
+        }
+
+        String fileName = scenarioName.replaceAll("[^A-Za-z0-9._-]+", "_") + "-" + FILE_TIMESTAMP.format(Instant.now()) + ".zip";
+        Path target = Paths.get(TestConfiguration.TestConfig.FAILURE_SNAPSHOT_DIR, fileName);
+        ArtifactWriter.writeZip(target, entries);
+        return target;
+    }
+}
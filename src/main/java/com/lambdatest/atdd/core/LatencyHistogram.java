@@ -0,0 +1,82 @@
+package com.lambdatest.atdd.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram in milliseconds
+ * Recording is one bucket search and two LongAdder increments, so it is safe on hot paths such as
+ * every WebDriver command. Buckets are cumulative when read, as in Prometheus/OpenMetrics.
+ */
+public final class LatencyHistogram {
+    /** Upper bounds of the buckets in milliseconds; an implicit +Inf bucket follows */
+    public static final long[] BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, 120000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Snapshot of a histogram
+     *
+     * @param cumulativeCounts Observations at or below each bound, the last entry being +Inf
+     * @param count Number of observations
+     * @param sumMillis Sum of all observations
+     */
+    public record Snapshot(long[] cumulativeCounts, long count, long sumMillis) {
+    }
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one observation
+     *
+     * @param millis Latency in milliseconds
+     */
+    public void record(long millis) {
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(millis);
+    }
+
+    /**
+     * Reads the histogram; concurrent observations may or may not be included
+     *
+     * @return Cumulative bucket counts, count and sum
+     */
+    public Snapshot snapshot() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        // Count is derived from the buckets so the +Inf bucket and the count always agree
+        return new Snapshot(cumulative, running, sum.sum());
+    }
+
+    /**
+     * Estimates a percentile from the buckets (upper bound of the bucket containing it)
+     *
+     * @param percentile Percentile, e.g. 95
+     * @return Bucket bound in milliseconds, -1 if nothing was recorded, Long.MAX_VALUE if it falls in +Inf
+     */
+    public long percentile(double percentile) {
+        Snapshot snapshot = snapshot();
+        if (snapshot.count() == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * snapshot.count());
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            if (snapshot.cumulativeCounts()[i] >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,249 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverCommandExecutor;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Pool of headless Chrome or Firefox instances on this machine (-Datdd.backend=local)
+ *
+ * At most {@code size} browsers exist at once, each with its own temporary profile directory. A
+ * scenario takes an idle browser or launches one; when it is done the browser's cookies and storage
+ * are cleared and it goes back to the pool, so later scenarios skip the browser start-up. Drivers are
+ * plain RemoteWebDriver instances over the local driver service, wrapped in the same
+ * {@link RecordingCommandExecutor} as grid sessions, so command history, the element cache and
+ * command latency metrics work the same way.
+ */
+public class LocalBrowserPool {
+    private static final Logger logger = LoggerFactory.getLogger(LocalBrowserPool.class);
+    private static final String RESET_SCRIPT =
+        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    public static final String LAUNCHED = "local_browsers.launched";
+    public static final String REUSED = "local_browsers.reused";
+
+    private final String browser;
+    private final boolean headless;
+    private final Semaphore slots;
+    private final Queue<RemoteWebDriver> idle = new ConcurrentLinkedQueue<>();
+    private final Map<RemoteWebDriver, Path> profiles = new ConcurrentHashMap<>();
+    // Browsers taken by scenarios; a browser is given back once, by release or discard
+    private final Set<RemoteWebDriver> leased = ConcurrentHashMap.newKeySet();
+    private volatile String driverExecutable;
+
+    /**
+     * @param browser "chrome" or "firefox"
+     * @param size Maximum number of browsers at once
+     * @param headless false to show the browser windows, e.g. while debugging a scenario
+     */
+    public LocalBrowserPool(String browser, int size, boolean headless) {
+        if (!"chrome".equalsIgnoreCase(browser) && !"firefox".equalsIgnoreCase(browser)) {
+            throw new IllegalArgumentException("Local backend supports chrome and firefox, not " + browser);
+        }
+        this.browser = browser.toLowerCase();
+        this.headless = headless;
+        this.slots = new Semaphore(Math.max(1, size), true);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "atdd-local-browsers-shutdown"));
+    }
+
+    /**
+     * Takes an idle browser, or launches one if the pool is not full; waits while it is full
+     *
+     * @return The browser, owned by the caller until {@link #release(WebDriver)}
+     * @throws SessionNotCreatedException if the browser cannot be launched
+     */
+    public RemoteWebDriver acquire() {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a local browser");
+        }
+        RemoteWebDriver driver = idle.poll();
+        if (driver != null) {
+            RunMetrics.counter(REUSED).increment();
+            leased.add(driver);
+            return driver;
+        }
+        try {
+            driver = launch();
+            leased.add(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Resets a browser and returns it to the pool; a browser that cannot be reset is quit instead
+     *
+     * @param driver A browser taken with {@link #acquire()}
+     */
+    public void release(WebDriver driver) {
+        RemoteWebDriver remoteDriver = (RemoteWebDriver) driver;
+        if (!leased.remove(remoteDriver)) {
+            return;
+        }
+        try {
+            remoteDriver.manage().deleteAllCookies();
+            remoteDriver.executeScript(RESET_SCRIPT);
+            remoteDriver.get("about:blank");
+            idle.add(remoteDriver);
+        } catch (Exception e) {
+            logger.debug("Discarding local browser that could not be reset: {}", e.getMessage());
+            dispose(remoteDriver);
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Quits a browser instead of returning it, e.g. because it hung; its slot is free right away
+     *
+     * @param driver A browser taken with {@link #acquire()}
+     */
+    public void discard(WebDriver driver) {
+        RemoteWebDriver remoteDriver = (RemoteWebDriver) driver;
+        if (leased.remove(remoteDriver)) {
+            slots.release();
+            dispose(remoteDriver);
+        }
+    }
+
+    /**
+     * @return Browsers waiting in the pool
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Quits every idle browser and deletes its profile
+     */
+    public void shutdown() {
+        RemoteWebDriver driver;
+        while ((driver = idle.poll()) != null) {
+            dispose(driver);
+        }
+    }
+
+    private RemoteWebDriver launch() {
+        Path profile;
+        try {
+            profile = Files.createTempDirectory("atdd-" + browser + "-");
+        } catch (IOException e) {
+            throw new SessionNotCreatedException("Could not create a browser profile directory: " + e.getMessage());
+        }
+        RemoteWebDriver driver;
+        long start = System.nanoTime();
+        try {
+            Capabilities options = options(profile);
+            DriverService service = "chrome".equals(browser)
+                ? new ChromeDriverService.Builder().usingAnyFreePort().build()
+                : new GeckoDriverService.Builder().usingAnyFreePort().build();
+            service.setExecutable(driverExecutable(service, options));
+            RecordingCommandExecutor executor = new RecordingCommandExecutor(
+                new DriverCommandExecutor(service), TestConfiguration.TestConfig.COMMAND_HISTORY_SIZE);
+            driver = new RemoteWebDriver(executor, options);
+        } catch (RuntimeException e) {
+            deleteProfile(profile);
+            throw e;
+        }
+        profiles.put(driver, profile);
+        RunMetrics.counter(LAUNCHED).increment();
+        logger.info("Launched local {} {} in {} ms (profile {})", headless ? "headless" : "headed", browser,
+            (System.nanoTime() - start) / 1_000_000, profile);
+        return driver;
+    }
+
+    private Capabilities options(Path profile) {
+        String[] size = TestConfiguration.TestConfig.RESOLUTION.split("x");
+        if ("chrome".equals(browser)) {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--user-data-dir=" + profile, "--window-size=" + size[0] + "," + size[1],
+                "--no-first-run", "--no-default-browser-check", "--disable-dev-shm-usage");
+            if (headless) {
+                options.addArguments("--headless=new");
+            }
+            return options;
+        }
+        FirefoxOptions options = new FirefoxOptions();
+        options.addArguments("-profile", profile.toString(), "--width=" + size[0], "--height=" + size[1]);
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        return options;
+    }
+
+    /**
+     * Resolves the driver binary once: WebDriverManager first, Selenium Manager if it cannot download
+     */
+    private String driverExecutable(DriverService service, Capabilities options) {
+        String executable = driverExecutable;
+        if (executable == null) {
+            synchronized (this) {
+                if (driverExecutable == null) {
+                    try {
+                        WebDriverManager manager = WebDriverManager.getInstance(browser);
+                        manager.setup();
+                        driverExecutable = manager.getDownloadedDriverPath();
+                    } catch (RuntimeException e) {
+                        logger.debug("WebDriverManager could not resolve the {} driver: {}", browser, e.getMessage());
+                    }
+                    if (driverExecutable == null) {
+                        driverExecutable = DriverFinder.getPath(service, options).getDriverPath();
+                    }
+                }
+                executable = driverExecutable;
+            }
+        }
+        return executable;
+    }
+
+    private void dispose(RemoteWebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error while quitting local browser: {}", e.getMessage());
+        }
+        Path profile = profiles.remove(driver);
+        if (profile != null) {
+            deleteProfile(profile);
+        }
+    }
+
+    private static void deleteProfile(Path profile) {
+        try (Stream<Path> files = Files.walk(profile)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            logger.debug("Could not delete browser profile {}: {}", profile, e.getMessage());
+        }
+    }
+}
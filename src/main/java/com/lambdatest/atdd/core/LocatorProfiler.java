@@ -0,0 +1,293 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Profiles page-object locators inside the browser during a real run (-Datdd.profile.locators=true)
+ *
+ * For every locator a page object resolves, one script call measures how long the browser takes to
+ * evaluate it, how many elements it matches and how large the DOM is, and times a suggested CSS
+ * equivalent alongside it. Results are aggregated across threads and ranked by total cost.
+ */
+public final class LocatorProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorProfiler.class);
+
+    private static final String PROFILE_SCRIPT =
+        "var using = arguments[0], value = arguments[1], alternative = arguments[2], iterations = arguments[3];" +
+        "function run(u, v) {" +
+        "  if (u === 'xpath') { return document.evaluate(v, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength; }" +
+        "  if (u === 'css selector') { return document.querySelectorAll(v).length; }" +
+        "  if (u === 'tag name') { return document.getElementsByTagName(v).length; }" +
+        "  return -1;" +
+        "}" +
+        "function time(u, v) {" +
+        "  var count = run(u, v), start = performance.now();" +
+        "  for (var i = 0; i < iterations; i++) { run(u, v); }" +
+        "  return {count: count, ms: (performance.now() - start) / iterations};" +
+        "}" +
+        "var result = {domSize: document.getElementsByTagName('*').length, original: time(using, value)};" +
+        "if (alternative) { try { result.alternative = time('css selector', alternative); } catch (e) { result.alternativeError = String(e); } }" +
+        "return result;";
+
+    private static final Pattern STEP = Pattern.compile("(\\*|[a-zA-Z][\\w-]*)((?:\\[[^\\]]+\\])*)");
+    private static final Pattern PREDICATE = Pattern.compile("\\[([^\\]]+)\\]");
+    private static final Pattern ATTRIBUTE_EQUALS = Pattern.compile("@([\\w-]+)\\s*=\\s*'([^']*)'");
+    private static final Pattern ATTRIBUTE_CONTAINS = Pattern.compile("contains\\(\\s*@([\\w-]+)\\s*,\\s*'([^']*)'\\s*\\)");
+    private static final Pattern ATTRIBUTE_PRESENT = Pattern.compile("@([\\w-]+)");
+
+    private static final Map<String, LocatorStats> stats = new ConcurrentHashMap<>();
+
+    private LocatorProfiler() {
+    }
+
+    /**
+     * Checks whether locator profiling is enabled for this run
+     *
+     * @return true if -Datdd.profile.locators=true
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Profiling.LOCATORS;
+    }
+
+    /**
+     * Measures a locator in the browser and records the result
+     *
+     * @param driver The WebDriver instance
+     * @param locator The locator being resolved
+     * @param pageObject The page object that uses the locator
+     */
+    @SuppressWarnings("unchecked")
+    public static void profile(WebDriver driver, By locator, String pageObject) {
+        if (!(driver instanceof JavascriptExecutor js) || !(locator instanceof By.Remotable remotable)) {
+            return;
+        }
+        By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+        String using = parameters.using();
+        String value = String.valueOf(parameters.value());
+        String suggestion = "xpath".equals(using) ? suggestCss(value).orElse(null) : null;
+
+        try {
+            Object raw = js.executeScript(PROFILE_SCRIPT, using, value, suggestion, TestConfiguration.Profiling.ITERATIONS);
+            if (!(raw instanceof Map)) {
+                return;
+            }
+            Map<String, Object> result = (Map<String, Object>) raw;
+            Map<String, Object> original = (Map<String, Object>) result.get("original");
+            Map<String, Object> alternative = (Map<String, Object>) result.get("alternative");
+            stats.computeIfAbsent(pageObject + " " + locator, key -> new LocatorStats(pageObject, locator.toString(), suggestion, hint(using, value)))
+                .record(number(original.get("ms")), (long) number(original.get("count")), (long) number(result.get("domSize")),
+                    alternative == null ? -1 : number(alternative.get("ms")), alternative == null ? -1 : (long) number(alternative.get("count")));
+        } catch (RuntimeException e) {
+            logger.debug("Could not profile locator {}: {}", locator, e.getMessage());
+        }
+    }
+
+    /**
+     * Suggests a CSS selector equivalent to a simple XPath expression
+     * Supports descendant/child steps, unions, and predicates on attribute equality, contains() and presence
+     *
+     * @param xpath The XPath expression
+     * @return Equivalent CSS selector, or empty if the expression uses text(), positions or other XPath-only features
+     */
+    public static Optional<String> suggestCss(String xpath) {
+        List<String> selectors = new ArrayList<>();
+        for (String branch : xpath.split("\\s*\\|\\s*")) {
+            Optional<String> css = branchToCss(branch.trim());
+            if (css.isEmpty()) {
+                return Optional.empty();
+            }
+            selectors.add(css.get());
+        }
+        return Optional.of(String.join(", ", selectors));
+    }
+
+    /**
+     * Gets the profiled locators ranked by total in-browser evaluation time
+     *
+     * @return Ranked locator statistics
+     */
+    public static List<Map<String, Object>> ranking() {
+        return stats.values().stream()
+            .sorted(Comparator.comparingDouble(LocatorStats::totalMillis).reversed())
+            .map(LocatorStats::toMap)
+            .toList();
+    }
+
+    /**
+     * Logs the most expensive locators and writes the full ranking as JSON
+     *
+     * @param file The report file
+     */
+    public static void writeReport(Path file) {
+        List<Map<String, Object>> ranking = ranking();
+        if (ranking.isEmpty()) {
+            return;
+        }
+        logger.info("Locator profile (top {} of {} by total evaluation time):", Math.min(10, ranking.size()), ranking.size());
+        ranking.stream().limit(10).forEach(entry -> logger.info("  {} ms total, {} ms avg, {} matches, DOM {} | {} {}{}",
+            entry.get("totalMs"), entry.get("avgMs"), entry.get("matches"), entry.get("domSize"), entry.get("pageObject"), entry.get("locator"),
+            entry.get("suggestion") != null ? " -> " + entry.get("suggestion") : ""));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), ranking);
+        } catch (IOException e) {
+            logger.warn("Could not write locator profile to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Optional<String> branchToCss(String branch) {
+        if (!branch.startsWith("/") || branch.contains("text()") || branch.contains("..") || branch.contains("::")) {
+            return Optional.empty();
+        }
+        StringBuilder css = new StringBuilder();
+        int position = 0;
+        while (position < branch.length()) {
+            String combinator;
+            if (branch.startsWith("//", position)) {
+                combinator = " ";
+                position += 2;
+            } else if (branch.startsWith("/", position)) {
+                combinator = " > ";
+                position += 1;
+            } else {
+                return Optional.empty();
+            }
+            Matcher step = STEP.matcher(branch);
+            if (!step.find(position) || step.start() != position) {
+                return Optional.empty();
+            }
+            Optional<String> predicates = predicatesToCss(step.group(2));
+            if (predicates.isEmpty()) {
+                return Optional.empty();
+            }
+            String element = "*".equals(step.group(1)) && !predicates.get().isEmpty() ? "" : step.group(1);
+            if (css.length() > 0) {
+                css.append(combinator);
+            }
+            css.append(element).append(predicates.get());
+            position = step.end();
+        }
+        return Optional.of(css.toString());
+    }
+
+    private static Optional<String> predicatesToCss(String predicates) {
+        StringBuilder css = new StringBuilder();
+        Matcher predicate = PREDICATE.matcher(predicates);
+        while (predicate.find()) {
+            for (String condition : predicate.group(1).split("\\s+and\\s+")) {
+                Matcher equals = ATTRIBUTE_EQUALS.matcher(condition.trim());
+                Matcher contains = ATTRIBUTE_CONTAINS.matcher(condition.trim());
+                Matcher present = ATTRIBUTE_PRESENT.matcher(condition.trim());
+                if (equals.matches()) {
+                    css.append('[').append(equals.group(1)).append("='").append(equals.group(2)).append("']");
+                } else if (contains.matches()) {
+                    css.append('[').append(contains.group(1)).append("*='").append(contains.group(2)).append("']");
+                } else if (present.matches()) {
+                    css.append('[').append(present.group(1)).append(']');
+                } else {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(css.toString());
+    }
+
+    private static String hint(String using, String value) {
+        if (!"xpath".equals(using)) {
+            return null;
+        }
+        if (value.contains("//*[") && value.contains("text()")) {
+            return "Text match on //* scans every element in the document; restrict it to an element type or container";
+        }
+        if (value.contains("text()")) {
+            return "Text predicates have no CSS equivalent; prefer a class, id or data attribute";
+        }
+        return suggestCss(value).isPresent() ? null : "No direct CSS equivalent";
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    private static final class LocatorStats {
+        private final String pageObject;
+        private final String locator;
+        private final String suggestion;
+        private final String hint;
+        private long samples;
+        private double totalMillis;
+        private double maxMillis;
+        private long lastMatches;
+        private long maxDomSize;
+        private double suggestionTotalMillis;
+        private long suggestionMatches = -1;
+
+        LocatorStats(String pageObject, String locator, String suggestion, String hint) {
+            this.pageObject = pageObject;
+            this.locator = locator;
+            this.suggestion = suggestion;
+            this.hint = hint;
+        }
+
+        synchronized void record(double millis, long matches, long domSize, double suggestionMillis, long suggestionCount) {
+            samples++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            lastMatches = matches;
+            maxDomSize = Math.max(maxDomSize, domSize);
+            if (suggestionMillis >= 0) {
+                suggestionTotalMillis += suggestionMillis;
+                suggestionMatches = suggestionCount;
+            }
+        }
+
+        synchronized double totalMillis() {
+            return totalMillis;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("pageObject", pageObject);
+            map.put("locator", locator);
+            map.put("samples", samples);
+            map.put("totalMs", round(totalMillis));
+            map.put("avgMs", round(totalMillis / samples));
+            map.put("maxMs", round(maxMillis));
+            map.put("matches", lastMatches);
+            map.put("domSize", maxDomSize);
+            map.put("suggestion", suggestion);
+            if (suggestion != null) {
+                map.put("suggestionAvgMs", round(suggestionTotalMillis / samples));
+                // Different counts mean the CSS form is not equivalent on this page and needs review
+                map.put("suggestionMatches", suggestionMatches);
+            }
+            map.put("hint", hint);
+            return map;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.lambdatest.atdd.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Attributes WebDriver command time to the page-object methods that sent the commands
+ *
+ * {@link RecordingCommandExecutor} reports every command; the outermost frame in the pages package
+ * names the method (e.g. "ECommerceHomePage.searchForProduct"). Per method, the span from the start of
+ * its first command to the end of its last one is kept until the step finishes and {@link #drain()} is
+ * called, so waits between polling commands count as the method's time too.
+ */
+public final class PageMethodTimer {
+    private static final String PAGES_PACKAGE = "com.lambdatest.atdd.pages.";
+    private static final StackWalker walker = StackWalker.getInstance();
+    private static final ThreadLocal<Map<String, long[]>> spans = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    private PageMethodTimer() {
+    }
+
+    /**
+     * @return true if timings are collected for the performance history (-Datdd.perf=true enables)
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Performance.ENABLED;
+    }
+
+    /**
+     * Adds a command to the span of the page-object method on the current thread's stack, if any
+     *
+     * @param startNanos When the command was sent
+     * @param endNanos When its response arrived
+     */
+    static void record(long startNanos, long endNanos) {
+        String method = walker.walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith(PAGES_PACKAGE))
+            .reduce((inner, outer) -> outer)
+            .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "." + frame.getMethodName())
+            .orElse(null));
+        if (method != null) {
+            spans.get().merge(method, new long[] {startNanos, endNanos}, (span, next) -> {
+                span[1] = Math.max(span[1], next[1]);
+                return span;
+            });
+        }
+    }
+
+    /**
+     * Takes the spans collected on the current thread since the last call
+     *
+     * @return Page-object method to milliseconds, in the order the methods were first called
+     */
+    public static Map<String, Long> drain() {
+        Map<String, long[]> collected = spans.get();
+        if (collected.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> millis = new LinkedHashMap<>();
+        collected.forEach((method, span) -> millis.put(method, (span[1] - span[0]) / 1_000_000));
+        collected.clear();
+        return millis;
+    }
+}
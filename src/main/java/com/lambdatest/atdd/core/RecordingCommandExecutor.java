@@ -0,0 +1,220 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.Response;
+
+/**
+ * CommandExecutor decorator that keeps the last N WebDriver commands sent to the grid and
+ * maintains a navigation epoch that changes whenever a command may have replaced the page, and a
+ * DOM epoch that also changes whenever a command may have added or removed elements
+ * Wrapping the executor (rather than the driver) keeps the driver a plain RemoteWebDriver
+ *
+ * It also installs the console buffer of {@link Diagnostics#CONSOLE_HOOK_SCRIPT} on every document the
+ * tests run a script on: the hook is prepended to each script, so it costs no extra round trip. Grid
+ * executor commands such as "lambda-status=passed" are not JavaScript and are sent unchanged. Typed
+ * text is never recorded, since it may be a password.
+ */
+public class RecordingCommandExecutor implements CommandExecutor {
+
+    private static final int MAX_PARAMETER_LENGTH = 160;
+
+    public static final String COMMAND_LATENCY = "webdriver.command_ms";
+
+    // Commands after which previously located elements may belong to another document
+    private static final Set<String> NAVIGATION_COMMANDS = Set.of(
+        DriverCommand.GET, DriverCommand.GO_BACK, DriverCommand.GO_FORWARD, DriverCommand.REFRESH,
+        DriverCommand.CLICK_ELEMENT, DriverCommand.ACTIONS, DriverCommand.SWITCH_TO_WINDOW,
+        DriverCommand.SWITCH_TO_NEW_WINDOW, DriverCommand.SWITCH_TO_FRAME, DriverCommand.SWITCH_TO_PARENT_FRAME,
+        DriverCommand.CLOSE);
+
+    // Commands after which the page may have added or removed elements without navigating
+    private static final Set<String> DOM_COMMANDS = Set.of(
+        DriverCommand.SEND_KEYS_TO_ELEMENT, DriverCommand.CLEAR_ELEMENT, DriverCommand.SUBMIT_ELEMENT,
+        DriverCommand.EXECUTE_SCRIPT, DriverCommand.EXECUTE_ASYNC_SCRIPT, DriverCommand.ACCEPT_ALERT,
+        DriverCommand.DISMISS_ALERT);
+
+    private static final Set<String> SCRIPT_COMMANDS = Set.of(DriverCommand.EXECUTE_SCRIPT, DriverCommand.EXECUTE_ASYNC_SCRIPT);
+
+    // Scripts the grid recognizes by their exact text and runs itself instead of the page
+    private static final List<String> EXECUTOR_PREFIXES = List.of("lambda-", "lambdatest_executor:");
+
+    // Commands whose parameters carry typed text
+    private static final Set<String> TYPING_COMMANDS = Set.of(
+        DriverCommand.SEND_KEYS_TO_ELEMENT, DriverCommand.SET_ALERT_VALUE, DriverCommand.ACTIONS);
+    private static final Set<String> TYPED_PARAMETERS = Set.of("value", "text", "actions");
+
+    private final CommandExecutor delegate;
+    private final int capacity;
+    private final Deque<String> recentCommands;
+    private final AtomicLong navigationEpoch = new AtomicLong();
+    private final AtomicLong domEpoch = new AtomicLong();
+    // Command being sent and when it started, read by the scenario watchdog from its own thread
+    private volatile String inFlightCommand;
+    private volatile long inFlightSinceNanos;
+
+    /**
+     * Constructor for RecordingCommandExecutor
+     *
+     * @param delegate The executor that talks to the grid
+     * @param capacity Number of commands to keep
+     */
+    public RecordingCommandExecutor(CommandExecutor delegate, int capacity) {
+        this.delegate = delegate;
+        this.capacity = Math.max(1, capacity);
+        this.recentCommands = new ArrayDeque<>(this.capacity);
+    }
+
+    @Override
+    public Response execute(Command command) throws IOException {
+        if (isNavigation(command)) {
+            navigationEpoch.incrementAndGet();
+            domEpoch.incrementAndGet();
+        } else if (DOM_COMMANDS.contains(command.getName()) && !isExecutorCommand(command)) {
+            domEpoch.incrementAndGet();
+        }
+        long start = System.nanoTime();
+        String outcome = "ok";
+        inFlightSinceNanos = start;
+        inFlightCommand = command.getName();
+        try {
+            Response response = delegate.execute(withConsoleHook(command));
+            if (response != null && response.getState() != null && !ErrorCodes.SUCCESS_STRING.equals(response.getState())) {
+                outcome = response.getState();
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            inFlightCommand = null;
+            long end = System.nanoTime();
+            record(command, (end - start) / 1_000_000, outcome);
+            if (PageMethodTimer.isEnabled()) {
+                PageMethodTimer.record(start, end);
+            }
+        }
+    }
+
+    /**
+     * Gets the most recent commands, oldest first
+     *
+     * @return Formatted command history
+     */
+    public synchronized List<String> getRecentCommands() {
+        return new ArrayList<>(recentCommands);
+    }
+
+    /**
+     * Gets the navigation epoch; element references located in an older epoch may be stale
+     *
+     * @return Number of potentially navigating commands sent so far
+     */
+    public long getNavigationEpoch() {
+        return navigationEpoch.get();
+    }
+
+    /**
+     * Gets the DOM epoch; element lists located in an older epoch may miss elements added since
+     *
+     * @return Number of commands sent so far that may have changed the page
+     */
+    public long getDomEpoch() {
+        return domEpoch.get();
+    }
+
+    /**
+     * Gets the command currently waiting for a response from the grid
+     *
+     * @return Command name, e.g. "get", or null if no command is in flight
+     */
+    public String getInFlightCommand() {
+        return inFlightCommand;
+    }
+
+    /**
+     * Gets how long the in-flight command has been waiting
+     *
+     * @return Milliseconds since the command was sent, 0 if no command is in flight
+     */
+    public long getInFlightMillis() {
+        return inFlightCommand == null ? 0 : (System.nanoTime() - inFlightSinceNanos) / 1_000_000;
+    }
+
+    private static boolean isNavigation(Command command) {
+        if (NAVIGATION_COMMANDS.contains(command.getName())) {
+            return true;
+        }
+        // Typing Enter/Return usually submits a form
+        if (DriverCommand.SEND_KEYS_TO_ELEMENT.equals(command.getName())) {
+            Object value = command.getParameters().get("value");
+            String keys = value instanceof Object[] array ? String.join("", Arrays.stream(array).map(String::valueOf).toList())
+                : String.valueOf(value);
+            return keys.indexOf(Keys.ENTER.charAt(0)) >= 0 || keys.indexOf(Keys.RETURN.charAt(0)) >= 0;
+        }
+        return false;
+    }
+
+    /**
+     * @return true for a grid executor command such as "lambda-name=...", which must reach the grid verbatim
+     */
+    private static boolean isExecutorCommand(Command command) {
+        return SCRIPT_COMMANDS.contains(command.getName()) && command.getParameters().get("script") instanceof String script
+            && EXECUTOR_PREFIXES.stream().anyMatch(script.stripLeading()::startsWith);
+    }
+
+    /**
+     * Prepends the console hook to a page script; the hook returns nothing and runs once per document
+     */
+    private static Command withConsoleHook(Command command) {
+        if (!SCRIPT_COMMANDS.contains(command.getName()) || !(command.getParameters().get("script") instanceof String script)
+            || isExecutorCommand(command)) {
+            return command;
+        }
+        Map<String, Object> parameters = new HashMap<>(command.getParameters());
+        parameters.put("script", Diagnostics.CONSOLE_HOOK_SCRIPT + script);
+        return new Command(command.getSessionId(), command.getName(), parameters);
+    }
+
+    /**
+     * Formats the command parameters for the history, with typed text replaced by "<redacted>"
+     */
+    private static String describeParameters(Command command) {
+        Map<String, ?> parameters = command.getParameters();
+        if (TYPING_COMMANDS.contains(command.getName())) {
+            Map<String, Object> redacted = new HashMap<>(parameters);
+            redacted.replaceAll((name, value) -> TYPED_PARAMETERS.contains(name) ? "<redacted>" : value);
+            parameters = redacted;
+        }
+        return String.valueOf(parameters);
+    }
+
+    private void record(Command command, long millis, String outcome) {
+        RunMetrics.histogram(COMMAND_LATENCY + "{command=" + command.getName() + "}").record(millis);
+        String parameters = describeParameters(command);
+        if (parameters.length() > MAX_PARAMETER_LENGTH) {
+            parameters = parameters.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        String entry = command.getName() + " " + parameters + " -> " + outcome + " (" + millis + " ms)";
+        synchronized (this) {
+            if (recentCommands.size() == capacity) {
+                recentCommands.removeFirst();
+            }
+            recentCommands.addLast(entry);
+        }
+    }
+}
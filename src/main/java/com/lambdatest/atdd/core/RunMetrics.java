@@ -0,0 +1,138 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Run-wide counters shared by all worker threads
+ * Counters and histogram buckets are LongAdders, so updating them on hot paths does not contend between threads
+ */
+public final class RunMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(RunMetrics.class);
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private RunMetrics() {
+    }
+
+    /**
+     * Gets (or creates) a named counter
+     *
+     * @param name Counter name, e.g. "element_cache.hits"
+     * @return The counter
+     */
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Registers a value that is read whenever a snapshot is taken, e.g. a queue depth
+     *
+     * @param name Gauge name, e.g. "session_admission.queue_depth"
+     * @param value Supplies the current value
+     */
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Gets (or creates) a named latency histogram
+     * A label may be appended in braces, e.g. "webdriver.command_ms{command=get}"
+     *
+     * @param name Histogram name
+     * @return The histogram
+     */
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Gets the current value of every counter and gauge, plus the count and sum of every histogram
+     *
+     * @return Values sorted by name
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            values.put(name + ".count", snapshot.count());
+            values.put(name + ".sum", snapshot.sumMillis());
+        });
+        return values;
+    }
+
+    /**
+     * Reads every counter
+     *
+     * @return Counter values sorted by name
+     */
+    public static Map<String, Long> counters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * Reads every gauge
+     *
+     * @return Gauge values sorted by name
+     */
+    public static Map<String, Long> gauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    /**
+     * Reads every histogram
+     *
+     * @return Histogram snapshots sorted by name
+     */
+    public static Map<String, LatencyHistogram.Snapshot> histograms() {
+        Map<String, LatencyHistogram.Snapshot> values = new TreeMap<>();
+        histograms.forEach((name, histogram) -> values.put(name, histogram.snapshot()));
+        return values;
+    }
+
+    /**
+     * Computes a hit rate from two counters
+     *
+     * @param hits Name of the hit counter
+     * @param misses Name of the miss counter
+     * @return Hit rate in percent, 0 if nothing was counted
+     */
+    public static double hitRate(String hits, String misses) {
+        long hitCount = counter(hits).sum();
+        long total = hitCount + counter(misses).sum();
+        return total == 0 ? 0 : 100.0 * hitCount / total;
+    }
+
+    /**
+     * Writes all counters as JSON
+     *
+     * @param file The file to write
+     */
+    public static void writeTo(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), snapshot());
+        } catch (IOException e) {
+            logger.warn("Could not write run metrics to {}: {}", file, e.getMessage());
+        }
+    }
+}
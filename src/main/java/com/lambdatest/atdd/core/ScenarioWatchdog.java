@@ -0,0 +1,300 @@
+package com.lambdatest.atdd.core;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.remote.DriverCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Enforces per-scenario and per-step deadlines on the Cucumber worker threads
+ *
+ * When a deadline passes, the watchdog frees the scenario's session slot and force-quits the session
+ * on a separate thread, then interrupts the worker, so a hung page or grid VM stops holding a parallel
+ * slot. The step hooks then fail the scenario with the timeout reason ({@link #expiry()}).
+ * Deadlines come from {@link TestConfiguration.Watchdog} and are off by default; tags such as
+ * {@code @scenario-timeout=900} and {@code @step-timeout=300} set them for a scenario. {@link #cancelAll(String)} stops every
+ * running scenario the same way, e.g. when the circuit breaker opens.
+ */
+public final class ScenarioWatchdog {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioWatchdog.class);
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "atdd-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ThreadLocal<Watch> current = new ThreadLocal<>();
+    private static final Set<Watch> running = ConcurrentHashMap.newKeySet();
+    // Commands that end with a page load, bounded by the page-load timeout rather than the grid idle timeout
+    private static final Set<String> PAGE_LOAD_COMMANDS = Set.of(
+        DriverCommand.GET, DriverCommand.REFRESH, DriverCommand.GO_BACK, DriverCommand.GO_FORWARD);
+
+    public static final String SCENARIO_TIMEOUT_TAG = "@scenario-timeout=";
+    public static final String STEP_TIMEOUT_TAG = "@step-timeout=";
+    public static final String TIMEOUTS = "watchdog.timeouts";
+    public static final String RECLAIMED_MILLIS = "watchdog.reclaimed_ms";
+    public static final String CANCELLED = "watchdog.cancelled";
+
+    /**
+     * Failure reported for a scenario whose deadline passed
+     */
+    public static class DeadlineExceededException extends RuntimeException {
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+
+        public DeadlineExceededException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private ScenarioWatchdog() {
+    }
+
+    /**
+     * Arms the scenario deadline for the current thread
+     *
+     * @param scenario Scenario name, for the timeout reason
+     * @param tags Scenario tags, which may override the deadlines
+     */
+    public static void startScenario(String scenario, Collection<String> tags) {
+        finishScenario();
+        long scenarioSeconds = timeoutSeconds(tags, SCENARIO_TIMEOUT_TAG, TestConfiguration.Watchdog.SCENARIO_TIMEOUT_SECONDS);
+        long stepSeconds = timeoutSeconds(tags, STEP_TIMEOUT_TAG, TestConfiguration.Watchdog.STEP_TIMEOUT_SECONDS);
+        Watch watch = new Watch(scenario, Thread.currentThread(), scenarioSeconds, stepSeconds);
+        armScenarioDeadline(watch);
+        current.set(watch);
+        running.add(watch);
+    }
+
+    /**
+     * Re-arms the scenario deadline from now, so each external example row the scenario runs gets the full deadline
+     */
+    public static void renewScenarioDeadline() {
+        Watch watch = current.get();
+        if (watch != null && watch.expiry == null) {
+            if (watch.scenarioDeadline != null) {
+                watch.scenarioDeadline.cancel(false);
+            }
+            armScenarioDeadline(watch);
+        }
+    }
+
+    private static void armScenarioDeadline(Watch watch) {
+        if (watch.scenarioSeconds > 0) {
+            watch.scenarioDeadline = scheduler.schedule(
+                () -> watch.expire("Scenario '" + watch.scenario + "' exceeded its " + watch.scenarioSeconds + " s deadline", false),
+                watch.scenarioSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Arms the step deadline; called before each step
+     */
+    public static void startStep() {
+        Watch watch = current.get();
+        if (watch != null && watch.stepSeconds > 0) {
+            watch.stepDeadline = scheduler.schedule(
+                () -> watch.expire("A step of '" + watch.scenario + "' exceeded its " + watch.stepSeconds + " s deadline", false),
+                watch.stepSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Disarms the step deadline; called after each step
+     */
+    public static void finishStep() {
+        Watch watch = current.get();
+        if (watch != null && watch.stepDeadline != null) {
+            watch.stepDeadline.cancel(false);
+            watch.stepDeadline = null;
+        }
+    }
+
+    /**
+     * Registers the session the current scenario runs in, so an expired deadline can reclaim it
+     *
+     * @param executor Command executor of the session, to estimate how long a hung command would have held the slot
+     * @param reclaim Frees the session slot and quits the session; called from another thread, at most once
+     */
+    public static void attachSession(RecordingCommandExecutor executor, Runnable reclaim) {
+        Watch watch = current.get();
+        if (watch != null) {
+            watch.attach(executor, reclaim);
+        }
+    }
+
+    /**
+     * Forgets the current session, e.g. because it is being quit or parked for another scenario
+     */
+    public static void detachSession() {
+        Watch watch = current.get();
+        if (watch != null) {
+            watch.attach(null, null);
+        }
+    }
+
+    /**
+     * Stops every running scenario except the caller's: frees and quits their sessions and interrupts them
+     *
+     * @param reason Why the scenarios are cancelled, reported by {@link #expiry()}
+     */
+    public static void cancelAll(String reason) {
+        Watch own = current.get();
+        running.stream().filter(watch -> watch != own).forEach(watch -> watch.expire(reason, true));
+    }
+
+    /**
+     * Checks whether the current scenario's deadline has passed or it was cancelled, clearing the
+     * interrupt the watchdog sent so the remaining hooks can still talk to the grid
+     *
+     * @return The timeout or cancellation reason, empty if the scenario may go on
+     */
+    public static Optional<String> expiry() {
+        Watch watch = current.get();
+        if (watch == null || watch.expiry == null) {
+            return Optional.empty();
+        }
+        Thread.interrupted();
+        return Optional.of(watch.expiry);
+    }
+
+    /**
+     * @return true if the current scenario's deadline has passed or it was cancelled
+     */
+    public static boolean hasExpired() {
+        Watch watch = current.get();
+        return watch != null && watch.expiry != null;
+    }
+
+    /**
+     * @return true if the current scenario was stopped by {@link #cancelAll(String)} rather than a deadline
+     */
+    public static boolean isCancelled() {
+        Watch watch = current.get();
+        return watch != null && watch.cancelled;
+    }
+
+    /**
+     * Disarms all deadlines of the current thread's scenario
+     *
+     * @return The timeout reason, empty if no deadline passed
+     */
+    public static Optional<String> finishScenario() {
+        Watch watch = current.get();
+        if (watch == null) {
+            return Optional.empty();
+        }
+        current.remove();
+        running.remove(watch);
+        if (watch.stepDeadline != null) {
+            watch.stepDeadline.cancel(false);
+        }
+        if (watch.scenarioDeadline != null) {
+            watch.scenarioDeadline.cancel(false);
+        }
+        String expiry = watch.finish();
+        if (expiry != null) {
+            // The worker must not carry the interrupt into the next scenario
+            Thread.interrupted();
+        }
+        return Optional.ofNullable(expiry);
+    }
+
+    /**
+     * Reads a deadline from a tag such as "@step-timeout=300", falling back to the configured value
+     *
+     * @return Seconds, 0 for no deadline
+     */
+    static long timeoutSeconds(Collection<String> tags, String tagPrefix, long defaultSeconds) {
+        for (String tag : tags) {
+            if (tag.startsWith(tagPrefix)) {
+                try {
+                    return Long.parseLong(tag.substring(tagPrefix.length()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring {}: the deadline must be a number of seconds", tag);
+                }
+            }
+        }
+        return defaultSeconds;
+    }
+
+    private static final class Watch {
+        private final String scenario;
+        private final Thread worker;
+        private final long scenarioSeconds;
+        private final long stepSeconds;
+        private volatile ScheduledFuture<?> scenarioDeadline;
+        private volatile ScheduledFuture<?> stepDeadline;
+        private volatile String expiry;
+        private volatile boolean cancelled;
+        private RecordingCommandExecutor executor;
+        private Runnable reclaim;
+        private boolean finished;
+
+        Watch(String scenario, Thread worker, long scenarioSeconds, long stepSeconds) {
+            this.scenario = scenario;
+            this.worker = worker;
+            this.scenarioSeconds = scenarioSeconds;
+            this.stepSeconds = stepSeconds;
+        }
+
+        synchronized void attach(RecordingCommandExecutor executor, Runnable reclaim) {
+            this.executor = executor;
+            this.reclaim = reclaim;
+        }
+
+        synchronized String finish() {
+            finished = true;
+            return expiry;
+        }
+
+        // Runs on the scheduler thread; the lock keeps the interrupt from reaching a worker that has moved on
+        synchronized void expire(String reason, boolean cancel) {
+            if (finished || expiry != null) {
+                return;
+            }
+            // Written first: readers that see the expiry also see whether it was a cancellation
+            cancelled = cancel;
+            expiry = reason;
+            RunMetrics.counter(cancel ? CANCELLED : TIMEOUTS).increment();
+            long reclaimedMillis = 0;
+            if (reclaim != null) {
+                reclaimedMillis = reclaimableMillis(executor);
+                RunMetrics.counter(RECLAIMED_MILLIS).add(reclaimedMillis);
+                Thread.ofVirtual().name("atdd-watchdog-reclaim").start(reclaim);
+                reclaim = null;
+                executor = null;
+            }
+            if (cancel) {
+                logger.warn("Cancelling '{}': {}", scenario, reason);
+            } else {
+                logger.error("{}; session force-quit, about {} s of slot time reclaimed", reason, reclaimedMillis / 1000);
+            }
+            worker.interrupt();
+        }
+
+        /**
+         * Estimates how much longer the in-flight command would have held the slot without the watchdog:
+         * until the page-load timeout for navigations, until the grid's idle timeout otherwise
+         */
+        private static long reclaimableMillis(RecordingCommandExecutor executor) {
+            String command = executor != null ? executor.getInFlightCommand() : null;
+            if (command == null) {
+                return 0;
+            }
+            long limitSeconds = PAGE_LOAD_COMMANDS.contains(command)
+                ? TestConfiguration.TestConfig.PAGE_LOAD_TIMEOUT : TestConfiguration.TestConfig.IDLE_TIMEOUT;
+            return Math.max(0, limitSeconds * 1000 - executor.getInFlightMillis());
+        }
+    }
+}
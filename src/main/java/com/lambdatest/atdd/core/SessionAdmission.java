@@ -0,0 +1,164 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control for grid sessions
+ * Threads wait in a fair (FIFO) queue for one of a fixed number of session slots, so raising
+ * parallelism above the account's concurrency queues locally and visibly instead of on the grid.
+ * Session creation that fails with "queue full" or a 5xx response is retried with jittered
+ * exponential backoff until the provisioning deadline.
+ */
+public class SessionAdmission {
+    private static final Logger logger = LoggerFactory.getLogger(SessionAdmission.class);
+    private static final Pattern RETRYABLE_MESSAGE = Pattern.compile(
+        "(?i)queue.{0,20}full|too many|concurrency|capacity|no .{0,20}available|response code 5\\d\\d|\\b50[234]\\b");
+
+    public static final String ADMITTED = "session_admission.admitted";
+    public static final String WAIT_MILLIS = "session_admission.wait_ms";
+    public static final String BACKOFFS = "session_admission.backoffs";
+    public static final String DEADLINE_EXCEEDED = "session_admission.deadline_exceeded";
+    public static final String QUEUE_DEPTH = "session_admission.queue_depth";
+    public static final String QUEUE_DEPTH_PEAK = "session_admission.queue_depth_peak";
+    public static final String WAIT_MILLIS_MAX = "session_admission.wait_ms_max";
+
+    private final Semaphore slots;
+    private final int maxSessions;
+    private final Duration deadline;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAccumulator queueDepthPeak = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxWaitMillis = new LongAccumulator(Long::max, 0);
+
+    /**
+     * @param maxSessions Number of sessions that may exist at once, 0 or less for no limit
+     * @param deadline Maximum time from requesting a session until it is provisioned
+     * @param initialBackoffMillis Backoff before the first retry
+     * @param maxBackoffMillis Upper bound of the backoff
+     */
+    public SessionAdmission(int maxSessions, Duration deadline, long initialBackoffMillis, long maxBackoffMillis) {
+        this.maxSessions = maxSessions > 0 ? maxSessions : Integer.MAX_VALUE;
+        this.slots = new Semaphore(this.maxSessions, true);
+        this.deadline = deadline;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        RunMetrics.gauge(QUEUE_DEPTH, queueDepth::get);
+        RunMetrics.gauge(QUEUE_DEPTH_PEAK, queueDepthPeak::get);
+        RunMetrics.gauge(WAIT_MILLIS_MAX, maxWaitMillis::get);
+    }
+
+    /**
+     * Waits for a session slot, then creates the session, backing off on transient grid errors
+     * The slot stays taken until {@link #release()} is called; if creation fails it is released here
+     *
+     * @param sessionFactory Creates the session (one attempt)
+     * @param <T> Session type
+     * @return The created session
+     * @throws SessionNotCreatedException if no session could be provisioned before the deadline
+     */
+    public <T> T admit(Supplier<T> sessionFactory) {
+        long start = System.nanoTime();
+        long deadlineNanos = start + deadline.toNanos();
+        acquireSlot(start, deadlineNanos);
+        try {
+            return createWithBackoff(sessionFactory, deadlineNanos);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a slot taken by {@link #admit(Supplier)}
+     */
+    public void release() {
+        slots.release();
+    }
+
+    private void acquireSlot(long start, long deadlineNanos) {
+        int depth = queueDepth.incrementAndGet();
+        queueDepthPeak.accumulate(depth);
+        try {
+            if (!slots.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                RunMetrics.counter(DEADLINE_EXCEEDED).increment();
+                throw new SessionNotCreatedException(String.format(
+                    "No grid session slot became free within %d ms (%d slots, %d waiting)",
+                    deadline.toMillis(), maxSessions, queueDepth.get()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a grid session slot");
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        RunMetrics.counter(ADMITTED).increment();
+        RunMetrics.counter(WAIT_MILLIS).add(waitMillis);
+        maxWaitMillis.accumulate(waitMillis);
+        if (waitMillis > 0) {
+            logger.debug("Waited {} ms for a grid session slot", waitMillis);
+        }
+    }
+
+    private <T> T createWithBackoff(Supplier<T> sessionFactory, long deadlineNanos) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return sessionFactory.get();
+            } catch (WebDriverException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                // Jitter between half and the full exponential bound, so workers that failed together retry apart
+                long bound = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt, 20));
+                long sleepMillis = ThreadLocalRandom.current().nextLong(bound / 2, bound + 1);
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleepMillis) >= deadlineNanos) {
+                    RunMetrics.counter(DEADLINE_EXCEEDED).increment();
+                    throw new SessionNotCreatedException(String.format(
+                        "Grid did not provision a session within %d ms after %d attempts", deadline.toMillis(), attempt + 1), e);
+                }
+                RunMetrics.counter(BACKOFFS).increment();
+                logger.warn("Grid could not create a session ({}), retrying in {} ms", firstLine(e), sleepMillis);
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decides whether a session creation failure is transient ("queue full", 5xx, grid unreachable)
+     *
+     * @param e The failure
+     * @return true if creating the session again may succeed
+     */
+    static boolean isRetryable(WebDriverException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IOException
+                || (t.getMessage() != null && RETRYABLE_MESSAGE.matcher(t.getMessage()).find())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstLine(Throwable e) {
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage().lines().findFirst().orElse("");
+    }
+}
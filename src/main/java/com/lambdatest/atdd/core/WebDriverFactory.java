@@ -1,13 +1,21 @@
 package com.lambdatest.atdd.core;
 
 import java.net.MalformedURLException;
-import java.net.URL;
+import java.net.URI;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,11 +24,55 @@ import com.lambdatest.atdd.config.TestConfiguration;
 
 /**
  * Factory class for creating WebDriver instances
- * Handles LambdaTest cloud configuration and local driver setup
+ * Handles LambdaTest cloud configuration and, with -Datdd.backend=local, a pool of headless browsers
+ * on this machine ({@link LocalBrowserPool}); LambdaTest status calls are no-ops on the local backend.
+ * With -Datdd.contexts.per-session above 1, scenarios share grid sessions through isolated browser
+ * contexts ({@link BrowserContextPool}) unless they need a full session.
  */
 public class WebDriverFactory {
     private static final Logger logger = LoggerFactory.getLogger(WebDriverFactory.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<RecordingCommandExecutor> commandRecorderThreadLocal = new ThreadLocal<>();
+    // Set while the session holds an admission slot; the watchdog may release it from another thread
+    private static final ThreadLocal<AtomicBoolean> admissionSlotThreadLocal = new ThreadLocal<>();
+    private static final SessionAdmission admission = new SessionAdmission(
+        TestConfiguration.Grid.MAX_SESSIONS,
+        Duration.ofSeconds(TestConfiguration.Grid.PROVISION_DEADLINE_SECONDS),
+        TestConfiguration.Grid.BACKOFF_INITIAL_MILLIS,
+        TestConfiguration.Grid.BACKOFF_MAX_MILLIS);
+    // Idle sessions kept open between runs by the daemon runner, keyed by browser|version|platform
+    private static final Map<String, Queue<WebDriver>> warmSessions = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> sessionKeyThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<String> sessionBatchThreadLocal = new ThreadLocal<>();
+    private static final String RESET_STORAGE_SCRIPT =
+        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+    private static volatile boolean keepSessionsWarm;
+    // Sessions currently owned by a scenario; parked sessions are counted as idle
+    private static final AtomicInteger activeSessions = new AtomicInteger();
+    private static volatile LocalBrowserPool localPool;
+    // Context pools keyed by browser|version|platform; set per thread while its driver is a context
+    private static final Map<String, BrowserContextPool> contextPools = new ConcurrentHashMap<>();
+    private static final ThreadLocal<BrowserContextPool> contextPoolThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> fullSessionThreadLocal = new ThreadLocal<>();
+    
+    public static final String SESSIONS_ACTIVE = "sessions.active";
+    public static final String SESSIONS_IDLE = "sessions.idle";
+    public static final String PROVISION_LATENCY = "session.provision_ms";
+    
+    static {
+        RunMetrics.gauge(SESSIONS_ACTIVE, activeSessions::get);
+        RunMetrics.gauge(SESSIONS_IDLE, () -> warmSessions.values().stream().mapToLong(Queue::size).sum()
+            + (localPool != null ? localPool.idleCount() : 0));
+    }
+    
+    /**
+     * Checks whether scenarios run in local browsers instead of on the LambdaTest grid
+     * 
+     * @return true if -Datdd.backend=local
+     */
+    public static boolean isLocal() {
+        return "local".equalsIgnoreCase(TestConfiguration.Backend.NAME);
+    }
     
     /**
      * Creates a WebDriver instance for LambdaTest cloud execution
@@ -32,6 +84,69 @@ public class WebDriverFactory {
      * @return WebDriver instance configured for LambdaTest
      */
     public static WebDriver createRemoteDriver(String testName, String browser, String browserVersion, String platform) {
+        if (isLocal()) {
+            return createLocalDriver(testName);
+        }
+        String batch = sessionBatchThreadLocal.get();
+        String sessionKey = (batch != null ? batch + "|" : "") + browser + "|" + browserVersion + "|" + platform;
+        WebDriver warmDriver = takeWarmSession(sessionKey, testName);
+        if (warmDriver != null) {
+            return warmDriver;
+        }
+        // Batches and warm sessions hand over whole sessions, which contexts cannot do
+        boolean shareSession = TestConfiguration.Contexts.PER_SESSION > 1 && batch == null && !keepSessionsWarm
+            && !Boolean.TRUE.equals(fullSessionThreadLocal.get());
+        if (shareSession) {
+            WebDriver contextDriver = createContextDriver(testName, browser, browserVersion, platform);
+            if (contextDriver != null) {
+                return contextDriver;
+            }
+        }
+        
+        DesiredCapabilities capabilities = gridCapabilities(testName, browser, browserVersion, platform);
+        
+        try {
+            // Record the last commands of the session for failure snapshots
+            RecordingCommandExecutor executor = new RecordingCommandExecutor(
+                new HttpCommandExecutor(URI.create(TestConfiguration.getGridUrl()).toURL()),
+                TestConfiguration.TestConfig.COMMAND_HISTORY_SIZE);
+            // Waits for a free slot within our grid concurrency and backs off while the grid is saturated
+            long provisionStart = System.nanoTime();
+            WebDriver driver = admission.admit(() -> new RemoteWebDriver(executor, capabilities));
+            RunMetrics.histogram(PROVISION_LATENCY).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - provisionStart));
+            AtomicBoolean slot = new AtomicBoolean(true);
+            admissionSlotThreadLocal.set(slot);
+            activeSessions.incrementAndGet();
+            ScenarioWatchdog.attachSession(executor, () -> reclaimSession(driver, slot));
+            
+            try {
+                // Set timeouts
+                driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(TestConfiguration.TestConfig.IMPLICIT_WAIT));
+                driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(TestConfiguration.TestConfig.PAGE_LOAD_TIMEOUT));
+                driver.manage().window().maximize();
+            } catch (RuntimeException e) {
+                // The session is not handed out, so give back everything the admission took
+                ScenarioWatchdog.detachSession();
+                admissionSlotThreadLocal.remove();
+                activeSessions.decrementAndGet();
+                reclaimSession(driver, slot);
+                throw e;
+            }
+            
+            driverThreadLocal.set(driver);
+            commandRecorderThreadLocal.set(executor);
+            sessionKeyThreadLocal.set(sessionKey);
+            return driver;
+            
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid LambdaTest Grid URL: " + TestConfiguration.getGridUrl(), e);
+        }
+    }
+    
+    /**
+     * Builds the W3C and LT:Options capabilities of a grid session
+     */
+    private static DesiredCapabilities gridCapabilities(String testName, String browser, String browserVersion, String platform) {
         DesiredCapabilities capabilities = new DesiredCapabilities();
         
         // W3C Standard capabilities
@@ -56,27 +171,127 @@ public class WebDriverFactory {
         ltOptions.put("terminal", true);
         
         // Timeouts and resolution
-        ltOptions.put("idleTimeout", 300);
+        ltOptions.put("idleTimeout", TestConfiguration.TestConfig.IDLE_TIMEOUT);
         ltOptions.put("resolution", TestConfiguration.TestConfig.RESOLUTION);
         
         capabilities.setCapability("LT:Options", ltOptions);
-        
+        return capabilities;
+    }
+    
+    /**
+     * Opens an isolated browser context for the scenario on a shared grid session
+     * 
+     * @return WebDriver instance for the context, or null if the browser cannot isolate contexts
+     */
+    private static WebDriver createContextDriver(String testName, String browser, String browserVersion, String platform) {
+        BrowserContextPool pool = contextPools.computeIfAbsent(browser + "|" + browserVersion + "|" + platform,
+            key -> new BrowserContextPool(TestConfiguration.Contexts.PER_SESSION, TestConfiguration.Grid.MAX_SESSIONS,
+                () -> createHostSession(browser, browserVersion, platform), WebDriverFactory::closeHostSession));
+        if (!pool.isAvailable()) {
+            return null;
+        }
+        long provisionStart = System.nanoTime();
+        RemoteWebDriver driver = pool.acquire(TestConfiguration.TestConfig.COMMAND_HISTORY_SIZE);
+        if (driver == null) {
+            return null;
+        }
+        RunMetrics.histogram(PROVISION_LATENCY).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - provisionStart));
+        activeSessions.incrementAndGet();
         try {
-            WebDriver driver = new RemoteWebDriver(new URL(TestConfiguration.getGridUrl()), capabilities);
-            
-            // Set timeouts
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(TestConfiguration.TestConfig.IMPLICIT_WAIT));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(TestConfiguration.TestConfig.PAGE_LOAD_TIMEOUT));
+            // No implicit wait: a missing element would hold the host's command lock for the whole wait
             driver.manage().window().maximize();
-            
-            driverThreadLocal.set(driver);
+        } catch (RuntimeException e) {
+            activeSessions.decrementAndGet();
+            pool.release(driver);
+            throw e;
+        }
+        driverThreadLocal.set(driver);
+        RecordingCommandExecutor executor = (RecordingCommandExecutor) driver.getCommandExecutor();
+        commandRecorderThreadLocal.set(executor);
+        contextPoolThreadLocal.set(pool);
+        ScenarioWatchdog.attachSession(executor, () -> pool.discard(driver));
+        logger.debug("Browser context on session {} for {}", driver.getSessionId(), testName);
+        return driver;
+    }
+    
+    /**
+     * Creates a grid session with a WebDriver BiDi endpoint to host browser contexts; takes an admission slot
+     */
+    private static RemoteWebDriver createHostSession(String browser, String browserVersion, String platform) {
+        DesiredCapabilities capabilities = gridCapabilities(
+            "Shared session (" + TestConfiguration.Contexts.PER_SESSION + " browser contexts)", browser, browserVersion, platform);
+        capabilities.setCapability("webSocketUrl", true);
+        try {
+            HttpCommandExecutor executor = new HttpCommandExecutor(URI.create(TestConfiguration.getGridUrl()).toURL());
+            RemoteWebDriver driver = admission.admit(() -> new RemoteWebDriver(executor, capabilities));
+            try {
+                // Timeouts are per session, so the contexts share these. Page objects wait explicitly,
+                // polling without holding the host's command lock between attempts
+                driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+                driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(TestConfiguration.TestConfig.PAGE_LOAD_TIMEOUT));
+            } catch (RuntimeException e) {
+                closeHostSession(driver);
+                throw e;
+            }
             return driver;
-            
-        } catch (MalformedURLException e) {
+        } catch (MalformedURLException | IllegalArgumentException e) {
             throw new RuntimeException("Invalid LambdaTest Grid URL: " + TestConfiguration.getGridUrl(), e);
         }
     }
     
+    private static void closeHostSession(RemoteWebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error while quitting shared session: {}", e.getMessage());
+        } finally {
+            admission.release();
+        }
+    }
+    
+    /**
+     * Takes a browser from the local pool; the grid capabilities do not apply to it
+     * 
+     * @param testName The name of the test being executed
+     * @return WebDriver instance backed by a local headless browser
+     */
+    private static WebDriver createLocalDriver(String testName) {
+        long provisionStart = System.nanoTime();
+        RemoteWebDriver driver = localPool().acquire();
+        RunMetrics.histogram(PROVISION_LATENCY).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - provisionStart));
+        activeSessions.incrementAndGet();
+        try {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(TestConfiguration.TestConfig.IMPLICIT_WAIT));
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(TestConfiguration.TestConfig.PAGE_LOAD_TIMEOUT));
+        } catch (RuntimeException e) {
+            activeSessions.decrementAndGet();
+            localPool.release(driver);
+            throw e;
+        }
+        driverThreadLocal.set(driver);
+        RecordingCommandExecutor executor = (RecordingCommandExecutor) driver.getCommandExecutor();
+        commandRecorderThreadLocal.set(executor);
+        ScenarioWatchdog.attachSession(executor, () -> localPool.discard(driver));
+        logger.debug("Local {} browser for {}", TestConfiguration.Backend.LOCAL_BROWSER, testName);
+        return driver;
+    }
+    
+    private static LocalBrowserPool localPool() {
+        LocalBrowserPool pool = localPool;
+        if (pool == null) {
+            synchronized (WebDriverFactory.class) {
+                if (localPool == null) {
+                    localPool = new LocalBrowserPool(TestConfiguration.Backend.LOCAL_BROWSER,
+                        TestConfiguration.Backend.LOCAL_POOL_SIZE, TestConfiguration.Backend.LOCAL_HEADLESS);
+                    logger.info("Local backend: up to {} {} browsers", TestConfiguration.Backend.LOCAL_POOL_SIZE,
+                        TestConfiguration.Backend.LOCAL_BROWSER);
+                }
+                pool = localPool;
+            }
+        }
+        return pool;
+    }
+    
     /**
      * Creates a WebDriver instance with default browser configuration and enhanced test naming
      * 
@@ -141,7 +356,11 @@ public class WebDriverFactory {
      */
     private static void updateTestStatus(String status, String reason) {
         WebDriver driver = getCurrentDriver();
-        if (driver instanceof RemoteWebDriver remoteDriver) {
+        BrowserContextPool contextPool = contextPoolThreadLocal.get();
+        if (contextPool != null) {
+            // Scenarios share the grid session; it is marked failed by the first failed context
+            contextPool.reportStatus(driver, TestConfiguration.Status.PASSED.equals(status), reason);
+        } else if (!isLocal() && driver instanceof RemoteWebDriver remoteDriver) {
             try {
                 remoteDriver.executeScript("lambda-status=" + status);
                 
@@ -149,15 +368,11 @@ public class WebDriverFactory {
                     remoteDriver.executeScript("lambda-exceptions", reason);
                     logger.warn("LambdaTest: Test marked as FAILED - {}", reason);
                 } else if (TestConfiguration.Status.PASSED.equals(status)) {
-                    logger.info("LambdaTest: Test marked as PASSED");
+                    logger.debug("LambdaTest: Test marked as PASSED");
                 }
                 
-                // Log session information for easy tracking
-                String sessionId = getSessionId();
-                if (sessionId != null) {
-                    logger.info("LambdaTest Session: {}", sessionId);
-                    logger.info("Dashboard: https://automation.lambdatest.com/build");
-                }
+                // Session information is logged once per scenario by the hooks
+                logger.debug("LambdaTest Session: {}", getSessionId());
             } catch (Exception e) {
                 logger.error("Failed to update LambdaTest status: {}", e.getMessage(), e);
             }
@@ -168,20 +383,208 @@ public class WebDriverFactory {
     
     /**
      * Quits the current WebDriver instance and cleans up thread local variables
+     * When sessions are kept warm, the session is parked for the next scenario instead
      */
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
+            ScenarioWatchdog.detachSession();
             try {
-                driver.quit();
+                if (isLocal()) {
+                    // The pool resets the browser and keeps it for the next scenario
+                    localPool.release(driver);
+                    return;
+                }
+                BrowserContextPool contextPool = contextPoolThreadLocal.get();
+                if (contextPool != null) {
+                    // Closes the context with its cookies and storage; the shared session stays open
+                    contextPool.release(driver);
+                    return;
+                }
+                boolean keepWarm = keepSessionsWarm || sessionBatchThreadLocal.get() != null;
+                if (!keepWarm || !parkWarmSession(driver)) {
+                    driver.quit();
+                    releaseAdmissionSlot();
+                }
             } catch (Exception e) {
                 logger.error("Error while quitting driver: {}", e.getMessage(), e);
+                releaseAdmissionSlot();
             } finally {
+                activeSessions.decrementAndGet();
                 driverThreadLocal.remove();
+                commandRecorderThreadLocal.remove();
+                sessionKeyThreadLocal.remove();
+                sessionBatchThreadLocal.remove();
+                admissionSlotThreadLocal.remove();
+                contextPoolThreadLocal.remove();
+                fullSessionThreadLocal.remove();
             }
         }
     }
     
+    /**
+     * Keeps sessions open between scenarios (and runs) instead of quitting them
+     * Used by the daemon runner, where session startup dominates the time of a short run
+     * 
+     * @param keep true to park sessions in {@link #quitDriver()}
+     */
+    public static void setKeepSessionsWarm(boolean keep) {
+        keepSessionsWarm = keep;
+    }
+    
+    /**
+     * Shares one session among the scenarios of a batch on this thread's next session
+     * {@link #quitDriver()} parks the session under the batch name and the next scenario of the
+     * same batch (on any thread) takes it over. Cleared by quitDriver.
+     * 
+     * @param batch Batch name, e.g. "batch-examples", or null to quit the session as usual
+     */
+    public static void setSessionBatch(String batch) {
+        if (batch == null) {
+            sessionBatchThreadLocal.remove();
+        } else {
+            sessionBatchThreadLocal.set(batch);
+        }
+    }
+    
+    /**
+     * Gives this thread's next scenario a grid session of its own even when browser contexts are enabled,
+     * e.g. for scenarios that open windows or rely on session-wide state. Cleared by quitDriver.
+     * 
+     * @param fullSession true to skip browser contexts
+     */
+    public static void setFullSession(boolean fullSession) {
+        fullSessionThreadLocal.set(fullSession);
+    }
+    
+    /**
+     * Quits the sessions parked by batches at the end of a run
+     * Sessions kept warm for the daemon runner stay open
+     */
+    public static void releaseBatchSessions() {
+        if (!keepSessionsWarm) {
+            quitWarmSessions();
+        }
+    }
+    
+    /**
+     * Quits every parked session and returns their admission slots, every idle local browser and every
+     * session shared through browser contexts
+     */
+    public static void quitWarmSessions() {
+        if (localPool != null) {
+            localPool.shutdown();
+        }
+        contextPools.values().forEach(BrowserContextPool::shutdown);
+        warmSessions.values().forEach(queue -> {
+            WebDriver driver;
+            while ((driver = queue.poll()) != null) {
+                try {
+                    driver.quit();
+                } catch (Exception e) {
+                    logger.debug("Error while quitting warm session: {}", e.getMessage());
+                }
+                admission.release();
+            }
+        });
+    }
+    
+    /**
+     * Resets a session and parks it; the admission slot stays with the parked session
+     * 
+     * @return false if the session could not be reset and has to be quit
+     */
+    private static boolean parkWarmSession(WebDriver driver) {
+        String sessionKey = sessionKeyThreadLocal.get();
+        if (sessionKey == null) {
+            return false;
+        }
+        try {
+            driver.manage().deleteAllCookies();
+            ((RemoteWebDriver) driver).executeScript(RESET_STORAGE_SCRIPT);
+            driver.get("about:blank");
+        } catch (Exception e) {
+            logger.debug("Not keeping session warm: {}", e.getMessage());
+            return false;
+        }
+        warmSessions.computeIfAbsent(sessionKey, key -> new ConcurrentLinkedQueue<>()).add(driver);
+        return true;
+    }
+    
+    /**
+     * Takes a parked session with matching capabilities and renames it for the new test
+     * 
+     * @return The session, or null if none is parked or all parked sessions have expired
+     */
+    private static WebDriver takeWarmSession(String sessionKey, String testName) {
+        Queue<WebDriver> queue = warmSessions.get(sessionKey);
+        WebDriver driver;
+        while (queue != null && (driver = queue.poll()) != null) {
+            try {
+                // Doubles as a health check; the grid drops sessions after idleTimeout
+                ((RemoteWebDriver) driver).executeScript("lambda-name=" + testName);
+            } catch (Exception e) {
+                logger.debug("Discarding expired warm session: {}", e.getMessage());
+                try {
+                    driver.quit();
+                } catch (Exception ignored) {
+                    // Already gone on the grid
+                }
+                admission.release();
+                continue;
+            }
+            driverThreadLocal.set(driver);
+            RecordingCommandExecutor executor = null;
+            if (((RemoteWebDriver) driver).getCommandExecutor() instanceof RecordingCommandExecutor recorder) {
+                executor = recorder;
+                commandRecorderThreadLocal.set(recorder);
+            }
+            sessionKeyThreadLocal.set(sessionKey);
+            AtomicBoolean slot = new AtomicBoolean(true);
+            admissionSlotThreadLocal.set(slot);
+            activeSessions.incrementAndGet();
+            WebDriver reclaimable = driver;
+            ScenarioWatchdog.attachSession(executor, () -> reclaimSession(reclaimable, slot));
+            RunMetrics.counter("warm_sessions.reused").increment();
+            logger.debug("Reusing warm session {}", ((RemoteWebDriver) driver).getSessionId());
+            return driver;
+        }
+        return null;
+    }
+    
+    private static void releaseAdmissionSlot() {
+        AtomicBoolean slot = admissionSlotThreadLocal.get();
+        admissionSlotThreadLocal.remove();
+        if (slot != null && slot.compareAndSet(true, false)) {
+            admission.release();
+        }
+    }
+    
+    /**
+     * Frees the slot of a hung session right away and quits it; run by the scenario watchdog
+     * The owning thread's later quitDriver finds the slot already released
+     */
+    private static void reclaimSession(WebDriver driver, AtomicBoolean slot) {
+        if (slot.compareAndSet(true, false)) {
+            admission.release();
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error while force-quitting hung session: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Gets the last WebDriver commands sent by the current thread's session, oldest first
+     * 
+     * @return Command history, empty if no session is active
+     */
+    public static List<String> getRecentCommands() {
+        RecordingCommandExecutor executor = commandRecorderThreadLocal.get();
+        return executor != null ? executor.getRecentCommands() : List.of();
+    }
+    
     /**
      * Gets the current session ID for debugging purposes
      * 
@@ -0,0 +1,208 @@
+package com.lambdatest.atdd.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Client-side performance measurements (Navigation Timing, Resource Timing, LCP/CLS/INP)
+ *
+ * The observers are installed and read by the script that already waits for the page to load, so a
+ * measurement costs no extra round trip. Measurements are kept per scenario on the worker thread,
+ * attached to the Cucumber report and appended as one JSON line per scenario for trend tracking.
+ */
+public final class WebVitals {
+    private static final Logger logger = LoggerFactory.getLogger(WebVitals.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static final String MEASUREMENTS = "web_vitals.measurements";
+
+    /**
+     * Installs buffered performance observers (window.__atddVitals) once per document
+     * LCP, layout shifts and interaction durations are delivered asynchronously, so the capture
+     * script flushes pending records with takeRecords() before reading them
+     */
+    public static final String VITALS_HOOK_SCRIPT =
+        "if (!window.__atddVitals) {" +
+        "  var vitals = window.__atddVitals = {lcp: 0, cls: 0, inp: 0, observers: []};" +
+        "  var observe = function(type, handle, options) {" +
+        "    try {" +
+        "      var observer = new PerformanceObserver(function(list) { list.getEntries().forEach(handle); });" +
+        "      observer.observe(Object.assign({type: type, buffered: true}, options || {}));" +
+        "      vitals.observers.push([observer, handle]);" +
+        "    } catch (e) {}" +
+        "  };" +
+        "  observe('largest-contentful-paint', function(e) { vitals.lcp = e.renderTime || e.loadTime || e.startTime; });" +
+        "  observe('layout-shift', function(e) { if (!e.hadRecentInput) { vitals.cls += e.value; } });" +
+        "  observe('event', function(e) { if (e.interactionId) { vitals.inp = Math.max(vitals.inp, e.duration); } }, {durationThreshold: 16});" +
+        "  observe('first-input', function(e) { vitals.inp = Math.max(vitals.inp, e.duration); });" +
+        "  vitals.flush = function() {" +
+        "    vitals.observers.forEach(function(pair) { pair[0].takeRecords().forEach(pair[1]); });" +
+        "  };" +
+        "}";
+
+    /**
+     * Returns null until the load event has finished, then the timings of the current document
+     */
+    public static final String CAPTURE_SCRIPT =
+        "var nav = (performance.getEntriesByType ? performance.getEntriesByType('navigation') : [])[0];" +
+        "if (document.readyState !== 'complete' || (nav && !nav.loadEventEnd)) { return null; }" +
+        "nav = nav || {};" +
+        "var resources = performance.getEntriesByType ? performance.getEntriesByType('resource') : [];" +
+        "var transfer = 0, slowest = null;" +
+        "for (var i = 0; i < resources.length; i++) {" +
+        "  transfer += resources[i].transferSize || 0;" +
+        "  if (!slowest || resources[i].duration > slowest.duration) { slowest = resources[i]; }" +
+        "}" +
+        "var vitals = window.__atddVitals || {};" +
+        "if (vitals.flush) { vitals.flush(); }" +
+        "return {url: location.href, ttfb: nav.responseStart || 0, domContentLoaded: nav.domContentLoadedEventEnd || 0," +
+        "        load: nav.loadEventEnd || 0, resources: resources.length, transferBytes: transfer," +
+        "        slowestResource: slowest ? slowest.name : null, slowestResourceMs: slowest ? slowest.duration : 0," +
+        "        lcp: vitals.lcp || 0, cls: vitals.cls || 0, inp: vitals.inp || 0};";
+
+    private static final ThreadLocal<List<PageTimings>> scenarioTimings = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Timings of one page load, all times in milliseconds from navigation start
+     *
+     * @param page Page name, e.g. "search results"
+     * @param url Document URL
+     * @param ttfbMs Time to first byte
+     * @param domContentLoadedMs End of DOMContentLoaded
+     * @param loadMs End of the load event
+     * @param resources Number of resources fetched
+     * @param transferBytes Bytes transferred for resources
+     * @param slowestResource URL of the slowest resource
+     * @param slowestResourceMs Duration of the slowest resource
+     * @param lcpMs Largest Contentful Paint
+     * @param cls Cumulative Layout Shift
+     * @param inpMs Longest interaction seen so far (INP-style)
+     */
+    public record PageTimings(String page, String url, double ttfbMs, double domContentLoadedMs, double loadMs,
+                              long resources, long transferBytes, String slowestResource, double slowestResourceMs,
+                              double lcpMs, double cls, double inpMs) {
+    }
+
+    private WebVitals() {
+    }
+
+    /**
+     * Checks whether web-vitals capture is enabled for this run
+     *
+     * @return false if -Datdd.vitals=false
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Vitals.ENABLED;
+    }
+
+    /**
+     * Converts the result of {@link #CAPTURE_SCRIPT} and records it for the current scenario
+     *
+     * @param page Page name the navigation led to
+     * @param result Script result
+     * @return The recorded timings
+     */
+    public static PageTimings record(String page, Map<?, ?> result) {
+        PageTimings timings = new PageTimings(page, String.valueOf(result.get("url")),
+            number(result, "ttfb"), number(result, "domContentLoaded"), number(result, "load"),
+            (long) number(result, "resources"), (long) number(result, "transferBytes"),
+            (String) result.get("slowestResource"), number(result, "slowestResourceMs"),
+            number(result, "lcp"), number(result, "cls"), number(result, "inp"));
+        scenarioTimings.get().add(timings);
+        RunMetrics.counter(MEASUREMENTS).increment();
+        logger.debug("Web vitals for {} page: load={} ms, LCP={} ms, CLS={}, INP={} ms",
+            page, timings.loadMs(), timings.lcpMs(), timings.cls(), timings.inpMs());
+        return timings;
+    }
+
+    /**
+     * Gets the most recent measurement of a page in the current scenario
+     *
+     * @param page Page name, compared ignoring case
+     * @return The timings, empty if the scenario did not load that page
+     */
+    public static Optional<PageTimings> latest(String page) {
+        List<PageTimings> timings = scenarioTimings.get();
+        for (int i = timings.size() - 1; i >= 0; i--) {
+            if (timings.get(i).page().equalsIgnoreCase(page)) {
+                return Optional.of(timings.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Starts collecting measurements for a new scenario on this thread
+     */
+    public static void startScenario() {
+        scenarioTimings.get().clear();
+    }
+
+    /**
+     * Takes the measurements of the scenario on this thread
+     *
+     * @return The measurements in navigation order
+     */
+    public static List<PageTimings> finishScenario() {
+        List<PageTimings> timings = List.copyOf(scenarioTimings.get());
+        scenarioTimings.remove();
+        return timings;
+    }
+
+    /**
+     * Serializes measurements for attaching to the report
+     *
+     * @param timings The measurements
+     * @return JSON array
+     */
+    public static String toJson(List<PageTimings> timings) {
+        try {
+            return mapper.writeValueAsString(timings);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize web vitals", e);
+        }
+    }
+
+    /**
+     * Appends one JSON line for a scenario to the trend file
+     *
+     * @param file The NDJSON file
+     * @param scenario Scenario name
+     * @param uri Scenario location, e.g. "features/search.feature:12"
+     * @param timings The measurements
+     */
+    public static synchronized void append(Path file, String scenario, String uri, List<PageTimings> timings) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("build", TestConfiguration.TestConfig.BUILD_NAME);
+        line.put("timestamp", System.currentTimeMillis());
+        line.put("scenario", scenario);
+        line.put("uri", uri);
+        line.put("pages", timings);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, mapper.writeValueAsString(line) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Could not append web vitals to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static double number(Map<?, ?> result, String key) {
+        return result.get(key) instanceof Number value ? value.doubleValue() : 0;
+    }
+}
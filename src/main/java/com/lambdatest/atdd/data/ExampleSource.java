@@ -0,0 +1,319 @@
+package com.lambdatest.atdd.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Streams example rows for scenario outlines from external CSV or JSON-lines files
+ *
+ * Rows are read one at a time as the stream is consumed: CSV with a small RFC 4180 reader, JSON lines
+ * (or a JSON array) with Jackson's streaming parser. Duplicates are dropped by key, then rows are sampled
+ * with a seeded random so a run is reproducible, and the limit stops reading the file early. Only the
+ * keys of the rows already seen are kept in memory, for the deduplication.
+ */
+public final class ExampleSource {
+    private static final ObjectReader JSON_ROWS = new ObjectMapper()
+        .readerFor(new TypeReference<LinkedHashMap<String, Object>>() { });
+
+    public static final String FROM_TAG = "@examples-from=";
+    public static final String LIMIT_TAG = "@examples-limit=";
+    public static final String SAMPLE_TAG = "@examples-sample=";
+    public static final String KEY_TAG = "@examples-key=";
+    public static final String CLASSPATH_DIR = "examples/";
+
+    private ExampleSource() {
+    }
+
+    /**
+     * How rows are selected from a source
+     *
+     * @param limit Maximum number of rows, 0 for all
+     * @param samplePercent Percentage of the distinct rows to keep, 100 for all
+     * @param seed Seed of the sampling, so the same rows are picked on every run
+     * @param keyColumns Columns that identify a row for deduplication, empty for the whole row
+     */
+    public record Options(long limit, double samplePercent, long seed, List<String> keyColumns) {
+
+        /**
+         * Reads the options from scenario tags such as {@code @examples-limit=500}, {@code @examples-sample=10}
+         * and {@code @examples-key=product_type}; -Datdd.examples.limit and -Datdd.examples.sample override the tags
+         *
+         * @param tags Scenario tags
+         * @return The options
+         */
+        public static Options fromTags(Collection<String> tags) {
+            long limit = TestConfiguration.Examples.LIMIT >= 0 ? TestConfiguration.Examples.LIMIT
+                : tagValue(tags, LIMIT_TAG).map(Long::parseLong).orElse(0L);
+            double sample = TestConfiguration.Examples.SAMPLE_PERCENT >= 0 ? TestConfiguration.Examples.SAMPLE_PERCENT
+                : tagValue(tags, SAMPLE_TAG).map(value -> Double.parseDouble(value.replace("%", ""))).orElse(100.0);
+            List<String> keyColumns = tagValue(tags, KEY_TAG).map(value -> List.of(value.split("\\+"))).orElse(List.of());
+            return new Options(limit, sample, TestConfiguration.Examples.SEED, keyColumns);
+        }
+    }
+
+    /**
+     * Gets the external source named by the {@code @examples-from=} tag
+     *
+     * @param tags Scenario tags
+     * @return File name or path, empty if the scenario uses its own Examples table
+     */
+    public static Optional<String> sourceOf(Collection<String> tags) {
+        return tagValue(tags, FROM_TAG);
+    }
+
+    /**
+     * Opens a source as a lazy stream of rows, column name to value
+     * The source is a file path, or a resource under "examples/" on the classpath; ".csv" files are read as
+     * CSV with a header line, anything else as JSON lines. Close the stream to close the file.
+     *
+     * @param source File path or classpath resource name
+     * @param options Deduplication, sampling and limit
+     * @return Rows in file order
+     * @throws IOException if the source cannot be opened or has no column named by the key columns
+     */
+    public static Stream<Map<String, String>> open(String source, Options options) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(openStream(source), StandardCharsets.UTF_8));
+        Iterator<Map<String, String>> rows;
+        try {
+            rows = source.toLowerCase().endsWith(".csv") ? new CsvRows(reader) : jsonRows(reader);
+            rows = checkKeyColumns(source, rows, options.keyColumns());
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        Stream<Map<String, String>> stream = StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+        Set<String> seen = new HashSet<>();
+        stream = stream.filter(row -> seen.add(key(row, options.keyColumns())));
+        if (options.samplePercent() < 100) {
+            SplittableRandom random = new SplittableRandom(options.seed());
+            stream = stream.filter(row -> random.nextDouble() * 100 < options.samplePercent());
+        }
+        if (options.limit() > 0) {
+            stream = stream.limit(options.limit());
+        }
+        return stream;
+    }
+
+    private static InputStream openStream(String source) throws IOException {
+        Path path = Path.of(source);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        InputStream resource = Thread.currentThread().getContextClassLoader().getResourceAsStream(CLASSPATH_DIR + source);
+        if (resource == null) {
+            throw new IOException("Example source not found: " + source + " (neither a file nor classpath:" + CLASSPATH_DIR + source + ")");
+        }
+        return resource;
+    }
+
+    private static Iterator<Map<String, String>> jsonRows(Reader reader) throws IOException {
+        MappingIterator<LinkedHashMap<String, Object>> values = JSON_ROWS.readValues(reader);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public Map<String, String> next() {
+                Map<String, String> row = new LinkedHashMap<>();
+                values.next().forEach((column, value) -> row.put(column, value == null ? "" : String.valueOf(value)));
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Checks the key columns against the CSV header or the first JSON row, since a misspelled column
+     * would give every row the same key and deduplicate the source down to its first row
+     *
+     * @return The rows, including a JSON row read for the check
+     */
+    private static Iterator<Map<String, String>> checkKeyColumns(String source, Iterator<Map<String, String>> rows,
+                                                                 List<String> keyColumns) throws IOException {
+        if (keyColumns.isEmpty()) {
+            return rows;
+        }
+        Map<String, String> first = null;
+        Collection<String> columns;
+        if (rows instanceof CsvRows csv) {
+            columns = csv.header;
+        } else if (rows.hasNext()) {
+            first = rows.next();
+            columns = first.keySet();
+        } else {
+            return rows;
+        }
+        for (String column : keyColumns) {
+            if (!columns.contains(column)) {
+                throw new IOException("Example source " + source + " has no column '" + column + "' named by "
+                    + KEY_TAG + String.join("+", keyColumns) + "; its columns are " + columns);
+            }
+        }
+        if (first == null) {
+            return rows;
+        }
+        Map<String, String> firstRow = first;
+        return new Iterator<>() {
+            private boolean firstReturned;
+
+            @Override
+            public boolean hasNext() {
+                return !firstReturned || rows.hasNext();
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (!firstReturned) {
+                    firstReturned = true;
+                    return firstRow;
+                }
+                return rows.next();
+            }
+        };
+    }
+
+    private static String key(Map<String, String> row, List<String> keyColumns) {
+        if (keyColumns.isEmpty()) {
+            return row.toString();
+        }
+        return keyColumns.stream().map(column -> String.valueOf(row.get(column)).trim().toLowerCase())
+            .collect(Collectors.joining("\u0000"));
+    }
+
+    private static Optional<String> tagValue(Collection<String> tags, String prefix) {
+        return tags.stream().filter(tag -> tag.startsWith(prefix)).map(tag -> tag.substring(prefix.length())).findFirst();
+    }
+
+    /**
+     * CSV rows keyed by the header line; quoted fields may contain commas, quotes ("") and line breaks
+     */
+    private static final class CsvRows implements Iterator<Map<String, String>> {
+        private final Reader reader;
+        private final List<String> header;
+        private List<String> next;
+
+        CsvRows(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> firstLine = readRecord();
+            if (firstLine == null) {
+                throw new IOException("CSV example source has no header line");
+            }
+            // A byte order mark would otherwise end up in the first column name
+            firstLine.set(0, firstLine.get(0).replace("\uFEFF", ""));
+            this.header = firstLine.stream().map(String::trim).toList();
+            this.next = readRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < next.size() ? next.get(i) : "");
+            }
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return row;
+        }
+
+        /**
+         * @return The fields of the next non-blank record, null at the end of the input
+         */
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    if (fields.isEmpty() && field.isEmpty()) {
+                        continue;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (!any || (fields.isEmpty() && field.isEmpty())) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
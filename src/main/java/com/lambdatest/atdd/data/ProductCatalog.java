@@ -0,0 +1,385 @@
+package com.lambdatest.atdd.data;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.RunMetrics;
+
+/**
+ * Run-scoped index of the shop's products by name, so product steps can open a product page directly
+ *
+ * The index is built once per run, before the first scenario ({@link #build()} from a before-all hook,
+ * or on first use otherwise), by crawling every category listing linked from the home page over plain HTTP (at {@link TestConfiguration.Catalog#PAGE_LIMIT} products per page, all
+ * categories concurrently). A name that is not in the index is looked up once with the shop's search
+ * listing. A complete crawl is cached on disk and reused by later runs until it expires. All scenarios
+ * share the index; lookups only read a concurrent map. {@link #reset()} drops it at the end of the run,
+ * so a daemon JVM builds a fresh one for the next run.
+ */
+public final class ProductCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private static final Pattern PRODUCT_LINK = Pattern.compile(
+        "<a\\s[^>]*href=\"([^\"]*route=product/product[^\"]*)\"[^>]*>(.*?)</a>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern PRODUCT_ID = Pattern.compile("[?&;]product_id=(\\d+)");
+    private static final Pattern CATEGORY_PATH = Pattern.compile("route=product/category(?:&amp;|&)path=([\\d_]+)");
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+    private static final String CACHE_HEADER = "# product catalog";
+
+    public static final String PRODUCTS = "product_catalog.products";
+    public static final String HITS = "product_catalog.hits";
+    public static final String MISSES = "product_catalog.misses";
+
+    private static volatile ProductCatalog shared;
+
+    private final String baseUrl;
+    private final Path cacheFile;
+    private final HttpClient client;
+    private final Map<Integer, Product> products = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> searchedTerms = new ConcurrentHashMap<>();
+    private volatile boolean complete;
+
+    /**
+     * A product of the shop
+     *
+     * @param id OpenCart product_id
+     * @param name Product name as listed
+     * @param url Product page URL
+     */
+    public record Product(int id, String name, String url) {
+    }
+
+    /**
+     * @param baseUrl Shop URL ending with a slash
+     * @param cacheFile Cache of complete crawls, or null for none
+     */
+    ProductCatalog(String baseUrl, Path cacheFile) {
+        this.baseUrl = baseUrl;
+        this.cacheFile = cacheFile;
+        this.client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(TestConfiguration.Catalog.REQUEST_TIMEOUT_SECONDS))
+            .build();
+    }
+
+    /**
+     * @return true unless -Datdd.catalog=false
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Catalog.ENABLED;
+    }
+
+    /**
+     * Returns the index of this run, loading it from the cache or crawling the shop if {@link #build()}
+     * has not run
+     *
+     * @return The shared catalog
+     */
+    public static ProductCatalog shared() {
+        ProductCatalog catalog = shared;
+        return catalog != null ? catalog : build();
+    }
+
+    /**
+     * Loads the index of this run from the cache or crawls the shop, unless it is already built
+     *
+     * @return The shared catalog
+     */
+    public static synchronized ProductCatalog build() {
+        if (shared == null) {
+            String cacheFile = TestConfiguration.Catalog.CACHE_FILE;
+            ProductCatalog catalog = new ProductCatalog(TestConfiguration.ECOMMERCE_BASE_URL,
+                cacheFile.isEmpty() ? null : Path.of(cacheFile));
+            catalog.load();
+            shared = catalog;
+        }
+        return shared;
+    }
+
+    /**
+     * Drops the index at the end of a run; the next run loads it again
+     */
+    public static synchronized void reset() {
+        shared = null;
+    }
+
+    /**
+     * Finds the product a step refers to: an exact name first, then a name starting with it, then a name
+     * containing it (case-insensitive; the shortest name and then the lowest id wins within each).
+     * Names not in the index are searched in the shop once per run.
+     *
+     * @param name Product name or part of it, e.g. "HP LP3065" or "iPhone"
+     * @return The product, empty if the shop has none
+     */
+    public Optional<Product> find(String name) {
+        String term = normalize(name);
+        Optional<Product> product = match(term);
+        if (product.isEmpty() && !term.isEmpty()) {
+            searchedTerms.computeIfAbsent(term, t -> CompletableFuture.runAsync(() -> crawlSearch(name))).join();
+            product = match(term);
+        }
+        RunMetrics.counter(product.isPresent() ? HITS : MISSES).increment();
+        return product;
+    }
+
+    /**
+     * @return Number of indexed products
+     */
+    public int size() {
+        return products.size();
+    }
+
+    private Optional<Product> match(String term) {
+        return products.values().stream()
+            .filter(product -> normalize(product.name()).contains(term))
+            .min(Comparator.<Product>comparingInt(product -> rank(normalize(product.name()), term))
+                .thenComparingInt(product -> product.name().length())
+                .thenComparingInt(Product::id));
+    }
+
+    private static int rank(String name, String term) {
+        return name.equals(term) ? 0 : name.startsWith(term) ? 1 : 2;
+    }
+
+    private void load() {
+        RunMetrics.gauge(PRODUCTS, products::size);
+        if (readCache()) {
+            complete = true;
+            return;
+        }
+        long start = System.nanoTime();
+        complete = crawlCategories();
+        logger.info("Product catalog: {} products indexed in {} ms{}", products.size(),
+            (System.nanoTime() - start) / 1_000_000, complete ? "" : " (incomplete, missing names are searched)");
+        if (complete && !products.isEmpty()) {
+            writeCache();
+        }
+    }
+
+    /**
+     * Crawls every category linked from the home page, each category's pages in order, the categories concurrently
+     *
+     * @return false if the home page could not be read or the crawl did not finish in time
+     */
+    private boolean crawlCategories() {
+        Set<String> categories;
+        try {
+            categories = categoryPaths(fetch(baseUrl));
+        } catch (IOException e) {
+            logger.warn("Product catalog: could not read {}: {}", baseUrl, e.getMessage());
+            return false;
+        }
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<CompletableFuture<Boolean>> crawls = new ArrayList<>();
+            for (String category : categories) {
+                crawls.add(CompletableFuture.supplyAsync(() -> crawlListing(baseUrl + "index.php?route=product/category&path=" + category), executor));
+            }
+            CompletableFuture.allOf(crawls.toArray(CompletableFuture[]::new))
+                .get(TestConfiguration.Catalog.BUILD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return crawls.stream().allMatch(CompletableFuture::join);
+        } catch (TimeoutException e) {
+            logger.warn("Product catalog: crawl of {} categories did not finish in {} s", categories.size(),
+                TestConfiguration.Catalog.BUILD_TIMEOUT_SECONDS);
+        } catch (ExecutionException e) {
+            logger.warn("Product catalog: crawl failed: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Abandons the listings still being read after a timeout; what they added so far stays indexed
+            executor.shutdownNow();
+        }
+        return false;
+    }
+
+    /**
+     * @return Category paths linked from the page, e.g. "25_28", in page order
+     */
+    static Set<String> categoryPaths(String html) {
+        Set<String> categories = new LinkedHashSet<>();
+        Matcher matcher = CATEGORY_PATH.matcher(html);
+        while (matcher.find()) {
+            categories.add(matcher.group(1));
+        }
+        return categories;
+    }
+
+    private void crawlSearch(String name) {
+        crawlListing(baseUrl + "index.php?route=product/search&search=" + URLEncoder.encode(name.trim(), StandardCharsets.UTF_8));
+        // Only a complete index is cached, so a later run does not take a partial crawl for the catalog
+        if (complete) {
+            writeCache();
+        }
+    }
+
+    /**
+     * Reads a listing page by page until a page has no products the earlier pages did not have (past the
+     * last page the shop repeats only its side modules) or the page limit is reached
+     *
+     * @return false if a page could not be read
+     */
+    private boolean crawlListing(String listingUrl) {
+        Set<Integer> listed = new HashSet<>();
+        for (int page = 1; page <= TestConfiguration.Catalog.MAX_PAGES; page++) {
+            String html;
+            try {
+                html = fetch(listingUrl + "&limit=" + TestConfiguration.Catalog.PAGE_LIMIT + "&page=" + page);
+            } catch (IOException e) {
+                logger.debug("Product catalog: could not read {}: {}", listingUrl, e.getMessage());
+                return false;
+            }
+            if (!listed.addAll(addProducts(html))) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Ids of the products linked from the page (new or already indexed)
+     */
+    Set<Integer> addProducts(String html) {
+        Set<Integer> seen = new LinkedHashSet<>();
+        Matcher matcher = PRODUCT_LINK.matcher(html);
+        while (matcher.find()) {
+            Matcher id = PRODUCT_ID.matcher(matcher.group(1));
+            String name = unescape(TAG.matcher(matcher.group(2)).replaceAll(" ")).replaceAll("\\s+", " ").trim();
+            if (id.find() && !name.isEmpty()) {
+                int productId = Integer.parseInt(id.group(1));
+                seen.add(productId);
+                products.putIfAbsent(productId, new Product(productId, name, productUrl(productId)));
+            }
+        }
+        return seen;
+    }
+
+    private String productUrl(int id) {
+        return baseUrl + "index.php?route=product/product&product_id=" + id;
+    }
+
+    private String fetch(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(TestConfiguration.Catalog.REQUEST_TIMEOUT_SECONDS))
+            .header("User-Agent", "Mozilla/5.0 (compatible; atdd-product-catalog)")
+            .GET()
+            .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            return response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /**
+     * Reads the cache if it was written for the same shop and has not expired
+     *
+     * @return true if the index was loaded from it
+     */
+    boolean readCache() {
+        if (cacheFile == null) {
+            return false;
+        }
+        Path file = cacheFile;
+        try {
+            if (!Files.isRegularFile(file)) {
+                return false;
+            }
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            String[] header = lines.isEmpty() ? new String[0] : lines.get(0).split("\t");
+            if (header.length != 3 || !header[0].equals(CACHE_HEADER) || !header[2].equals(baseUrl)) {
+                return false;
+            }
+            Duration age = Duration.ofMillis(System.currentTimeMillis() - Long.parseLong(header[1]));
+            if (age.toHours() >= TestConfiguration.Catalog.CACHE_TTL_HOURS) {
+                logger.info("Product catalog: cache {} is {} h old, crawling the shop again", file, age.toHours());
+                return false;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split("\t", 2);
+                if (fields.length == 2) {
+                    int id = Integer.parseInt(fields[0]);
+                    products.put(id, new Product(id, fields[1], productUrl(id)));
+                }
+            }
+            logger.info("Product catalog: {} products from {} ({} min old)", products.size(), file, age.toMinutes());
+            return !products.isEmpty();
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Product catalog: ignoring unreadable cache {}: {}", file, e.getMessage());
+            products.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Rewrites the cache with the current index, keeping the time of the original crawl
+     */
+    synchronized void writeCache() {
+        if (cacheFile == null) {
+            return;
+        }
+        Path file = cacheFile;
+        long built = System.currentTimeMillis();
+        try {
+            if (Files.isRegularFile(file)) {
+                String[] header = Files.readAllLines(file, StandardCharsets.UTF_8).get(0).split("\t");
+                if (header.length == 3 && header[0].equals(CACHE_HEADER) && header[2].equals(baseUrl)) {
+                    built = Long.parseLong(header[1]);
+                }
+            }
+            List<String> lines = new ArrayList<>();
+            lines.add(CACHE_HEADER + "\t" + built + "\t" + baseUrl);
+            products.values().stream()
+                .sorted(Comparator.comparingInt(Product::id))
+                .forEach(product -> lines.add(product.id() + "\t" + product.name().replace('\t', ' ')));
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Product catalog: could not write cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replaceAll("\\s+", " ").trim().toLowerCase();
+    }
+
+    private static String unescape(String html) {
+        return html.replace("&quot;", "\"").replace("&#39;", "'").replace("&#039;", "'")
+            .replace("&lt;", "<").replace("&gt;", ">").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+}
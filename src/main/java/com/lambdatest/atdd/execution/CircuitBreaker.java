@@ -0,0 +1,163 @@
+package com.lambdatest.atdd.execution;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.RunMetrics;
+import com.lambdatest.atdd.core.ScenarioWatchdog;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+
+/**
+ * Fail-fast circuit breaker for a run (-Datdd.breaker.threshold=1, off by default)
+ *
+ * Priority scenarios (@critical by default, including feature-level tags) run first: the others wait
+ * before their first step until every priority scenario in the test plan has finished. Failed priority scenarios usually mean the
+ * shop or the grid is down, so once the threshold is reached the breaker opens. Running scenarios are
+ * cancelled and their sessions quit ({@link ScenarioWatchdog#cancelAll(String)}), and the scenarios still
+ * queued are skipped with the breaker's reason.
+ */
+public final class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final Expression PRIORITY_TAGS = TagExpressionParser.parse(TestConfiguration.CircuitBreaker.PRIORITY_TAGS);
+    private static final Object lock = new Object();
+    private static final AtomicLong pendingPriority = new AtomicLong();
+    private static final AtomicInteger priorityFailures = new AtomicInteger();
+    private static volatile String openReason;
+
+    public static final String OPENED = "circuit_breaker.opened";
+    public static final String SKIPPED = "circuit_breaker.skipped";
+    public static final String GATE_WAIT_MILLIS = "circuit_breaker.gate_wait_ms";
+
+    private CircuitBreaker() {
+    }
+
+    /**
+     * @return true if a failure threshold is configured
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.CircuitBreaker.THRESHOLD > 0;
+    }
+
+    /**
+     * Checks whether a scenario runs in the priority phase
+     *
+     * @param tags Scenario tags, with or without the leading "@"
+     * @return true if the tags match the priority tag expression
+     */
+    public static boolean isPriority(Collection<String> tags) {
+        return PRIORITY_TAGS.evaluate(tags.stream().map(tag -> tag.startsWith("@") ? tag : "@" + tag).toList());
+    }
+
+    /**
+     * Closes the breaker for a new test plan
+     *
+     * @param priorityScenarios Number of priority scenarios in the plan; the others wait for all of them
+     */
+    public static void startRun(long priorityScenarios) {
+        synchronized (lock) {
+            pendingPriority.set(priorityScenarios);
+            priorityFailures.set(0);
+            openReason = null;
+            lock.notifyAll();
+        }
+        if (isEnabled()) {
+            logger.info("Circuit breaker: {} priority scenarios ({}) run first, opens after {} failures",
+                priorityScenarios, TestConfiguration.CircuitBreaker.PRIORITY_TAGS, TestConfiguration.CircuitBreaker.THRESHOLD);
+        }
+    }
+
+    /**
+     * Holds a non-priority scenario until the priority scenarios have finished or the breaker opened
+     * The wait is a managed block, so the test executor can start another worker for the queued priority scenarios.
+     *
+     * @param tags Scenario tags
+     */
+    public static void awaitTurn(Collection<String> tags) {
+        if (!isEnabled() || isPriority(tags) || isReleased()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    synchronized (lock) {
+                        while (!isReleased()) {
+                            lock.wait();
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return isReleased();
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RunMetrics.counter(GATE_WAIT_MILLIS).add((System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return Why the breaker is open, empty while it is closed
+     */
+    public static Optional<String> openReason() {
+        return Optional.ofNullable(openReason);
+    }
+
+    /**
+     * Counts a skipped scenario for the run metrics
+     */
+    public static void recordSkipped() {
+        RunMetrics.counter(SKIPPED).increment();
+    }
+
+    /**
+     * Records the outcome of a scenario; a failed priority scenario may open the breaker
+     *
+     * @param scenario Scenario name, for the breaker's reason
+     * @param tags Scenario tags
+     * @param failed true if the scenario failed
+     */
+    public static void recordFinished(String scenario, Collection<String> tags, boolean failed) {
+        if (!isEnabled() || !isPriority(tags)) {
+            return;
+        }
+        if (failed && priorityFailures.incrementAndGet() >= TestConfiguration.CircuitBreaker.THRESHOLD && openReason == null) {
+            open(String.format("Circuit breaker open after %d failed %s scenarios (last: '%s')",
+                priorityFailures.get(), TestConfiguration.CircuitBreaker.PRIORITY_TAGS, scenario));
+        }
+        synchronized (lock) {
+            pendingPriority.decrementAndGet();
+            lock.notifyAll();
+        }
+    }
+
+    private static void open(String reason) {
+        synchronized (lock) {
+            if (openReason != null) {
+                return;
+            }
+            openReason = reason;
+            lock.notifyAll();
+        }
+        RunMetrics.counter(OPENED).increment();
+        logger.error("{}; skipping the remaining scenarios and quitting running sessions", reason);
+        ScenarioWatchdog.cancelAll(reason);
+    }
+
+    private static boolean isReleased() {
+        return pendingPriority.get() <= 0 || openReason != null;
+    }
+}
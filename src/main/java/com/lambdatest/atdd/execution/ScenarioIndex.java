@@ -0,0 +1,216 @@
+package com.lambdatest.atdd.execution;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+
+/**
+ * Read side of the compiled scenario index written by {@link ScenarioIndexCompiler}
+ * The file is memory-mapped; only the tag postings, the distinct tag sets and the pickle table
+ * are read up front. Scenario records and strings are decoded only for the pickles a query selects.
+ *
+ * Layout (big-endian): magic, version, features fingerprint, string offsets, bindings,
+ * tag postings, tag sets, pickle table (tag set, record offset), records, string data.
+ */
+public final class ScenarioIndex {
+    static final int MAGIC = 0x41544958; // "ATIX"
+    static final int VERSION = 1;
+
+    /**
+     * A scenario (or example row) from the index
+     *
+     * @param uri Feature path relative to the working directory
+     * @param line Line of the scenario or example row
+     * @param name Pickle name
+     * @param tags Tags including inherited feature and rule tags
+     * @param steps Steps with their glue bindings
+     */
+    public record IndexedScenario(String uri, int line, String name, List<String> tags, List<IndexedStep> steps) {
+
+        /**
+         * @return The scenario key, as used by {@link ScenarioKey}
+         */
+        public String key() {
+            return uri + ":" + line;
+        }
+    }
+
+    /**
+     * A pickle step and the glue method it is bound to
+     *
+     * @param text Step text with outline parameters substituted
+     * @param glueMethod Glue method signature, null if the step is undefined
+     */
+    public record IndexedStep(String text, String glueMethod) {
+    }
+
+    private final ByteBuffer buffer;
+    private final long fingerprint;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private final int[] bindingMethods;
+    private final int[] tagNames;
+    private final int[][] postings;
+    private final int[][] tagSets;
+    private final int[] pickleTagSets;
+    private final int[] pickleOffsets;
+
+    private ScenarioIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalStateException("Not a scenario index of version " + VERSION);
+        }
+        fingerprint = buffer.getLong();
+        stringOffsets = readInts(buffer, buffer.getInt());
+        strings = new String[stringOffsets.length];
+
+        int bindingCount = buffer.getInt();
+        bindingMethods = new int[bindingCount];
+        for (int i = 0; i < bindingCount; i++) {
+            buffer.getInt(); // pattern, kept in the file for tooling
+            bindingMethods[i] = buffer.getInt();
+        }
+
+        int tagCount = buffer.getInt();
+        tagNames = new int[tagCount];
+        postings = new int[tagCount][];
+        for (int i = 0; i < tagCount; i++) {
+            tagNames[i] = buffer.getInt();
+            postings[i] = readInts(buffer, buffer.getInt());
+        }
+
+        tagSets = new int[buffer.getInt()][];
+        for (int i = 0; i < tagSets.length; i++) {
+            tagSets[i] = readInts(buffer, buffer.getInt());
+        }
+
+        int pickleCount = buffer.getInt();
+        pickleTagSets = new int[pickleCount];
+        pickleOffsets = new int[pickleCount];
+        for (int i = 0; i < pickleCount; i++) {
+            pickleTagSets[i] = buffer.getInt();
+            pickleOffsets[i] = buffer.getInt();
+        }
+    }
+
+    /**
+     * Maps an index file
+     *
+     * @param file The index file
+     * @return The index
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not an index of the current version
+     */
+    public static ScenarioIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ScenarioIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return Fingerprint of the feature files the index was compiled from
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return Number of pickles in the index
+     */
+    public int size() {
+        return pickleOffsets.length;
+    }
+
+    /**
+     * Gets the pickles carrying a tag, straight from its postings list
+     *
+     * @param tag The tag, e.g. "@smoke"
+     * @return Pickle numbers in index order, empty if no pickle has the tag
+     */
+    public int[] postings(String tag) {
+        for (int i = 0; i < tagNames.length; i++) {
+            if (string(tagNames[i]).equals(tag)) {
+                return postings[i].clone();
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Selects the pickles matching a tag expression
+     * The expression is evaluated once per distinct tag set, so only matching records are decoded
+     *
+     * @param tagExpression Cucumber tag expression, e.g. "@smoke and not @ignore"
+     * @return The matching scenarios in feature and line order
+     */
+    public List<IndexedScenario> select(String tagExpression) {
+        Expression expression = TagExpressionParser.parse(tagExpression);
+        boolean[] matchingTagSets = new boolean[tagSets.length];
+        for (int i = 0; i < tagSets.length; i++) {
+            matchingTagSets[i] = expression.evaluate(tagNames(tagSets[i]));
+        }
+        List<IndexedScenario> selected = new ArrayList<>();
+        for (int pickle = 0; pickle < pickleOffsets.length; pickle++) {
+            if (matchingTagSets[pickleTagSets[pickle]]) {
+                selected.add(scenario(pickle));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Decodes one pickle record
+     *
+     * @param pickle Pickle number, 0 to size() - 1
+     * @return The scenario
+     */
+    public IndexedScenario scenario(int pickle) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(pickleOffsets[pickle]);
+        String uri = string(record.getInt());
+        int line = record.getInt();
+        String name = string(record.getInt());
+        int stepCount = record.getInt();
+        List<IndexedStep> steps = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            String text = string(record.getInt());
+            int binding = record.getInt();
+            steps.add(new IndexedStep(text, binding < 0 ? null : string(bindingMethods[binding])));
+        }
+        return new IndexedScenario(uri, line, name, tagNames(tagSets[pickleTagSets[pickle]]), steps);
+    }
+
+    private List<String> tagNames(int[] tagIds) {
+        List<String> names = new ArrayList<>(tagIds.length);
+        for (int tagId : tagIds) {
+            names.add(string(tagNames[tagId]));
+        }
+        return names;
+    }
+
+    private synchronized String string(int id) {
+        if (strings[id] == null) {
+            ByteBuffer data = buffer.duplicate();
+            data.position(stringOffsets[id]);
+            byte[] bytes = new byte[data.getInt()];
+            data.get(bytes);
+            strings[id] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings[id];
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+}
@@ -0,0 +1,397 @@
+package com.lambdatest.atdd.execution;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cucumber.cucumberexpressions.Expression;
+import io.cucumber.cucumberexpressions.ExpressionFactory;
+import io.cucumber.cucumberexpressions.ParameterTypeRegistry;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.java.StepDefinitionAnnotation;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+
+/**
+ * Compiles feature files into the binary {@link ScenarioIndex}
+ * Every pickle is recorded with its location, tags and steps; tag postings and the glue method
+ * bound to each step are precomputed, so undefined steps are also reported at build time.
+ * Usage: {@code ScenarioIndexCompiler <features-dir> <glue-package> <index-file>}
+ */
+public final class ScenarioIndexCompiler {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioIndexCompiler.class);
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    private ScenarioIndexCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ScenarioIndexCompiler <features-dir> <glue-package> <index-file>");
+            System.exit(2);
+        }
+        compile(Paths.get(args[0]), args[1], Paths.get(args[2]), Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Opens the index if it matches the current feature files, recompiling it otherwise
+     *
+     * @param featuresDir Directory containing the feature files
+     * @param gluePackage Package of the step definitions
+     * @param indexFile The index file
+     * @param classLoader Loader for the glue classes
+     * @return The up-to-date index
+     * @throws IOException if the features cannot be read or the index cannot be written
+     */
+    public static ScenarioIndex loadOrCompile(Path featuresDir, String gluePackage, Path indexFile, ClassLoader classLoader)
+            throws IOException {
+        if (Files.exists(indexFile)) {
+            try {
+                ScenarioIndex index = ScenarioIndex.open(indexFile);
+                if (index.fingerprint() == fingerprint(featuresDir)) {
+                    return index;
+                }
+                logger.info("Scenario index {} is stale, recompiling", indexFile);
+            } catch (IllegalStateException e) {
+                logger.info("Scenario index {} has an old format, recompiling", indexFile);
+            }
+        }
+        compile(featuresDir, gluePackage, indexFile, classLoader);
+        return ScenarioIndex.open(indexFile);
+    }
+
+    /**
+     * Parses every feature file under a directory and writes the index
+     *
+     * @param featuresDir Directory containing the feature files
+     * @param gluePackage Package of the step definitions
+     * @param indexFile The index file to write
+     * @param classLoader Loader for the glue classes
+     * @throws IOException if the features cannot be read or the index cannot be written
+     */
+    public static void compile(Path featuresDir, String gluePackage, Path indexFile, ClassLoader classLoader) throws IOException {
+        long start = System.nanoTime();
+        ScenarioIndexCompiler compiler = new ScenarioIndexCompiler();
+        List<Binding> bindings = scanGlue(gluePackage, classLoader);
+        List<CompiledPickle> pickles = new ArrayList<>();
+        for (Path feature : featureFiles(featuresDir)) {
+            pickles.addAll(parse(feature, bindings));
+        }
+        pickles.sort(Comparator.comparing(CompiledPickle::uri).thenComparingInt(CompiledPickle::line));
+
+        byte[] index = compiler.write(fingerprint(featuresDir), bindings, pickles);
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        Files.write(temp, index);
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        long undefined = pickles.stream().flatMap(pickle -> pickle.steps().stream()).filter(step -> step.binding() < 0).count();
+        logger.info("Compiled scenario index {}: {} pickles, {} glue bindings, {} bytes in {} ms",
+            indexFile, pickles.size(), bindings.size(), index.length, (System.nanoTime() - start) / 1_000_000);
+        if (undefined > 0) {
+            logger.warn("{} steps have no matching glue method", undefined);
+        }
+    }
+
+    /**
+     * Fingerprints the feature files by path, size and modification time (no parsing)
+     *
+     * @param featuresDir Directory containing the feature files
+     * @return Fingerprint that changes when any feature file is added, removed or edited
+     * @throws IOException if the directory cannot be listed
+     */
+    public static long fingerprint(Path featuresDir) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            for (Path feature : featureFiles(featuresDir)) {
+                digest.update((ScenarioKey.of(feature, 0) + "|" + Files.size(feature) + "|"
+                    + Files.getLastModifiedTime(feature).toMillis() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] hash = digest.digest();
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (hash[i] & 0xff);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    private static List<Path> featureFiles(Path featuresDir) throws IOException {
+        try (Stream<Path> files = Files.walk(featuresDir)) {
+            return files.filter(path -> path.toString().endsWith(".feature")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<CompiledPickle> parse(Path feature, List<Binding> bindings) throws IOException {
+        GherkinParser parser = GherkinParser.builder().includeSource(false).build();
+        List<Envelope> envelopes;
+        try (Stream<Envelope> stream = parser.parse(feature)) {
+            envelopes = stream.collect(Collectors.toList());
+        }
+        Map<String, Integer> lines = new HashMap<>();
+        List<CompiledPickle> pickles = new ArrayList<>();
+        for (Envelope envelope : envelopes) {
+            envelope.getParseError().ifPresent(error -> {
+                throw new IllegalStateException("Cannot parse " + feature + ": " + error.getMessage());
+            });
+            envelope.getGherkinDocument().ifPresent(document -> collectLines(document, lines));
+            envelope.getPickle().ifPresent(pickle -> pickles.add(toPickle(feature, pickle, lines, bindings)));
+        }
+        return pickles;
+    }
+
+    private static CompiledPickle toPickle(Path feature, Pickle pickle, Map<String, Integer> lines, List<Binding> bindings) {
+        // For example rows the last AST node is the row, which is the line Cucumber reports
+        List<String> astNodeIds = pickle.getAstNodeIds();
+        int line = lines.getOrDefault(astNodeIds.get(astNodeIds.size() - 1), 0);
+        List<CompiledStep> steps = pickle.getSteps().stream()
+            .map(step -> new CompiledStep(step.getText(), bind(step.getText(), bindings)))
+            .collect(Collectors.toList());
+        List<String> tags = pickle.getTags().stream().map(tag -> tag.getName()).collect(Collectors.toList());
+        String uri = ScenarioKey.of(feature, line);
+        return new CompiledPickle(uri.substring(0, uri.lastIndexOf(':')), line, pickle.getName(), List.copyOf(new TreeSet<>(tags)), steps);
+    }
+
+    private static void collectLines(GherkinDocument document, Map<String, Integer> lines) {
+        document.getFeature().ifPresent(feature -> {
+            for (FeatureChild child : feature.getChildren()) {
+                child.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                child.getRule().ifPresent(rule -> {
+                    for (RuleChild ruleChild : rule.getChildren()) {
+                        ruleChild.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                    }
+                });
+            }
+        });
+    }
+
+    private static void collectLines(Scenario scenario, Map<String, Integer> lines) {
+        lines.put(scenario.getId(), scenario.getLocation().getLine().intValue());
+        scenario.getExamples().forEach(examples -> examples.getTableBody()
+            .forEach(row -> lines.put(row.getId(), row.getLocation().getLine().intValue())));
+    }
+
+    private static int bind(String stepText, List<Binding> bindings) {
+        for (int i = 0; i < bindings.size(); i++) {
+            if (bindings.get(i).expression().match(stepText) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Binding> scanGlue(String gluePackage, ClassLoader classLoader) throws IOException {
+        ExpressionFactory expressions = new ExpressionFactory(new ParameterTypeRegistry(Locale.ENGLISH));
+        List<Binding> bindings = new ArrayList<>();
+        for (String className : glueClassNames(gluePackage, classLoader)) {
+            Class<?> glueClass;
+            try {
+                glueClass = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            Method[] methods = glueClass.getDeclaredMethods();
+            Arrays.sort(methods, (a, b) -> a.toString().compareTo(b.toString()));
+            for (Method method : methods) {
+                for (Annotation annotation : method.getAnnotations()) {
+                    if (annotation.annotationType().isAnnotationPresent(StepDefinitionAnnotation.class)) {
+                        String pattern = stepPattern(annotation);
+                        bindings.add(new Binding(pattern, signature(method), expressions.createExpression(pattern)));
+                    }
+                }
+            }
+        }
+        return bindings;
+    }
+
+    private static List<String> glueClassNames(String gluePackage, ClassLoader classLoader) throws IOException {
+        String packagePath = gluePackage.replace('.', '/');
+        TreeSet<String> classNames = new TreeSet<>();
+        for (URL root : Collections.list(classLoader.getResources(packagePath))) {
+            if (!"file".equals(root.getProtocol())) {
+                continue;
+            }
+            Path directory;
+            try {
+                directory = Paths.get(root.toURI());
+            } catch (URISyntaxException e) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.map(directory::relativize)
+                    .map(Path::toString)
+                    .filter(name -> name.endsWith(".class") && !name.contains("$"))
+                    .map(name -> gluePackage + "." + name.substring(0, name.length() - ".class".length()).replace(File.separatorChar, '.'))
+                    .forEach(classNames::add);
+            }
+        }
+        return new ArrayList<>(classNames);
+    }
+
+    private static String stepPattern(Annotation annotation) {
+        try {
+            return (String) annotation.annotationType().getMethod("value").invoke(annotation);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Step annotation without value: " + annotation, e);
+        }
+    }
+
+    private static String signature(Method method) {
+        return method.getDeclaringClass().getName() + "." + method.getName()
+            + Arrays.stream(method.getParameterTypes()).map(Class::getName).collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private byte[] write(long fingerprint, List<Binding> bindings, List<CompiledPickle> pickles) throws IOException {
+        // Tag sets are shared by many pickles; the tag expression is later evaluated once per set
+        Map<String, Integer> tagIds = new LinkedHashMap<>();
+        Map<List<String>, Integer> tagSetIds = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> postings = new LinkedHashMap<>();
+        int[] pickleTagSets = new int[pickles.size()];
+        for (int i = 0; i < pickles.size(); i++) {
+            List<String> tags = pickles.get(i).tags();
+            for (String tag : tags) {
+                int tagId = tagIds.computeIfAbsent(tag, key -> tagIds.size());
+                postings.computeIfAbsent(tagId, key -> new ArrayList<>()).add(i);
+            }
+            pickleTagSets[i] = tagSetIds.computeIfAbsent(tags, key -> tagSetIds.size());
+        }
+
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        int[] recordOffsets = new int[pickles.size()];
+        for (int i = 0; i < pickles.size(); i++) {
+            CompiledPickle pickle = pickles.get(i);
+            recordOffsets[i] = records.size();
+            records.writeInt(string(pickle.uri()));
+            records.writeInt(pickle.line());
+            records.writeInt(string(pickle.name()));
+            records.writeInt(pickle.steps().size());
+            for (CompiledStep step : pickle.steps()) {
+                records.writeInt(string(step.text()));
+                records.writeInt(step.binding());
+            }
+        }
+        int[] bindingStrings = new int[bindings.size() * 2];
+        for (int i = 0; i < bindings.size(); i++) {
+            bindingStrings[2 * i] = string(bindings.get(i).pattern());
+            bindingStrings[2 * i + 1] = string(bindings.get(i).method());
+        }
+        int[] tagNameStrings = tagIds.keySet().stream().mapToInt(this::string).toArray();
+
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        DataOutputStream stringData = new DataOutputStream(stringBytes);
+        int[] stringOffsets = new int[strings.size()];
+        for (int i = 0; i < strings.size(); i++) {
+            stringOffsets[i] = stringData.size();
+            byte[] utf8 = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringData.writeInt(utf8.length);
+            stringData.write(utf8);
+        }
+
+        // The header has a fixed size, so it is laid out once to learn where records and strings start
+        Header header = new Header(fingerprint, stringOffsets, bindingStrings, tagNameStrings, postings,
+            new ArrayList<>(tagSetIds.keySet()), tagIds, pickleTagSets, recordOffsets);
+        int headerSize = header.write(0, 0).length;
+        byte[] headerBytes = header.write(headerSize, headerSize + recordBytes.size());
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(headerSize + recordBytes.size() + stringBytes.size());
+        file.write(headerBytes);
+        recordBytes.writeTo(file);
+        stringBytes.writeTo(file);
+        return file.toByteArray();
+    }
+
+    private int string(String value) {
+        return stringIds.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    private record Header(long fingerprint, int[] stringOffsets, int[] bindingStrings, int[] tagNameStrings,
+            Map<Integer, List<Integer>> postings, List<List<String>> tagSets, Map<String, Integer> tagIds,
+            int[] pickleTagSets, int[] recordOffsets) {
+
+        byte[] write(int recordsStart, int stringsStart) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(ScenarioIndex.MAGIC);
+            out.writeInt(ScenarioIndex.VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(stringOffsets.length);
+            for (int offset : stringOffsets) {
+                out.writeInt(stringsStart + offset);
+            }
+            out.writeInt(bindingStrings.length / 2);
+            for (int id : bindingStrings) {
+                out.writeInt(id);
+            }
+            out.writeInt(tagNameStrings.length);
+            for (int tagId = 0; tagId < tagNameStrings.length; tagId++) {
+                out.writeInt(tagNameStrings[tagId]);
+                List<Integer> pickles = postings.get(tagId);
+                out.writeInt(pickles.size());
+                for (int pickle : pickles) {
+                    out.writeInt(pickle);
+                }
+            }
+            out.writeInt(tagSets.size());
+            for (List<String> tagSet : tagSets) {
+                out.writeInt(tagSet.size());
+                for (String tag : tagSet) {
+                    out.writeInt(tagIds.get(tag));
+                }
+            }
+            out.writeInt(pickleTagSets.length);
+            for (int i = 0; i < pickleTagSets.length; i++) {
+                out.writeInt(pickleTagSets[i]);
+                out.writeInt(recordsStart + recordOffsets[i]);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private record Binding(String pattern, String method, Expression expression) {
+    }
+
+    private record CompiledStep(String text, int binding) {
+    }
+
+    private record CompiledPickle(String uri, int line, String name, List<String> tags, List<CompiledStep> steps) {
+    }
+}
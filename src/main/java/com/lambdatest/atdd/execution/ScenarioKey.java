@@ -0,0 +1,54 @@
+package com.lambdatest.atdd.execution;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Builds stable scenario identifiers ("features/ecommerce/product-search.feature:24")
+ * that are identical across JVMs and machines, so they can be used for sharding and timing history
+ */
+public final class ScenarioKey {
+
+    private ScenarioKey() {
+    }
+
+    /**
+     * Creates a key from a feature URI and the line of the pickle (scenario or example row)
+     *
+     * @param featureUri The feature URI as reported by Cucumber (file: or classpath:)
+     * @param line The line of the scenario or example row
+     * @return Stable scenario key
+     */
+    public static String of(URI featureUri, int line) {
+        return normalize(featureUri) + ":" + line;
+    }
+
+    /**
+     * Creates a key from an absolute or relative feature file path
+     *
+     * @param featureFile The feature file
+     * @param line The line of the scenario or example row
+     * @return Stable scenario key
+     */
+    public static String of(Path featureFile, int line) {
+        return relativize(featureFile) + ":" + line;
+    }
+
+    private static String normalize(URI uri) {
+        if ("classpath".equals(uri.getScheme())) {
+            return uri.getSchemeSpecificPart().replaceFirst("^/", "");
+        }
+        if ("file".equals(uri.getScheme())) {
+            return relativize(Paths.get(uri.getSchemeSpecificPart()));
+        }
+        return uri.toString();
+    }
+
+    private static String relativize(Path path) {
+        Path workingDir = Paths.get(System.getProperty("user.dir")).toAbsolutePath();
+        Path absolute = path.toAbsolutePath().normalize();
+        Path relative = absolute.startsWith(workingDir) ? workingDir.relativize(absolute) : absolute;
+        return relative.toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,203 @@
+package com.lambdatest.atdd.execution;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deterministically partitions scenarios into shards
+ * Every shard computes the same plan from the same set of scenario keys (and, for the "duration"
+ * strategy, the same durations file), so no coordination is needed. A durations file that is missing,
+ * malformed, recorded by a single shard or too stale to cover the suite is not used; the plan then
+ * falls back to hash sharding, which only depends on the scenario keys.
+ */
+public class ShardPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(ShardPlanner.class);
+
+    public static final String STRATEGY_HASH = "hash";
+    public static final String STRATEGY_DURATION = "duration";
+
+    /**
+     * Header of a durations file that holds only the scenarios of one shard
+     */
+    public static final String SHARD_HEADER = "# shard ";
+
+    /**
+     * Share of the discovered scenarios a durations file must cover to be used
+     */
+    static final double MIN_COVERAGE = 0.5;
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * Selects the scenarios that belong to the given shard
+     *
+     * @param scenarioKeys All scenario keys discovered for this run
+     * @param shard The shard to select
+     * @param strategy "hash" or "duration"
+     * @param durationsFile Recorded scenario durations, used by the "duration" strategy
+     * @return Keys of the scenarios to run in this shard
+     */
+    public static Set<String> select(Collection<String> scenarioKeys, ShardSpec shard, String strategy, Path durationsFile) {
+        if (STRATEGY_DURATION.equalsIgnoreCase(strategy)) {
+            try {
+                Map<String, Long> durations = readDurations(durationsFile);
+                checkCoverage(scenarioKeys, durations);
+                return selectByDuration(scenarioKeys, shard, durations);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Not using scenario durations from {}, falling back to hash sharding: {}", durationsFile, e.getMessage());
+            }
+        }
+        return selectByHash(scenarioKeys, shard);
+    }
+
+    /**
+     * Assigns each scenario to the shard given by a stable hash of its key
+     *
+     * @param scenarioKeys All scenario keys
+     * @param shard The shard to select
+     * @return Keys assigned to the shard
+     */
+    public static Set<String> selectByHash(Collection<String> scenarioKeys, ShardSpec shard) {
+        Set<String> selected = new HashSet<>();
+        for (String key : scenarioKeys) {
+            if (hashShard(key, shard.total()) == shard.index()) {
+                selected.add(key);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Balances shards by recorded duration using longest-processing-time-first assignment
+     * Scenarios without a recorded duration are assumed to take the average recorded duration
+     *
+     * @param scenarioKeys All scenario keys
+     * @param shard The shard to select
+     * @param durations Recorded durations in milliseconds by scenario key
+     * @return Keys assigned to the shard
+     */
+    public static Set<String> selectByDuration(Collection<String> scenarioKeys, ShardSpec shard, Map<String, Long> durations) {
+        long fallback = (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(1);
+
+        List<String> ordered = new ArrayList<>(new HashSet<>(scenarioKeys));
+        ordered.sort(Comparator.<String>comparingLong(key -> durations.getOrDefault(key, fallback)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] load = new long[shard.total()];
+        Set<String> selected = new HashSet<>();
+        for (String key : ordered) {
+            int target = 0;
+            for (int i = 1; i < load.length; i++) {
+                if (load[i] < load[target]) {
+                    target = i;
+                }
+            }
+            load[target] += durations.getOrDefault(key, fallback);
+            if (target + 1 == shard.index()) {
+                selected.add(key);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Reads a durations file written by {@code ScenarioDurationRecorder} or merged by {@code ReportMerger}
+     * (one "key\tmillis" per line)
+     *
+     * @param durationsFile The durations file
+     * @return Durations by scenario key
+     * @throws IOException if the file does not exist or cannot be read
+     * @throws IllegalArgumentException if a line is malformed or the file holds only one shard's scenarios
+     */
+    public static Map<String, Long> readDurations(Path durationsFile) throws IOException {
+        if (durationsFile == null || !Files.isRegularFile(durationsFile)) {
+            throw new IOException("no durations file");
+        }
+        Map<String, Long> durations = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(durationsFile, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.startsWith(SHARD_HEADER)) {
+                    throw new IllegalArgumentException("recorded by shard " + line.substring(SHARD_HEADER.length()).trim()
+                        + " only, merge the shards' files first");
+                }
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.lastIndexOf('\t');
+                try {
+                    if (tab <= 0) {
+                        throw new NumberFormatException("no tab");
+                    }
+                    durations.merge(line.substring(0, tab), Long.parseLong(line.substring(tab + 1).trim()), Math::max);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("malformed line " + number + ": " + line, e);
+                }
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Writes durations sorted by key, so equal content gives an equal file on every machine
+     *
+     * @param durationsFile The file to write
+     * @param durations Durations in milliseconds by scenario key
+     * @param shard The shard the durations were recorded by, null for a complete or merged set
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeDurations(Path durationsFile, Map<String, Long> durations, ShardSpec shard) throws IOException {
+        Path parent = durationsFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<String> lines = new ArrayList<>();
+        if (shard != null) {
+            lines.add(SHARD_HEADER + shard);
+        }
+        new TreeMap<>(durations).forEach((key, millis) -> lines.add(key + "\t" + millis));
+        Path temp = durationsFile.resolveSibling(durationsFile.getFileName() + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, durationsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Rejects a durations file that knows too few of the discovered scenarios, e.g. one from another branch
+     */
+    static void checkCoverage(Collection<String> scenarioKeys, Map<String, Long> durations) {
+        if (durations.isEmpty()) {
+            throw new IllegalArgumentException("no durations recorded");
+        }
+        Set<String> keys = new HashSet<>(scenarioKeys);
+        long covered = keys.stream().filter(durations::containsKey).count();
+        if (covered < MIN_COVERAGE * keys.size()) {
+            throw new IllegalArgumentException("covers only " + covered + " of " + keys.size() + " scenarios");
+        }
+    }
+
+    private static int hashShard(String key, int total) {
+        // Name-based UUIDs are MD5 digests, which spread keys that differ only in a line number evenly
+        long hash = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).getLeastSignificantBits();
+        return (int) Math.floorMod(hash, (long) total) + 1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.lambdatest.atdd.execution;
+
+/**
+ * A shard selection such as "2/8" (the second of eight shards, 1-based)
+ *
+ * @param index The 1-based shard index
+ * @param total The total number of shards
+ */
+public record ShardSpec(int index, int total) {
+
+    public ShardSpec {
+        if (total < 1 || index < 1 || index > total) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + total + ", expected 1 <= index <= total");
+        }
+    }
+
+    /**
+     * Parses a shard expression of the form "index/total"
+     *
+     * @param value The shard expression, e.g. "2/8"
+     * @return The parsed shard
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static ShardSpec parse(String value) {
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid shard '" + value + "', expected <index>/<total> such as 2/8");
+        }
+        try {
+            return new ShardSpec(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid shard '" + value + "', expected <index>/<total> such as 2/8", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + total;
+    }
+}
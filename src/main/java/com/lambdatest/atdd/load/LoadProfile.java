@@ -0,0 +1,24 @@
+package com.lambdatest.atdd.load;
+
+import java.time.Duration;
+
+/**
+ * How a recording is replayed
+ *
+ * @param virtualUsers Number of concurrent virtual users, each with its own cookies
+ * @param iterations Times each virtual user runs the recording; every iteration starts a new session
+ * @param rampUp Time over which the virtual users are started evenly
+ * @param thinkTimeFactor Multiplier for the recorded pauses, 1 for real pacing, 0 for none
+ * @param requestTimeout Timeout of one request, including redirects
+ */
+public record LoadProfile(int virtualUsers, int iterations, Duration rampUp, double thinkTimeFactor, Duration requestTimeout) {
+
+    public LoadProfile {
+        if (virtualUsers < 1 || iterations < 1) {
+            throw new IllegalArgumentException("Need at least one virtual user and one iteration");
+        }
+        if (thinkTimeFactor < 0) {
+            throw new IllegalArgumentException("Think time factor must not be negative: " + thinkTimeFactor);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.lambdatest.atdd.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+
+/**
+ * Records the HTTP requests a browser makes during a scenario (-Datdd.load.record=true)
+ *
+ * The hook is prepended to the page-load wait script, so recording adds no round trip per page. It
+ * notes every document load and wraps XMLHttpRequest and fetch to capture method, URL, headers and
+ * body. Entries are kept in sessionStorage, which survives navigations in the tab, and are drained
+ * once when the scenario ends. Static assets are not recorded.
+ */
+public final class LoadRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(LoadRecorder.class);
+
+    /**
+     * Installs the request recorder once per document
+     */
+    public static final String HOOK_SCRIPT =
+        "if (!window.__atddRecorder) {" +
+        "  window.__atddRecorder = true;" +
+        "  var record = function(entry) {" +
+        "    try {" +
+        "      var list = JSON.parse(sessionStorage.getItem('__atddRequests') || '[]');" +
+        "      list.push(entry);" +
+        "      sessionStorage.setItem('__atddRequests', JSON.stringify(list));" +
+        "    } catch (e) {}" +
+        "  };" +
+        "  var serialize = function(body) {" +
+        "    if (body === undefined || body === null) { return null; }" +
+        "    if (typeof body === 'string') { return body; }" +
+        "    if (body instanceof URLSearchParams) { return body.toString(); }" +
+        "    if (window.FormData && body instanceof FormData) { try { return new URLSearchParams(body).toString(); } catch (e) {} }" +
+        "    return null;" +
+        "  };" +
+        "  record({method: 'GET', url: location.href, headers: {}, body: null, at: Math.round(performance.timeOrigin || Date.now())});" +
+        "  var open = XMLHttpRequest.prototype.open, send = XMLHttpRequest.prototype.send;" +
+        "  var setHeader = XMLHttpRequest.prototype.setRequestHeader;" +
+        "  XMLHttpRequest.prototype.open = function(method, url) {" +
+        "    try { this.__atdd = {method: String(method).toUpperCase(), url: new URL(url, location.href).href, headers: {}}; } catch (e) {}" +
+        "    return open.apply(this, arguments);" +
+        "  };" +
+        "  XMLHttpRequest.prototype.setRequestHeader = function(name, value) {" +
+        "    if (this.__atdd) { this.__atdd.headers[name] = value; }" +
+        "    return setHeader.apply(this, arguments);" +
+        "  };" +
+        "  XMLHttpRequest.prototype.send = function(body) {" +
+        "    if (this.__atdd) { this.__atdd.body = serialize(body); this.__atdd.at = Date.now(); record(this.__atdd); }" +
+        "    return send.apply(this, arguments);" +
+        "  };" +
+        "  if (window.fetch) {" +
+        "    var originalFetch = window.fetch;" +
+        "    window.fetch = function(input, init) {" +
+        "      try {" +
+        "        var request = (window.Request && input instanceof Request) ? input : null;" +
+        "        init = init || {};" +
+        "        record({method: String(init.method || (request ? request.method : 'GET')).toUpperCase()," +
+        "                url: new URL(request ? request.url : String(input), location.href).href," +
+        "                headers: (init.headers && !(init.headers instanceof Headers)) ? init.headers : {}," +
+        "                body: serialize(init.body), at: Date.now()});" +
+        "      } catch (e) {}" +
+        "      return originalFetch.apply(this, arguments);" +
+        "    };" +
+        "  }" +
+        "}";
+
+    private static final String DRAIN_SCRIPT =
+        "var list = JSON.parse(sessionStorage.getItem('__atddRequests') || '[]');" +
+        "sessionStorage.removeItem('__atddRequests');" +
+        "return list;";
+
+    private LoadRecorder() {
+    }
+
+    /**
+     * Checks whether request recording is enabled for this run
+     *
+     * @return true if -Datdd.load.record=true
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Load.RECORD;
+    }
+
+    /**
+     * Takes the requests recorded so far in the browser and writes them as a recording
+     *
+     * @param driver The WebDriver instance
+     * @param scenario Scenario name, also used for the file name
+     * @return The recording file, empty if nothing was recorded or the browser could not be queried
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<Path> save(WebDriver driver, String scenario) {
+        List<Map<String, Object>> entries;
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(DRAIN_SCRIPT);
+            entries = result instanceof List ? (List<Map<String, Object>>) result : Collections.emptyList();
+        } catch (RuntimeException e) {
+            logger.warn("Could not read recorded requests for '{}': {}", scenario, e.getMessage());
+            return Optional.empty();
+        }
+        URI base = URI.create(TestConfiguration.ECOMMERCE_BASE_URL);
+        LoadRecording recording = LoadRecording.fromBrowser(scenario, base.getScheme() + "://" + base.getAuthority(), entries);
+        if (recording.requests().isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = Path.of(TestConfiguration.Load.RECORDINGS_DIR,
+            scenario.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "") + ".json");
+        try {
+            recording.write(file);
+            logger.info("Recorded {} requests for '{}' to {}", recording.requests().size(), scenario, file);
+            return Optional.of(file);
+        } catch (IOException e) {
+            logger.warn("Could not write recording {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
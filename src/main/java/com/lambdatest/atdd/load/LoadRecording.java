@@ -0,0 +1,145 @@
+package com.lambdatest.atdd.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The HTTP requests one acceptance scenario made, in order, with the pauses between them
+ * Paths are relative to the recorded origin so a recording can be replayed against any host
+ *
+ * @param scenario Name of the recorded scenario
+ * @param origin Scheme and host the requests were sent to, e.g. "https://ecommerce-playground.lambdatest.io"
+ * @param requests The requests in the order the browser sent them
+ */
+public record LoadRecording(String scenario, String origin, List<RecordedRequest> requests) {
+    private static final ObjectMapper mapper = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public LoadRecording {
+        requests = List.copyOf(requests);
+    }
+
+    /**
+     * One recorded request
+     *
+     * @param method HTTP method
+     * @param path Path and query, e.g. "/index.php?route=product/search&search=iMac"
+     * @param headers Request headers the page set explicitly (e.g. X-Requested-With), without Content-Type
+     * @param contentType Content type of the body, null if there is none
+     * @param body Request body, null if there is none
+     * @param thinkTimeMillis Pause between the previous request and this one
+     */
+    public record RecordedRequest(String method, String path, Map<String, String> headers, String contentType,
+                                  String body, long thinkTimeMillis) {
+
+        public RecordedRequest {
+            headers = headers == null ? Map.of() : Map.copyOf(headers);
+        }
+
+        /**
+         * Names the request for statistics: method, path and the OpenCart route, other parameters dropped
+         * e.g. "GET /index.php?route=product/search"
+         *
+         * @return The request name
+         */
+        public String name() {
+            int query = path.indexOf('?');
+            if (query < 0) {
+                return method + " " + path;
+            }
+            for (String parameter : path.substring(query + 1).split("&")) {
+                if (parameter.startsWith("route=")) {
+                    return method + " " + path.substring(0, query) + "?" + parameter;
+                }
+            }
+            return method + " " + path.substring(0, query);
+        }
+    }
+
+    /**
+     * Builds a recording from the entries collected in the browser by {@link LoadRecorder}
+     * Requests to other origins (analytics, CDNs) are dropped; think time is the gap between start times
+     *
+     * @param scenario Scenario name
+     * @param origin Origin to keep, e.g. "https://ecommerce-playground.lambdatest.io"
+     * @param entries Browser entries with method, url, headers, body and at (epoch millis)
+     * @return The recording
+     */
+    public static LoadRecording fromBrowser(String scenario, String origin, List<Map<String, Object>> entries) {
+        URI base = URI.create(origin);
+        List<Map<String, Object>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(entry -> ((Number) entry.get("at")).longValue()));
+        List<RecordedRequest> requests = new ArrayList<>();
+        long previous = -1;
+        for (Map<String, Object> entry : sorted) {
+            URI uri = URI.create(String.valueOf(entry.get("url")));
+            if (!base.getHost().equalsIgnoreCase(uri.getHost()) || !base.getScheme().equalsIgnoreCase(uri.getScheme())) {
+                continue;
+            }
+            long at = ((Number) entry.get("at")).longValue();
+            Map<String, String> headers = new LinkedHashMap<>();
+            String contentType = null;
+            if (entry.get("headers") instanceof Map<?, ?> recorded) {
+                for (Map.Entry<?, ?> header : recorded.entrySet()) {
+                    if ("content-type".equalsIgnoreCase(String.valueOf(header.getKey()))) {
+                        contentType = String.valueOf(header.getValue());
+                    } else {
+                        headers.put(String.valueOf(header.getKey()), String.valueOf(header.getValue()));
+                    }
+                }
+            }
+            String path = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+            requests.add(new RecordedRequest(String.valueOf(entry.get("method")), path, headers, contentType,
+                (String) entry.get("body"), previous < 0 ? 0 : Math.max(0, at - previous)));
+            previous = at;
+        }
+        return new LoadRecording(scenario, base.getScheme() + "://" + base.getAuthority(), requests);
+    }
+
+    /**
+     * Reads a recording
+     *
+     * @param file The recording file
+     * @return The recording
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static LoadRecording read(Path file) throws IOException {
+        return mapper.readValue(file.toFile(), LoadRecording.class);
+    }
+
+    /**
+     * Reads a recording from a stream, e.g. a classpath resource
+     *
+     * @param in The JSON stream
+     * @return The recording
+     * @throws IOException if the stream cannot be parsed
+     */
+    public static LoadRecording read(InputStream in) throws IOException {
+        return mapper.readValue(in, LoadRecording.class);
+    }
+
+    /**
+     * Writes the recording as JSON
+     *
+     * @param file The file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        mapper.writeValue(file.toFile(), this);
+    }
+}
@@ -0,0 +1,262 @@
+package com.lambdatest.atdd.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.RunMetrics;
+
+/**
+ * Replays a {@link LoadRecording} as many concurrent virtual users, without browsers
+ *
+ * Each virtual user is a virtual thread with its own cookie jar: Set-Cookie headers from responses
+ * (including redirects, which are followed here rather than by the client) are sent back on later
+ * requests, so session cookies are correlated per user. Latencies are written to per-user arrays
+ * while the replay runs and merged into percentiles afterwards, so workers never contend.
+ */
+public class LoadReplayer {
+    private static final Logger logger = LoggerFactory.getLogger(LoadReplayer.class);
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade", "cookie");
+    private static final int MAX_REDIRECTS = 5;
+
+    public static final String REQUESTS = "load_replay.requests";
+    public static final String ERRORS = "load_replay.errors";
+
+    private final LoadProfile profile;
+    private final HttpClient client;
+
+    /**
+     * @param profile Users, iterations, ramp-up and pacing of the replay
+     */
+    public LoadReplayer(LoadProfile profile) {
+        this.profile = profile;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(profile.requestTimeout())
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    /**
+     * Replays a recording and waits until every virtual user has finished
+     *
+     * @param recording The recorded requests
+     * @param target Scheme and host to send them to, e.g. http://localhost:8080
+     * @return Percentiles and errors per request
+     */
+    public LoadReport replay(LoadRecording recording, URI target) {
+        List<LoadRecording.RecordedRequest> requests = recording.requests();
+        int perIteration = requests.size();
+        long[][] latencies = new long[profile.virtualUsers()][];
+        LongAdder[] errors = new LongAdder[perIteration];
+        Arrays.setAll(errors, i -> new LongAdder());
+        AtomicReferenceArray<String> firstErrors = new AtomicReferenceArray<>(perIteration);
+
+        logger.info("Replaying '{}' ({} requests) against {} with {} virtual users x {} iterations",
+            recording.scenario(), perIteration, target, profile.virtualUsers(), profile.iterations());
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < profile.virtualUsers(); user++) {
+                int userIndex = user;
+                long startDelayMillis = profile.rampUp().toMillis() * user / profile.virtualUsers();
+                users.submit(() -> {
+                    long[] samples = new long[profile.iterations() * perIteration];
+                    Arrays.fill(samples, -1);
+                    latencies[userIndex] = samples;
+                    runUser(recording, target, startDelayMillis, samples, errors, firstErrors);
+                });
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return summarize(recording, target, latencies, errors, firstErrors, elapsedMillis);
+    }
+
+    private void runUser(LoadRecording recording, URI target, long startDelayMillis, long[] samples,
+                         LongAdder[] errors, AtomicReferenceArray<String> firstErrors) {
+        List<LoadRecording.RecordedRequest> requests = recording.requests();
+        URI origin = URI.create(recording.origin());
+        try {
+            Thread.sleep(startDelayMillis);
+            for (int iteration = 0; iteration < profile.iterations(); iteration++) {
+                // Every iteration is a new visitor, so it starts without cookies
+                Map<String, String> cookies = new LinkedHashMap<>();
+                for (int i = 0; i < requests.size(); i++) {
+                    LoadRecording.RecordedRequest recorded = requests.get(i);
+                    Thread.sleep((long) (recorded.thinkTimeMillis() * profile.thinkTimeFactor()));
+                    long sent = System.nanoTime();
+                    String failure = send(recorded, origin, target, cookies);
+                    RunMetrics.counter(REQUESTS).increment();
+                    if (failure == null) {
+                        samples[iteration * requests.size() + i] = System.nanoTime() - sent;
+                    } else {
+                        RunMetrics.counter(ERRORS).increment();
+                        errors[i].increment();
+                        firstErrors.compareAndSet(i, null, failure);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends one recorded request, following redirects and updating the user's cookies
+     *
+     * @return null on success, otherwise a description of the failure
+     */
+    private String send(LoadRecording.RecordedRequest recorded, URI origin, URI target, Map<String, String> cookies)
+            throws InterruptedException {
+        URI uri = target.resolve(recorded.path());
+        String method = recorded.method();
+        String body = recorded.body();
+        try {
+            for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+                HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(profile.requestTimeout());
+                recorded.headers().forEach((name, value) -> {
+                    if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                        builder.header(name, value);
+                    }
+                });
+                if (!cookies.isEmpty()) {
+                    builder.header("Cookie", String.join("; ", cookies.entrySet().stream()
+                        .map(cookie -> cookie.getKey() + "=" + cookie.getValue()).toList()));
+                }
+                if (body != null && recorded.contentType() != null) {
+                    builder.header("Content-Type", recorded.contentType());
+                }
+                builder.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+
+                HttpResponse<Void> response = client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+                updateCookies(response.headers(), cookies);
+                int status = response.statusCode();
+                String location = response.headers().firstValue("Location").orElse(null);
+                if (status >= 300 && status < 400 && location != null) {
+                    uri = rebase(uri.resolve(location), origin, target);
+                    if (status != 307 && status != 308) {
+                        method = "GET";
+                        body = null;
+                    }
+                    continue;
+                }
+                return status >= 400 ? "HTTP " + status + " for " + method + " " + uri : null;
+            }
+            return "More than " + MAX_REDIRECTS + " redirects for " + recorded.name();
+        } catch (IOException | IllegalArgumentException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage() + " for " + method + " " + uri;
+        }
+    }
+
+    private static void updateCookies(HttpHeaders headers, Map<String, String> cookies) {
+        for (String setCookie : headers.allValues("Set-Cookie")) {
+            String[] attributes = setCookie.split(";");
+            int equals = attributes[0].indexOf('=');
+            if (equals <= 0) {
+                continue;
+            }
+            String name = attributes[0].substring(0, equals).trim();
+            boolean expired = Arrays.stream(attributes).skip(1).map(String::trim)
+                .anyMatch(attribute -> attribute.equalsIgnoreCase("Max-Age=0"));
+            if (expired) {
+                cookies.remove(name);
+            } else {
+                cookies.put(name, attributes[0].substring(equals + 1).trim());
+            }
+        }
+    }
+
+    private static URI rebase(URI uri, URI origin, URI target) {
+        // Absolute redirects back to the recorded host stay on the replay target
+        if (origin.getHost() != null && origin.getHost().equalsIgnoreCase(uri.getHost())) {
+            return target.resolve(uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+        }
+        return uri;
+    }
+
+    private LoadReport summarize(LoadRecording recording, URI target, long[][] latencies, LongAdder[] errors,
+                                 AtomicReferenceArray<String> firstErrors, long elapsedMillis) {
+        List<LoadRecording.RecordedRequest> requests = recording.requests();
+        // Requests with the same name (e.g. the home page loaded twice) are reported together
+        Map<String, List<Integer>> positionsByName = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            positionsByName.computeIfAbsent(requests.get(i).name(), name -> new ArrayList<>()).add(i);
+        }
+        List<LoadReport.RequestStats> stats = new ArrayList<>();
+        positionsByName.forEach((name, positions) -> {
+            long[] merged = new long[profile.virtualUsers() * profile.iterations() * positions.size()];
+            int count = 0;
+            long errorCount = 0;
+            String firstError = null;
+            for (int position : positions) {
+                errorCount += errors[position].sum();
+                firstError = firstError != null ? firstError : firstErrors.get(position);
+                for (long[] userSamples : latencies) {
+                    for (int iteration = 0; iteration < profile.iterations(); iteration++) {
+                        long sample = userSamples[iteration * requests.size() + position];
+                        if (sample >= 0) {
+                            merged[count++] = sample;
+                        }
+                    }
+                }
+            }
+            long[] sorted = Arrays.copyOf(merged, count);
+            Arrays.sort(sorted);
+            stats.add(new LoadReport.RequestStats(name, count + errorCount, errorCount, percentile(sorted, 50),
+                percentile(sorted, 90), percentile(sorted, 95), percentile(sorted, 99), percentile(sorted, 100), firstError));
+        });
+        return new LoadReport(recording.scenario(), target, profile.virtualUsers(), profile.iterations(), elapsedMillis, stats);
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * Command line entry point
+     * Usage: LoadReplayer &lt;recording.json&gt; &lt;target-url&gt; [virtual-users] [iterations] [ramp-up-seconds] [think-time-factor]
+     *
+     * @param args Recording file, target and optional profile
+     * @throws IOException if the recording cannot be read or the report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LoadReplayer <recording.json> <target-url> [virtual-users] [iterations] [ramp-up-seconds] [think-time-factor]");
+            System.exit(2);
+        }
+        LoadProfile profile = new LoadProfile(
+            args.length > 2 ? Integer.parseInt(args[2]) : 100,
+            args.length > 3 ? Integer.parseInt(args[3]) : 1,
+            Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 10),
+            args.length > 5 ? Double.parseDouble(args[5]) : 1.0,
+            Duration.ofSeconds(TestConfiguration.Load.REQUEST_TIMEOUT_SECONDS));
+        LoadReport report = new LoadReplayer(profile).replay(LoadRecording.read(Path.of(args[0])), URI.create(args[1]));
+        logger.info("{}", report.toTable());
+        report.write(Path.of(TestConfiguration.Load.REPORT_FILE));
+        System.exit(report.totalErrors() == 0 ? 0 : 1);
+    }
+}
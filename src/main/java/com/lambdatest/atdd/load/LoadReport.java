@@ -0,0 +1,93 @@
+package com.lambdatest.atdd.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Outcome of a replay: latency percentiles and errors per recorded request
+ *
+ * @param scenario Name of the replayed scenario
+ * @param target Host the recording was replayed against
+ * @param virtualUsers Number of virtual users
+ * @param iterations Iterations per virtual user
+ * @param elapsedMillis Wall-clock duration of the replay
+ * @param requests Statistics per request name, in recording order
+ */
+public record LoadReport(String scenario, URI target, int virtualUsers, int iterations, long elapsedMillis,
+                         List<RequestStats> requests) {
+
+    /**
+     * Statistics for one request name; latencies in milliseconds, of successful requests only
+     *
+     * @param name Request name, see {@link LoadRecording.RecordedRequest#name()}
+     * @param count Requests sent
+     * @param errors Requests that failed (status 400 and above, timeouts, connection errors)
+     * @param p50 Median latency
+     * @param p90 90th percentile latency
+     * @param p95 95th percentile latency
+     * @param p99 99th percentile latency
+     * @param max Maximum latency
+     * @param firstError Description of the first failure, null if none failed
+     */
+    public record RequestStats(String name, long count, long errors, double p50, double p90, double p95, double p99,
+                               double max, String firstError) {
+    }
+
+    /**
+     * @return Requests sent in total
+     */
+    public long totalRequests() {
+        return requests.stream().mapToLong(RequestStats::count).sum();
+    }
+
+    /**
+     * @return Failed requests in total
+     */
+    public long totalErrors() {
+        return requests.stream().mapToLong(RequestStats::errors).sum();
+    }
+
+    /**
+     * @return Requests per second over the whole replay
+     */
+    public double throughput() {
+        return elapsedMillis == 0 ? 0 : totalRequests() * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Formats the report as a table for the log
+     *
+     * @return Multi-line summary
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(
+            "Replayed '%s' against %s: %d virtual users x %d iterations, %d requests, %d errors, %.1f req/s in %d ms%n",
+            scenario, target, virtualUsers, iterations, totalRequests(), totalErrors(), throughput(), elapsedMillis));
+        table.append(String.format("  %-45s %7s %6s %8s %8s %8s %8s %8s%n", "request", "count", "errors", "p50", "p90", "p95", "p99", "max"));
+        for (RequestStats stats : requests) {
+            table.append(String.format("  %-45s %7d %6d %8.1f %8.1f %8.1f %8.1f %8.1f%n", stats.name(), stats.count(),
+                stats.errors(), stats.p50(), stats.p90(), stats.p95(), stats.p99(), stats.max()));
+            if (stats.firstError() != null) {
+                table.append("    first error: ").append(stats.firstError()).append(System.lineSeparator());
+            }
+        }
+        return table.toString();
+    }
+
+    /**
+     * Writes the report as JSON
+     *
+     * @param file The file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+}
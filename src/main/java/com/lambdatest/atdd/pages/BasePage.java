@@ -1,24 +1,49 @@
 package com.lambdatest.atdd.pages;
 
 import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.LocatorProfiler;
+import com.lambdatest.atdd.core.RecordingCommandExecutor;
+import com.lambdatest.atdd.core.RunMetrics;
+import com.lambdatest.atdd.core.WebVitals;
+import com.lambdatest.atdd.load.LoadRecorder;
 import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Base Page Object class providing common functionality for all page objects
  * Implements the Page Object Model pattern for better test maintainability
+ * 
+ * Located elements are cached per locator for the current navigation epoch: any command that may
+ * replace the page (navigation, click, Enter key, window/frame switch) starts a new epoch and
+ * empties the cache, and a stale cached reference is transparently located again. Element lists are
+ * only reused until the next command that may change the DOM (typing, scripts, alerts), so elements
+ * added by the page's own scripts are not missed.
  */
 public abstract class BasePage {
     
+    public static final String CACHE_HITS = "element_cache.hits";
+    public static final String CACHE_MISSES = "element_cache.misses";
+    public static final String CACHE_STALE = "element_cache.stale_retries";
+    
     protected final WebDriver driver;
     protected final WebDriverWait wait;
     
+    private final Map<By, WebElement> elementCache = new HashMap<>();
+    private final Map<By, List<WebElement>> elementsCache = new HashMap<>();
+    private long cacheEpoch = -1;
+    private long listCacheEpoch = -1;
+    private long localEpoch;
+    
     /**
      * Constructor for BasePage
      * 
@@ -27,6 +52,7 @@ public abstract class BasePage {
     public BasePage(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(TestConfiguration.TestConfig.DEFAULT_TIMEOUT));
+        this.wait.ignoring(StaleElementReferenceException.class);
     }
     
     /**
@@ -35,6 +61,7 @@ public abstract class BasePage {
      * @param url The URL to navigate to
      */
     public void navigateTo(String url) {
+        localEpoch++;
         driver.get(url);
     }
     
@@ -63,7 +90,7 @@ public abstract class BasePage {
      * @return The visible WebElement
      */
     protected WebElement waitForElementToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return wait.until(webDriver -> withElement(locator, element -> element.isDisplayed() ? element : null));
     }
     
     /**
@@ -73,17 +100,88 @@ public abstract class BasePage {
      * @return The clickable WebElement
      */
     protected WebElement waitForElementToBeClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return wait.until(webDriver -> withElement(locator, element -> element.isDisplayed() && element.isEnabled() ? element : null));
     }
 
     /**
-     * Find multiple elements
+     * Find an element, reusing the reference located earlier in the same navigation epoch
+     * 
+     * @param locator The element locator
+     * @return The WebElement
+     */
+    protected WebElement findElement(By locator) {
+        syncCacheEpoch();
+        WebElement cached = elementCache.get(locator);
+        if (cached != null) {
+            RunMetrics.counter(CACHE_HITS).increment();
+            return cached;
+        }
+        RunMetrics.counter(CACHE_MISSES).increment();
+        if (LocatorProfiler.isEnabled()) {
+            LocatorProfiler.profile(driver, locator, getClass().getSimpleName());
+        }
+        WebElement element = driver.findElement(locator);
+        elementCache.put(locator, element);
+        return element;
+    }
+
+    /**
+     * Find multiple elements, reusing a non-empty result located earlier in the same DOM epoch
      * 
      * @param locator The element locator
      * @return List of WebElements
      */
     protected List<WebElement> findElements(By locator) {
-        return driver.findElements(locator);
+        syncCacheEpoch();
+        syncListCacheEpoch();
+        List<WebElement> cached = elementsCache.get(locator);
+        if (cached != null) {
+            RunMetrics.counter(CACHE_HITS).increment();
+            return cached;
+        }
+        RunMetrics.counter(CACHE_MISSES).increment();
+        if (LocatorProfiler.isEnabled()) {
+            LocatorProfiler.profile(driver, locator, getClass().getSimpleName());
+        }
+        List<WebElement> elements = driver.findElements(locator);
+        if (!elements.isEmpty()) {
+            elementsCache.put(locator, elements);
+        }
+        return elements;
+    }
+    
+    /**
+     * Apply an action to a (possibly cached) element, locating it again once if the reference is stale
+     * 
+     * @param locator The element locator
+     * @param action The action to apply
+     * @return The action result
+     */
+    protected <T> T withElement(By locator, Function<WebElement, T> action) {
+        try {
+            return action.apply(findElement(locator));
+        } catch (StaleElementReferenceException e) {
+            RunMetrics.counter(CACHE_STALE).increment();
+            elementCache.remove(locator);
+            return action.apply(findElement(locator));
+        }
+    }
+    
+    /**
+     * Apply an action to a (possibly cached) element list, locating it again once if a reference is stale
+     * 
+     * @param locator The element locator
+     * @param action The action to apply
+     * @return The action result
+     */
+    protected <T> T withElements(By locator, Function<List<WebElement>, T> action) {
+        try {
+            return action.apply(findElements(locator));
+        } catch (StaleElementReferenceException e) {
+            RunMetrics.counter(CACHE_STALE).increment();
+            elementsCache.remove(locator);
+            return action.apply(findElements(locator));
+        }
     }
     
     /**
@@ -92,7 +190,14 @@ public abstract class BasePage {
      * @param locator The element locator
      */
     protected void click(By locator) {
-        waitForElementToBeClickable(locator).click();
+        try {
+            waitForElementToBeClickable(locator).click();
+        } catch (StaleElementReferenceException e) {
+            RunMetrics.counter(CACHE_STALE).increment();
+            elementCache.remove(locator);
+            waitForElementToBeClickable(locator).click();
+        }
+        localEpoch++;
     }
     
     /**
@@ -113,19 +218,109 @@ public abstract class BasePage {
      */
     protected boolean isElementDisplayed(By locator) {
         try {
-            return driver.findElement(locator).isDisplayed();
+            return withElement(locator, WebElement::isDisplayed);
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Drop all cached elements, e.g. after an action that changed the page behind WebDriver's back
+     */
+    protected void invalidateElementCache() {
+        localEpoch++;
+        elementCache.clear();
+        elementsCache.clear();
+    }
+    
+    private void syncCacheEpoch() {
+        long epoch = currentEpoch();
+        if (epoch != cacheEpoch) {
+            elementCache.clear();
+            elementsCache.clear();
+            cacheEpoch = epoch;
+        }
+    }
+    
+    private void syncListCacheEpoch() {
+        long epoch = currentDomEpoch();
+        if (epoch != listCacheEpoch) {
+            elementsCache.clear();
+            listCacheEpoch = epoch;
+        }
+    }
+
+    private long currentDomEpoch() {
+        if (driver instanceof RemoteWebDriver remoteDriver
+                && remoteDriver.getCommandExecutor() instanceof RecordingCommandExecutor recorder) {
+            return recorder.getDomEpoch();
+        }
+        return localEpoch;
+    }
+    
+    private long currentEpoch() {
+        // The instrumented grid executor sees every command; local bookkeeping is the fallback
+        if (driver instanceof RemoteWebDriver remoteDriver
+                && remoteDriver.getCommandExecutor() instanceof RecordingCommandExecutor recorder) {
+            return recorder.getNavigationEpoch();
+        }
+        return localEpoch;
+    }
+
     /**
      * Wait for page to load completely
+     * Also installs the request recorder when recording load flows, in the same script call
+     * (the console buffer used by failure snapshots is installed by the command recorder)
      */
     protected void waitForPageLoad() {
-        wait.until(webDriver -> 
-            ((org.openqa.selenium.JavascriptExecutor) webDriver)
-                .executeScript("return document.readyState").equals("complete"));
+        waitForPageLoad(pageName(getClass()));
+    }
+
+    /**
+     * Wait for page to load completely and record its web vitals for the current scenario
+     * The wait script itself returns the timings once the load event has ended, so this is still one call per poll
+     *
+     * @param pageName Name of the page the navigation leads to, as used in steps, e.g. "search results"
+     */
+    protected void waitForPageLoad(String pageName) {
+        localEpoch++;
+        String hooks = LoadRecorder.isEnabled() ? LoadRecorder.HOOK_SCRIPT : "";
+        if (!WebVitals.isEnabled()) {
+            wait.until(webDriver ->
+                ((org.openqa.selenium.JavascriptExecutor) webDriver)
+                    .executeScript(hooks + "return document.readyState;").equals("complete"));
+            return;
+        }
+        Map<?, ?> timings = wait.until(webDriver ->
+            (Map<?, ?>) ((org.openqa.selenium.JavascriptExecutor) webDriver)
+                .executeScript(hooks + WebVitals.VITALS_HOOK_SCRIPT + WebVitals.CAPTURE_SCRIPT));
+        WebVitals.record(pageName, timings);
+    }
+
+    /**
+     * Measures the current document again, e.g. after interactions that should count towards INP or CLS
+     *
+     * @return The timings, also recorded for the current scenario
+     */
+    public WebVitals.PageTimings capturePerformance() {
+        Map<?, ?> timings = wait.until(webDriver ->
+            (Map<?, ?>) ((org.openqa.selenium.JavascriptExecutor) webDriver)
+                .executeScript(WebVitals.VITALS_HOOK_SCRIPT + WebVitals.CAPTURE_SCRIPT));
+        return WebVitals.record(pageName(getClass()), timings);
+    }
+
+    /**
+     * Derives the step name of a page object, e.g. ECommerceSearchResultsPage becomes "search results"
+     *
+     * @param pageClass The page object class
+     * @return Lower-case page name
+     */
+    public static String pageName(Class<? extends BasePage> pageClass) {
+        return pageClass.getSimpleName()
+            .replaceFirst("^ECommerce", "")
+            .replaceFirst("Page$", "")
+            .replaceAll("([a-z])([A-Z])", "$1 $2")
+            .toLowerCase();
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.lambdatest.atdd.pages.ecommerce;
 
 import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.data.ProductCatalog;
 import com.lambdatest.atdd.pages.BasePage;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
@@ -8,6 +9,7 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Page Object for LambdaTest E-Commerce Playground homepage
@@ -62,7 +64,7 @@ public class ECommerceHomePage extends BasePage {
         searchBox.sendKeys(searchTerm);
         searchBox.sendKeys(Keys.ENTER);
         
-        waitForPageLoad();
+        waitForPageLoad(pageName(ECommerceSearchResultsPage.class));
         return new ECommerceSearchResultsPage(driver);
     }
     
@@ -84,17 +86,26 @@ public class ECommerceHomePage extends BasePage {
     }
     
     /**
-     * Click on a specific product by name
+     * Open a specific product by name
+     * Products in the run's {@link ProductCatalog} are opened by URL, so they need not be featured on the
+     * homepage; other names (or -Datdd.catalog=false) fall back to clicking the product's link on the page
      * 
-     * @param productName The name of the product to click
+     * @param productName The name of the product to open
      * @return Product details page object
      */
     public ECommerceProductPage clickProduct(String productName) {
+        Optional<ProductCatalog.Product> indexed = ProductCatalog.isEnabled()
+            ? ProductCatalog.shared().find(productName) : Optional.empty();
+        if (indexed.isPresent()) {
+            navigateTo(indexed.get().url());
+            waitForPageLoad(pageName(ECommerceProductPage.class));
+            return new ECommerceProductPage(driver);
+        }
         WebElement product = waitForElementToBeClickable(
             By.xpath("//h4[contains(text(), '" + productName + "')] | //a[contains(text(), '" + productName + "')]")
         );
         product.click();
-        waitForPageLoad();
+        waitForPageLoad(pageName(ECommerceProductPage.class));
         return new ECommerceProductPage(driver);
     }
     
@@ -107,7 +118,7 @@ public class ECommerceHomePage extends BasePage {
         List<WebElement> products = findElements(PRODUCT_TITLES);
         if (!products.isEmpty()) {
             products.get(0).click();
-            waitForPageLoad();
+            waitForPageLoad(pageName(ECommerceProductPage.class));
         }
         return new ECommerceProductPage(driver);
     }
@@ -118,11 +129,10 @@ public class ECommerceHomePage extends BasePage {
      * @return List of product names
      */
     public List<String> getFeaturedProductNames() {
-        List<WebElement> productTitles = findElements(PRODUCT_TITLES);
-        return productTitles.stream()
+        return withElements(PRODUCT_TITLES, productTitles -> productTitles.stream()
                 .map(WebElement::getText)
                 .filter(text -> !text.trim().isEmpty())
-                .toList();
+                .toList());
     }
     
     /**
@@ -5,6 +5,7 @@ import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.lambdatest.atdd.core.Diagnostics;
 import com.lambdatest.atdd.pages.BasePage;
 
 /**
@@ -37,7 +38,7 @@ public class ECommerceProductPage extends BasePage {
     }
     
     public void addToCart() {
-        logger.info("Attempting to add product to cart...");
+        logger.debug("Attempting to add product to cart...");
         
         // Wait for page to be fully loaded
         waitForPageToLoad();
@@ -48,7 +49,7 @@ public class ECommerceProductPage extends BasePage {
         // Try primary selector
         try {
             if (isElementDisplayed(ADD_TO_CART_BUTTON)) {
-                logger.info("Primary Add to Cart button (btn-cart) found and visible");
+                logger.debug("Primary Add to Cart button (btn-cart) found and visible");
                 click(ADD_TO_CART_BUTTON);
                 logger.info("Add to Cart button clicked successfully");
                 clicked = true;
@@ -61,7 +62,7 @@ public class ECommerceProductPage extends BasePage {
         if (!clicked) {
             try {
                 if (isElementDisplayed(ADD_TO_CART_BUTTON_ALT)) {
-                    logger.info("Alternative Add to Cart button (button-cart) found and visible");
+                    logger.debug("Alternative Add to Cart button (button-cart) found and visible");
                     click(ADD_TO_CART_BUTTON_ALT);
                     logger.info("Add to Cart button clicked successfully with alternative selector");
                     clicked = true;
@@ -75,7 +76,7 @@ public class ECommerceProductPage extends BasePage {
         if (!clicked) {
             try {
                 if (isElementDisplayed(ADD_TO_CART_BUTTON_BROAD)) {
-                    logger.info("Broad Add to Cart button (btn-secondary btn-block) found and visible");
+                    logger.debug("Broad Add to Cart button (btn-secondary btn-block) found and visible");
                     click(ADD_TO_CART_BUTTON_BROAD);
                     logger.info("Add to Cart button clicked successfully with broad selector");
                     clicked = true;
@@ -89,8 +90,8 @@ public class ECommerceProductPage extends BasePage {
             logger.warn("All standard selectors failed, trying JavaScript click...");
             // Try JavaScript click as last resort
             try {
-                var button = driver.findElement(ADD_TO_CART_BUTTON);
-                logger.info("Button found, attempting JavaScript click...");
+                var button = findElement(ADD_TO_CART_BUTTON);
+                logger.debug("Button found, attempting JavaScript click...");
                 
                 // Scroll into view first
                 ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", button);
@@ -101,9 +102,7 @@ public class ECommerceProductPage extends BasePage {
                 logger.info("JavaScript click executed successfully");
             } catch (Exception jsEx) {
                 logger.error("JavaScript click also failed: {}", jsEx.getMessage(), jsEx);
-                debugButtonElements();
-                logger.error("Current page title: {}", driver.getTitle());
-                logger.error("Current page URL: {}", driver.getCurrentUrl());
+                Diagnostics.logPageStateOnError(logger, driver, 10);
             }
         }
 
@@ -120,34 +119,6 @@ public class ECommerceProductPage extends BasePage {
         }
     }
     
-    private void debugButtonElements() {
-        try {
-            logger.debug("DEBUG: Searching for all buttons on page...");
-            
-            // Find all buttons
-            var allButtons = driver.findElements(By.tagName("button"));
-            logger.debug("Found {} button elements:", allButtons.size());
-            for (int i = 0; i < Math.min(allButtons.size(), 10); i++) { // Limit to first 10
-                var button = allButtons.get(i);
-                logger.debug("  Button {}: id='{}', class='{}', text='{}'", i, button.getAttribute("id"), button.getAttribute("class"), button.getText());
-            }
-            
-            // Find all inputs
-            var allInputs = driver.findElements(By.tagName("input"));
-            logger.debug("Found {} input elements:", allInputs.size());
-            for (int i = 0; i < Math.min(allInputs.size(), 10); i++) { // Limit to first 10
-                var input = allInputs.get(i);
-                String type = input.getAttribute("type");
-                if ("button".equals(type) || "submit".equals(type)) {
-                    logger.debug("  Input {}: id='{}', type='{}', value='{}'", i, input.getAttribute("id"), type, input.getAttribute("value"));
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error during button debugging: {}", e.getMessage(), e);
-        }
-    }
-    
     public boolean isSuccessMessageDisplayed() {
         return isElementDisplayed(SUCCESS_MESSAGE);
     }
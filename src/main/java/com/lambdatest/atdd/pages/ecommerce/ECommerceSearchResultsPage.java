@@ -1,41 +1,205 @@
 package com.lambdatest.atdd.pages.ecommerce;
 
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.RunMetrics;
 import com.lambdatest.atdd.pages.BasePage;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Page Object for E-Commerce search results page
  */
 public class ECommerceSearchResultsPage extends BasePage {
-    
+
+    public static final String PAGES_READ = "search_results.pages";
+
     private static final By SEARCH_RESULTS = By.className("product-thumb");
-    private static final By PRODUCT_NAMES = By.xpath("//h4[contains(@class, 'title')] | //div[contains(@class, 'name')]");
-    private static final By NO_RESULTS_MESSAGE = By.xpath("//*[contains(text(), 'no results') or contains(text(), 'No results')]");
-    
+    private static final By NO_RESULTS_MESSAGE = By.xpath("//*[contains(text(), 'no results') or contains(text(), 'No results')"
+        + " or contains(text(), 'no product')]");
+    private static final Pattern PRICE = Pattern.compile("\\d+(?:,\\d{3})*(?:\\.\\d+)?");
+    private static final Pattern OUT_OF_STOCK = Pattern.compile("(?i)out of stock|sold out|pre-order");
+    private static final Pattern IN_STOCK = Pattern.compile("(?i)in stock|\\d+\\s*-\\s*\\d+ days");
+
+    /**
+     * Reads every product of one results page in a single call: the rendered page when called without
+     * a URL, otherwise the page at the URL, fetched and parsed in the browser without leaving the current page
+     */
+    private static final String READ_RESULTS_SCRIPT =
+        "var url = arguments[0], done = arguments[arguments.length - 1];" +
+        "var read = function(doc, base) {" +
+        "  var text = function(node) { return node ? node.textContent.replace(/\\s+/g, ' ').trim() : ''; };" +
+        "  var products = [].slice.call(doc.querySelectorAll('.product-thumb')).map(function(thumb) {" +
+        "    var title = thumb.querySelector('h4.title a, .caption h4 a, .name a, a.product-title, h4 a');" +
+        "    var link = title || thumb.querySelector('a[href*=\"product_id=\"]');" +
+        "    var price = thumb.querySelector('.price-new') || thumb.querySelector('.price');" +
+        "    var cart = thumb.querySelector('button[class*=\"cart\"]');" +
+        "    return {name: text(title || thumb.querySelector('h4, .name')), price: text(price)," +
+        "            url: link && link.getAttribute('href') ? new URL(link.getAttribute('href'), base).href : null," +
+        "            stock: text(thumb.querySelector('[class*=\"stock\"], .badge'))," +
+        "            cart: cart ? !(cart.disabled || /disabled/.test(cart.className)) : null};" +
+        "  });" +
+        "  var next = doc.querySelector('ul.pagination li.active + li a, ul.pagination a[rel=\"next\"]');" +
+        "  return {self: base, products: products, next: next && next.getAttribute('href') ? new URL(next.getAttribute('href'), base).href : null};" +
+        "};" +
+        "if (!url) { done(read(document, location.href)); return; }" +
+        "fetch(url, {credentials: 'same-origin'})" +
+        "  .then(function(response) { if (!response.ok) { throw new Error('HTTP ' + response.status); } return response.text(); })" +
+        "  .then(function(html) { done(read(new DOMParser().parseFromString(html, 'text/html'), url)); })" +
+        "  .catch(function(e) { done({error: String(e)}); });";
+
+    /**
+     * Stock state shown in the results list
+     */
+    public enum Stock {
+        IN_STOCK, OUT_OF_STOCK, UNKNOWN
+    }
+
+    /**
+     * One product of the search results
+     *
+     * @param name Product name
+     * @param price Price as displayed, e.g. "$122.00" (the special price if there is one), empty if none is shown
+     * @param url Absolute URL of the product page, or null
+     * @param stock Stock state from the stock label or the add-to-cart button
+     */
+    public record ProductSummary(String name, String price, String url, Stock stock) {
+
+        /**
+         * @return The displayed price as a number, without currency symbol and thousands separators
+         */
+        public Optional<BigDecimal> priceValue() {
+            Matcher matcher = PRICE.matcher(price);
+            return matcher.find() ? Optional.of(new BigDecimal(matcher.group().replace(",", ""))) : Optional.empty();
+        }
+    }
+
     public ECommerceSearchResultsPage(WebDriver driver) {
         super(driver);
     }
-    
+
     public List<WebElement> getSearchResults() {
         return findElements(SEARCH_RESULTS);
     }
-    
+
+    /**
+     * Streams the products of all result pages, following the shop's pagination (which keeps the search,
+     * limit and sort parameters). Each page is read with one script call when the stream needs it, so
+     * short-circuiting operations such as anyMatch or findFirst stop reading at the page with the answer.
+     * The rendered page is read once it shows products or the no-results message, so results that are
+     * rendered late are not missed. The browser stays on the current page.
+     *
+     * @return Lazy, ordered stream of the products
+     */
+    public Stream<ProductSummary> products() {
+        return StreamSupport.stream(new ResultPages(), false);
+    }
+
     public boolean hasResults() {
-        return !getSearchResults().isEmpty();
+        return products().findAny().isPresent();
     }
-    
+
     public boolean containsProduct(String productName) {
-        List<WebElement> productNames = findElements(PRODUCT_NAMES);
-        return productNames.stream()
-                .anyMatch(element -> element.getText().toLowerCase().contains(productName.toLowerCase()));
+        String name = productName.toLowerCase();
+        return products().anyMatch(product -> product.name().toLowerCase().contains(name));
     }
-    
+
     @Override
     public boolean isPageLoaded() {
         return getCurrentUrl().contains("search") || hasResults() || isElementDisplayed(NO_RESULTS_MESSAGE);
     }
+
+    /**
+     * Waits until the rendered page shows products or the no-results message; reads what is there on timeout
+     */
+    private void waitForResultsRendered() {
+        try {
+            wait.until(webDriver -> !webDriver.findElements(SEARCH_RESULTS).isEmpty()
+                || !webDriver.findElements(NO_RESULTS_MESSAGE).isEmpty());
+        } catch (TimeoutException e) {
+            // Neither showed up; the read below finds no products
+        }
+    }
+
+    private static Stock stockOf(String label, Object cartEnabled) {
+        if (OUT_OF_STOCK.matcher(label).find() || Boolean.FALSE.equals(cartEnabled)) {
+            return Stock.OUT_OF_STOCK;
+        }
+        if (IN_STOCK.matcher(label).find() || Boolean.TRUE.equals(cartEnabled)) {
+            return Stock.IN_STOCK;
+        }
+        return Stock.UNKNOWN;
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Reads one results page per refill, starting with the rendered one
+     */
+    private final class ResultPages extends Spliterators.AbstractSpliterator<ProductSummary> {
+        private final Deque<ProductSummary> buffer = new ArrayDeque<>();
+        private final Set<String> visited = new HashSet<>();
+        private String nextPage;
+        private int pagesRead;
+
+        ResultPages() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ProductSummary> action) {
+            while (buffer.isEmpty()) {
+                if (!readNextPage()) {
+                    return false;
+                }
+            }
+            action.accept(buffer.poll());
+            return true;
+        }
+
+        private boolean readNextPage() {
+            boolean first = pagesRead == 0;
+            if (!first && (nextPage == null || !visited.add(nextPage) || pagesRead >= TestConfiguration.Search.MAX_PAGES)) {
+                return false;
+            }
+            if (first) {
+                waitForResultsRendered();
+            }
+            Map<?, ?> page = (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(READ_RESULTS_SCRIPT, first ? null : nextPage);
+            if (page.get("error") != null) {
+                throw new WebDriverException("Could not read search results page " + nextPage + ": " + page.get("error"));
+            }
+            pagesRead++;
+            RunMetrics.counter(PAGES_READ).increment();
+            visited.add((String) page.get("self"));
+            nextPage = (String) page.get("next");
+            for (Object entry : (List<?>) page.get("products")) {
+                Map<?, ?> product = (Map<?, ?>) entry;
+                buffer.add(new ProductSummary(string(product.get("name")), string(product.get("price")),
+                    (String) product.get("url"), stockOf(string(product.get("stock")), product.get("cart"))));
+            }
+            return true;
+        }
+    }
 }
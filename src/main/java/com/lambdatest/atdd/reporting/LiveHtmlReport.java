@@ -0,0 +1,144 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+
+/**
+ * Cucumber plugin that renders an HTML report incrementally while the run is still going
+ *
+ * Finished scenarios are appended as table rows to {@code scenarios.html}, which is never rewritten.
+ * {@code index.html} only holds the counters and embeds the rows page; it is small and is replaced
+ * atomically after every scenario, auto-refreshing until the run has finished. Only counters are
+ * kept in memory, so the cost per scenario is constant.
+ *
+ * Usage: {@code com.lambdatest.atdd.reporting.LiveHtmlReport:target/cucumber-reports/live}
+ */
+public class LiveHtmlReport implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(LiveHtmlReport.class);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Path reportDir;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private BufferedWriter rows;
+    private Instant runStarted = Instant.now();
+
+    public LiveHtmlReport(File reportDir) {
+        this.reportDir = reportDir.toPath();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::handleTestRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> running.incrementAndGet());
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::handleTestRunFinished);
+    }
+
+    private synchronized void handleTestRunStarted(TestRunStarted event) {
+        runStarted = event.getInstant();
+        try {
+            Files.createDirectories(reportDir);
+            rows = Files.newBufferedWriter(reportDir.resolve("scenarios.html"), StandardCharsets.UTF_8);
+            rows.write("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><style>" + STYLE + "</style></head><body>\n");
+            rows.write("<table><tr><th>Finished</th><th>Status</th><th>Feature</th><th>Scenario</th><th>Duration</th><th>Error</th></tr>\n");
+            rows.flush();
+            writeIndex(false);
+        } catch (IOException e) {
+            logger.error("Could not create live HTML report in {}: {}", reportDir, e.getMessage(), e);
+        }
+    }
+
+    private synchronized void handleTestCaseFinished(TestCaseFinished event) {
+        running.decrementAndGet();
+        Result result = event.getResult();
+        if (result.getStatus() == Status.PASSED) {
+            passed.incrementAndGet();
+        } else if (result.getStatus() == Status.FAILED) {
+            failed.incrementAndGet();
+        } else {
+            skipped.incrementAndGet();
+        }
+        if (rows == null) {
+            return;
+        }
+        try {
+            String feature = event.getTestCase().getUri().toString().replaceAll(".*/([^/]+)\\.feature", "$1");
+            String error = result.getError() == null ? "" : String.valueOf(result.getError().getMessage()).lines().findFirst().orElse("");
+            rows.write("<tr class=\"" + result.getStatus().name().toLowerCase() + "\"><td>"
+                    + LocalTime.ofInstant(event.getInstant(), ZoneId.systemDefault()).format(TIME_FORMAT) + "</td><td>"
+                    + result.getStatus() + "</td><td>" + escape(feature) + "</td><td>" + escape(event.getTestCase().getName())
+                    + "</td><td>" + formatDuration(result.getDuration()) + "</td><td>" + escape(error) + "</td></tr>\n");
+            rows.flush();
+            writeIndex(false);
+        } catch (IOException e) {
+            logger.warn("Could not update live HTML report: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void handleTestRunFinished(TestRunFinished event) {
+        try {
+            if (rows != null) {
+                rows.write("</table></body></html>\n");
+                rows.close();
+                rows = null;
+            }
+            writeIndex(true);
+        } catch (IOException e) {
+            logger.warn("Could not finish live HTML report: {}", e.getMessage());
+        }
+    }
+
+    private void writeIndex(boolean finished) throws IOException {
+        String refresh = finished ? "" : "<meta http-equiv=\"refresh\" content=\"5\">";
+        String html = "<!DOCTYPE html><html><head><meta charset=\"UTF-8\">" + refresh
+                + "<title>ATDD Live Report</title><style>" + STYLE + "</style></head><body>"
+                + "<h1>ATDD Live Report" + (finished ? "" : " (running)") + "</h1>"
+                + "<p>Elapsed " + formatDuration(Duration.between(runStarted, Instant.now()))
+                + " | <span class=\"passed\">" + passed.get() + " passed</span>"
+                + " | <span class=\"failed\">" + failed.get() + " failed</span>"
+                + " | " + skipped.get() + " skipped | " + Math.max(running.get(), 0) + " running</p>"
+                + "<iframe src=\"scenarios.html\" style=\"width:100%;height:85vh;border:0\"></iframe></body></html>\n";
+
+        Path tmp = reportDir.resolve("index.html.tmp");
+        Files.writeString(tmp, html, StandardCharsets.UTF_8);
+        Files.move(tmp, reportDir.resolve("index.html"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String formatDuration(Duration duration) {
+        return String.format("%d.%03ds", duration.getSeconds(), duration.toMillisPart());
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static final String STYLE = "body{font-family:sans-serif}table{border-collapse:collapse;width:100%}"
+            + "td,th{border:1px solid #ddd;padding:4px;text-align:left}.passed{color:#2e7d32}.failed{color:#c62828}"
+            + "tr.failed{background:#fdecea}";
+}
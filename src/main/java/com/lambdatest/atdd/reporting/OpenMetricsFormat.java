@@ -0,0 +1,84 @@
+package com.lambdatest.atdd.reporting;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.lambdatest.atdd.core.LatencyHistogram;
+import com.lambdatest.atdd.core.RunMetrics;
+
+/**
+ * Renders {@link RunMetrics} in the OpenMetrics text format (also read by Prometheus)
+ * Metric names get an "atdd_" prefix and dots become underscores; a label in braces in a metric
+ * name, e.g. "webdriver.command_ms{command=get}", becomes an OpenMetrics label.
+ */
+public final class OpenMetricsFormat {
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private OpenMetricsFormat() {
+    }
+
+    /**
+     * Renders every counter, gauge and histogram
+     *
+     * @return The exposition, terminated by "# EOF"
+     */
+    public static String render() {
+        StringBuilder out = new StringBuilder();
+        byFamily(RunMetrics.counters()).forEach((family, series) -> {
+            out.append("# TYPE ").append(family).append(" counter\n");
+            series.forEach((name, value) -> out.append(family).append("_total").append(labels(name, null))
+                .append(' ').append(value).append('\n'));
+        });
+        byFamily(RunMetrics.gauges()).forEach((family, series) -> {
+            out.append("# TYPE ").append(family).append(" gauge\n");
+            series.forEach((name, value) -> out.append(family).append(labels(name, null))
+                .append(' ').append(value).append('\n'));
+        });
+        byFamily(RunMetrics.histograms()).forEach((family, series) -> {
+            out.append("# TYPE ").append(family).append(" histogram\n");
+            series.forEach((name, snapshot) -> {
+                long[] cumulative = snapshot.cumulativeCounts();
+                for (int i = 0; i < cumulative.length; i++) {
+                    String bound = i < LatencyHistogram.BOUNDS_MILLIS.length ? LatencyHistogram.BOUNDS_MILLIS[i] + ".0" : "+Inf";
+                    out.append(family).append("_bucket").append(labels(name, "le=\"" + bound + "\""))
+                        .append(' ').append(cumulative[i]).append('\n');
+                }
+                out.append(family).append("_count").append(labels(name, null)).append(' ').append(snapshot.count()).append('\n');
+                out.append(family).append("_sum").append(labels(name, null)).append(' ').append(snapshot.sumMillis()).append('\n');
+            });
+        });
+        return out.append("# EOF\n").toString();
+    }
+
+    // Series of one family must be contiguous, whatever the sort order of the raw names
+    private static <V> Map<String, Map<String, V>> byFamily(Map<String, V> metrics) {
+        Map<String, Map<String, V>> families = new TreeMap<>();
+        metrics.forEach((name, value) -> families.computeIfAbsent(family(name), family -> new TreeMap<>()).put(name, value));
+        return families;
+    }
+
+    private static String family(String name) {
+        int brace = name.indexOf('{');
+        String base = brace < 0 ? name : name.substring(0, brace);
+        return "atdd_" + base.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static String labels(String name, String extra) {
+        int brace = name.indexOf('{');
+        StringBuilder labels = new StringBuilder();
+        if (brace >= 0 && name.endsWith("}")) {
+            for (String label : name.substring(brace + 1, name.length() - 1).split(",")) {
+                int equals = label.indexOf('=');
+                if (equals > 0) {
+                    String value = label.substring(equals + 1).replace("\\", "\\\\").replace("\"", "\\\"");
+                    labels.append(labels.isEmpty() ? "" : ",")
+                        .append(label.substring(0, equals).trim()).append("=\"").append(value).append('"');
+                }
+            }
+        }
+        if (extra != null) {
+            labels.append(labels.isEmpty() ? "" : ",").append(extra);
+        }
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+}
@@ -0,0 +1,94 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+
+import io.cucumber.core.plugin.HtmlFormatter;
+import io.cucumber.core.plugin.JUnitFormatter;
+import io.cucumber.core.plugin.PrettyFormatter;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+
+/**
+ * Cucumber plugin that registers the built-in pretty, html and junit formatters only when asked for
+ * with -Datdd.reports=pretty,html,junit
+ *
+ * These formatters buffer the run (html and junit keep it in memory until the end, pretty blocks on the
+ * console), so they are off by default and the streaming reports are used instead. The html report is
+ * written to {@code cucumber.html} and the junit report to {@code cucumber.xml} in the plugin directory.
+ *
+ * Usage: {@code com.lambdatest.atdd.reporting.OptionalReports:target/cucumber-reports}
+ */
+public class OptionalReports implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(OptionalReports.class);
+
+    private final Path reportDir;
+
+    public OptionalReports(File reportDir) {
+        this.reportDir = reportDir.toPath();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        Arrays.stream(TestConfiguration.Reports.OPTIONAL.split(","))
+            .map(name -> name.trim().toLowerCase(Locale.ROOT))
+            .filter(name -> !name.isEmpty())
+            .distinct()
+            .forEach(name -> {
+                try {
+                    create(name).setEventPublisher(publisher);
+                } catch (IOException e) {
+                    logger.error("Could not create {} report in {}: {}", name, reportDir, e.getMessage(), e);
+                }
+            });
+    }
+
+    private ConcurrentEventListener create(String name) throws IOException {
+        switch (name) {
+            case "pretty":
+                return new PrettyFormatter(new NonClosingOutputStream(System.out));
+            case "html":
+                return new HtmlFormatter(open("cucumber.html"));
+            case "junit":
+                return new JUnitFormatter(open(ReportMerger.JUNIT_REPORT));
+            default:
+                throw new IllegalArgumentException("Unknown report '" + name + "' in atdd.reports; use pretty, html or junit");
+        }
+    }
+
+    private OutputStream open(String fileName) throws IOException {
+        Files.createDirectories(reportDir);
+        return Files.newOutputStream(reportDir.resolve(fileName));
+    }
+
+    /**
+     * Keeps the pretty formatter from closing System.out at the end of the run
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
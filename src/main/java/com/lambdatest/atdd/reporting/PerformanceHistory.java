@@ -0,0 +1,250 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.RunMetrics;
+
+/**
+ * Cross-run history of scenario, step, page-object and shop timings (-Datdd.perf=true enables)
+ *
+ * Timings of the current run are collected in memory ({@link #record(String, long)}, at most
+ * {@link TestConfiguration.Performance#MAX_SAMPLES_PER_KEY} samples per key, reservoir-sampled).
+ * {@link #finishRun()} compares them with the previous runs of the same backend, appends them to the
+ * history file and writes a short regression summary. The file has one line per run and key
+ * ("run, backend, key, comma-separated milliseconds") and keeps the last
+ * {@link TestConfiguration.Performance#HISTORY_RUNS} runs per backend. Its location is set with
+ * -Datdd.perf.history and lies outside target/ by default, so it survives "mvn clean" and can be
+ * cached between CI builds.
+ */
+public final class PerformanceHistory {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceHistory.class);
+    private static final Map<String, Reservoir> current = new ConcurrentHashMap<>();
+
+    public static final String REGRESSIONS = "perf.regressions";
+
+    private PerformanceHistory() {
+    }
+
+    /**
+     * @return true if timings are collected and compared
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Performance.ENABLED;
+    }
+
+    /**
+     * Adds a sample to the current run
+     *
+     * @param key Timing key, e.g. "step:I search for {string}"
+     * @param millis Duration in milliseconds
+     */
+    public static void record(String key, long millis) {
+        if (isEnabled() && millis >= 0) {
+            current.computeIfAbsent(key, k -> new Reservoir(TestConfiguration.Performance.MAX_SAMPLES_PER_KEY)).add(millis);
+        }
+    }
+
+    /**
+     * Compares the current run with the history, stores it and writes the summary; called once at the end of a run
+     *
+     * @return The comparison, empty if nothing was recorded
+     */
+    public static Optional<RegressionDetector.Result> finishRun() {
+        if (!isEnabled() || current.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, List<Long>> samples = new TreeMap<>();
+        current.forEach((key, reservoir) -> samples.put(key, reservoir.samples()));
+        current.clear();
+
+        Path file = Path.of(TestConfiguration.Performance.HISTORY_FILE);
+        String backend = backend();
+        List<Map<String, List<Long>>> baseline = load(file, backend);
+        RegressionDetector detector = new RegressionDetector(TestConfiguration.Performance.ALPHA,
+            TestConfiguration.Performance.MIN_INCREASE_PERCENT, TestConfiguration.Performance.MIN_DELTA_MILLIS,
+            TestConfiguration.Performance.MIN_BASELINE_RUNS);
+        RegressionDetector.Result result = detector.detect(samples, baseline);
+        RunMetrics.counter(REGRESSIONS).add(result.regressions().size());
+
+        append(file, backend, samples);
+        String summary = summarize(result, samples.size());
+        writeSummary(Path.of(TestConfiguration.Performance.SUMMARY_FILE), summary);
+        if (result.regressions().isEmpty()) {
+            logger.info(summary.lines().skip(2).findFirst().orElse(summary));
+        } else {
+            logger.warn("Performance regressions:\n{}", summary);
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Formats the comparison as a short Markdown section
+     *
+     * @param result The comparison
+     * @param keys Timing keys recorded in this run
+     * @return Markdown
+     */
+    static String summarize(RegressionDetector.Result result, int keys) {
+        StringBuilder summary = new StringBuilder("## Performance regressions\n\n");
+        if (result.baselineRuns() < TestConfiguration.Performance.MIN_BASELINE_RUNS) {
+            return summary.append(String.format("Collecting a baseline: %d of %d earlier runs recorded, %d timings in this run.%n",
+                result.baselineRuns(), TestConfiguration.Performance.MIN_BASELINE_RUNS, keys)).toString();
+        }
+        if (result.regressions().isEmpty()) {
+            return summary.append(String.format("No significant regressions in %d timings compared with up to %d earlier runs.%n",
+                result.keysCompared(), result.baselineRuns())).toString();
+        }
+        summary.append(String.format("%d of %d timings are significantly slower than in up to %d earlier runs "
+                + "(FDR %s, at least +%.0f %% and +%d ms):%n%n",
+            result.regressions().size(), result.keysCompared(), result.baselineRuns(), TestConfiguration.Performance.ALPHA,
+            TestConfiguration.Performance.MIN_INCREASE_PERCENT, TestConfiguration.Performance.MIN_DELTA_MILLIS));
+        summary.append("| Timing | Baseline median | This run | Change | p | Test |\n|---|---:|---:|---:|---:|---|\n");
+        for (RegressionDetector.Regression regression : result.regressions()) {
+            summary.append(String.format("| `%s` | %d ms | %d ms | +%.0f %% | %.2g | %s, n=%d |%n", regression.key(),
+                regression.baselineMedian(), regression.currentMedian(), regression.increasePercent(), regression.pValue(),
+                regression.test(), regression.samples()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Runs are only compared with runs on the same kind of browser backend
+     */
+    private static String backend() {
+        String backend = TestConfiguration.Backend.NAME.toLowerCase();
+        return TestConfiguration.Contexts.PER_SESSION > 1 ? backend + "+contexts" : backend;
+    }
+
+    /**
+     * @return Samples by key of each earlier run of the backend, oldest first
+     */
+    private static List<Map<String, List<Long>>> load(Path file, String backend) {
+        Map<String, Map<String, List<Long>>> runs = new LinkedHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 4);
+                if (fields.length < 4 || !fields[1].equals(backend)) {
+                    continue;
+                }
+                try {
+                    List<Long> values = Arrays.stream(fields[3].split(",")).map(Long::parseLong).toList();
+                    runs.computeIfAbsent(fields[0], run -> new LinkedHashMap<>()).put(fields[2], values);
+                } catch (NumberFormatException e) {
+                    logger.debug("Skipping malformed performance history line: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read performance history {}: {}", file, e.getMessage());
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    /**
+     * Appends the run and drops the oldest runs of each backend beyond the retention
+     */
+    private static synchronized void append(Path file, String backend, Map<String, List<Long>> samples) {
+        String run = String.valueOf(System.currentTimeMillis());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+                    writer.write(run + "\t" + backend + "\t" + entry.getKey().replace('\t', ' ') + "\t"
+                        + entry.getValue().stream().map(String::valueOf).collect(Collectors.joining(",")));
+                    writer.newLine();
+                }
+            }
+            prune(file);
+        } catch (IOException e) {
+            logger.warn("Could not append to performance history {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void prune(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Map<String, List<String>> runsByBackend = new LinkedHashMap<>();
+        for (String line : lines) {
+            String[] fields = line.split("\t", 3);
+            if (fields.length == 3) {
+                List<String> runs = runsByBackend.computeIfAbsent(fields[1], backend -> new ArrayList<>());
+                if (!runs.contains(fields[0])) {
+                    runs.add(fields[0]);
+                }
+            }
+        }
+        Set<String> kept = new HashSet<>();
+        runsByBackend.values().forEach(runs ->
+            kept.addAll(runs.subList(Math.max(0, runs.size() - TestConfiguration.Performance.HISTORY_RUNS), runs.size())));
+        List<String> retained = lines.stream().filter(line -> kept.contains(line.split("\t", 2)[0])).toList();
+        if (retained.size() < lines.size()) {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, retained, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private static void writeSummary(Path file, String summary) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, summary, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not write performance summary {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Uniform sample of at most {@code capacity} values (Algorithm R)
+     */
+    private static final class Reservoir {
+        private final long[] values;
+        private long seen;
+
+        Reservoir(int capacity) {
+            this.values = new long[capacity];
+        }
+
+        synchronized void add(long value) {
+            if (seen < values.length) {
+                values[(int) seen] = value;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                if (slot < values.length) {
+                    values[(int) slot] = value;
+                }
+            }
+            seen++;
+        }
+
+        synchronized List<Long> samples() {
+            return Arrays.stream(values, 0, (int) Math.min(seen, values.length)).boxed().toList();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.lambdatest.atdd.reporting;
+
+import java.net.URI;
+
+import com.lambdatest.atdd.core.PageMethodTimer;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * Cucumber plugin that feeds scenario, step and page-object method timings into the {@link PerformanceHistory}
+ * Only passed scenarios and steps are recorded, so failures and timeouts do not skew the baseline.
+ * The comparison itself runs in an @AfterAll hook, where a regression can still fail the run.
+ * Usage: {@code com.lambdatest.atdd.reporting.PerformanceHistoryRecorder}
+ */
+public class PerformanceHistoryRecorder implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!PerformanceHistory.isEnabled()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestStepStarted.class, event -> PageMethodTimer.drain());
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+    }
+
+    /**
+     * Step events arrive on the thread that ran the step, so the page-object spans drained here are the step's own
+     */
+    private void handleTestStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep step) || event.getResult().getStatus() != Status.PASSED) {
+            return;
+        }
+        PerformanceHistory.record("step:" + step.getPattern(), event.getResult().getDuration().toMillis());
+        PageMethodTimer.drain().forEach((method, millis) -> PerformanceHistory.record("page:" + method, millis));
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        if (event.getResult().getStatus() == Status.PASSED) {
+            PerformanceHistory.record("scenario:" + featureFile(event.getTestCase().getUri()) + "/" + event.getTestCase().getName(),
+                event.getResult().getDuration().toMillis());
+        }
+    }
+
+    private static String featureFile(URI uri) {
+        String path = uri.getSchemeSpecificPart();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
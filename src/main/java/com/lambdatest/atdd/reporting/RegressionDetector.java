@@ -0,0 +1,208 @@
+package com.lambdatest.atdd.reporting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds timings of this run that are significantly slower than the same timings in earlier runs
+ *
+ * Each timing key (a scenario, step, page-object method or shop page) is tested against the pooled
+ * samples of the baseline runs: with the one-sided Mann-Whitney U test when this run has at least three
+ * samples, otherwise with a robust z-score (median and MAD of the baseline). The p-values of all keys
+ * are corrected with Benjamini-Hochberg, so testing hundreds of keys does not flag noise, and a
+ * significant key is only reported if its median also grew by the minimum relative and absolute amount.
+ */
+public class RegressionDetector {
+    private static final int MIN_SAMPLES_FOR_RANK_TEST = 3;
+    private static final int MIN_BASELINE_SAMPLES = 5;
+
+    private final double alpha;
+    private final double minIncreasePercent;
+    private final long minDeltaMillis;
+    private final int minBaselineRuns;
+
+    /**
+     * A timing that got slower
+     *
+     * @param key Timing key, e.g. "page:ECommerceHomePage.searchForProduct"
+     * @param baselineRuns Earlier runs the key was compared with
+     * @param baselineMedian Median of the baseline samples in milliseconds
+     * @param currentMedian Median of this run's samples in milliseconds
+     * @param samples Samples of this run
+     * @param pValue Benjamini-Hochberg adjusted p-value
+     * @param test Test that was used
+     */
+    public record Regression(String key, int baselineRuns, long baselineMedian, long currentMedian, int samples,
+                             double pValue, String test) {
+
+        public double increasePercent() {
+            return baselineMedian > 0 ? 100.0 * (currentMedian - baselineMedian) / baselineMedian : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Outcome of a comparison
+     *
+     * @param regressions Significant regressions, largest increase first
+     * @param keysCompared Keys with enough baseline to be tested
+     * @param baselineRuns Earlier runs available
+     */
+    public record Result(List<Regression> regressions, int keysCompared, int baselineRuns) {
+    }
+
+    /**
+     * @param alpha False discovery rate across all keys, e.g. 0.01
+     * @param minIncreasePercent Minimum growth of the median to report, e.g. 20
+     * @param minDeltaMillis Minimum growth of the median in milliseconds to report
+     * @param minBaselineRuns Earlier runs a key needs before it is tested
+     */
+    public RegressionDetector(double alpha, double minIncreasePercent, long minDeltaMillis, int minBaselineRuns) {
+        this.alpha = alpha;
+        this.minIncreasePercent = minIncreasePercent;
+        this.minDeltaMillis = minDeltaMillis;
+        this.minBaselineRuns = minBaselineRuns;
+    }
+
+    /**
+     * Compares this run with the baseline
+     *
+     * @param current Samples of this run by key
+     * @param baseline Samples of each earlier run by key, oldest first
+     * @return The regressions
+     */
+    public Result detect(Map<String, List<Long>> current, List<Map<String, List<Long>>> baseline) {
+        List<Regression> tested = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> entry : current.entrySet()) {
+            List<Long> samples = entry.getValue();
+            List<Long> pooled = new ArrayList<>();
+            int runs = 0;
+            for (Map<String, List<Long>> run : baseline) {
+                List<Long> previous = run.get(entry.getKey());
+                if (previous != null && !previous.isEmpty()) {
+                    pooled.addAll(previous);
+                    runs++;
+                }
+            }
+            if (samples.isEmpty() || runs < minBaselineRuns || pooled.size() < MIN_BASELINE_SAMPLES) {
+                continue;
+            }
+            boolean rankTest = samples.size() >= MIN_SAMPLES_FOR_RANK_TEST;
+            double p = rankTest ? mannWhitneyGreater(pooled, samples) : robustZGreater(pooled, median(samples));
+            tested.add(new Regression(entry.getKey(), runs, median(pooled), median(samples), samples.size(), p,
+                rankTest ? "Mann-Whitney U" : "robust z"));
+        }
+
+        List<Regression> adjusted = benjaminiHochberg(tested);
+        List<Regression> regressions = new ArrayList<>();
+        for (Regression candidate : adjusted) {
+            long delta = candidate.currentMedian() - candidate.baselineMedian();
+            if (candidate.pValue() <= alpha && delta >= minDeltaMillis && candidate.increasePercent() >= minIncreasePercent) {
+                regressions.add(candidate);
+            }
+        }
+        regressions.sort(Comparator.comparingDouble(Regression::increasePercent).reversed());
+        return new Result(regressions, tested.size(), baseline.size());
+    }
+
+    /**
+     * One-sided Mann-Whitney U test with tie correction and the normal approximation
+     *
+     * @return p-value for "current is stochastically greater than baseline"
+     */
+    static double mannWhitneyGreater(List<Long> baseline, List<Long> current) {
+        int n1 = current.size();
+        int n2 = baseline.size();
+        int n = n1 + n2;
+        long[][] values = new long[n][];
+        for (int i = 0; i < n1; i++) {
+            values[i] = new long[] {current.get(i), 1};
+        }
+        for (int i = 0; i < n2; i++) {
+            values[n1 + i] = new long[] {baseline.get(i), 0};
+        }
+        Arrays.sort(values, Comparator.comparingLong(value -> value[0]));
+
+        double rankSumCurrent = 0;
+        double tieTerm = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && values[j + 1][0] == values[i][0]) {
+                j++;
+            }
+            double rank = (i + j + 2) / 2.0;
+            int ties = j - i + 1;
+            tieTerm += (double) ties * ties * ties - ties;
+            for (int k = i; k <= j; k++) {
+                rankSumCurrent += values[k][1] * rank;
+            }
+            i = j + 1;
+        }
+        double u = rankSumCurrent - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / (n * (n - 1.0)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        // Continuity correction towards the mean
+        return upperTail((u - mean - 0.5) / Math.sqrt(variance));
+    }
+
+    /**
+     * One-sided test of a single value against the baseline's median and median absolute deviation
+     * The scale has a floor of 5 % of the median, so a key that never varied does not flag a few milliseconds.
+     *
+     * @return p-value for "value is above the baseline"
+     */
+    static double robustZGreater(List<Long> baseline, long value) {
+        long median = median(baseline);
+        List<Long> deviations = baseline.stream().map(sample -> Math.abs(sample - median)).toList();
+        double scale = Math.max(1.4826 * median(deviations), Math.max(1.0, 0.05 * median));
+        return upperTail((value - median) / scale);
+    }
+
+    /**
+     * Adjusts p-values for testing many keys at once (false discovery rate)
+     */
+    static List<Regression> benjaminiHochberg(List<Regression> tested) {
+        List<Regression> sorted = new ArrayList<>(tested);
+        sorted.sort(Comparator.comparingDouble(Regression::pValue));
+        int m = sorted.size();
+        List<Regression> adjusted = new ArrayList<>(m);
+        double running = 1.0;
+        for (int rank = m; rank >= 1; rank--) {
+            Regression regression = sorted.get(rank - 1);
+            running = Math.min(running, regression.pValue() * m / rank);
+            adjusted.add(0, new Regression(regression.key(), regression.baselineRuns(), regression.baselineMedian(),
+                regression.currentMedian(), regression.samples(), running, regression.test()));
+        }
+        return adjusted;
+    }
+
+    static long median(List<Long> samples) {
+        List<Long> sorted = samples.stream().sorted().toList();
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    /**
+     * @return P(Z > z) for a standard normal Z
+     */
+    static double upperTail(double z) {
+        return 0.5 * erfc(z / Math.sqrt(2));
+    }
+
+    /**
+     * Complementary error function (Numerical Recipes' Chebyshev fit, relative error below 1.2e-7)
+     */
+    private static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1 / (1 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+            + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+            + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? r : 2 - r;
+    }
+}
@@ -0,0 +1,251 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.execution.ShardPlanner;
+
+/**
+ * Merges per-shard Cucumber reports (cucumber.json and cucumber.xml) into a single report
+ * Both formats are merged with streaming parsers, so memory use is bounded by the largest
+ * single feature rather than by the size of the suite. The shards' scenario durations are merged
+ * too, and the result replaces the durations file the shard planner reads on the next run.
+ *
+ * Usage: {@code ReportMerger <output-dir> <shard-report-dir>...}
+ */
+public class ReportMerger {
+    private static final Logger logger = LoggerFactory.getLogger(ReportMerger.class);
+
+    public static final String JSON_REPORT = "cucumber.json";
+    public static final String JUNIT_REPORT = "cucumber.xml";
+    public static final String DURATIONS = "scenario-durations.tsv";
+
+    private static final String[] SUITE_COUNTERS = {"tests", "skipped", "failures", "errors"};
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportMerger <output-dir> <shard-report-dir>...");
+            System.exit(2);
+        }
+        List<Path> shardDirs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shardDirs.add(Paths.get(args[i]));
+        }
+        Path outputDir = Paths.get(args[0]);
+        new ReportMerger().merge(shardDirs, outputDir);
+        Path merged = outputDir.resolve(DURATIONS);
+        if (Files.isRegularFile(merged)) {
+            ScenarioDurationRecorder.updateDurations(Paths.get(TestConfiguration.Sharding.DURATIONS_FILE), ShardPlanner.readDurations(merged));
+            logger.info("Updated scenario durations in {}", TestConfiguration.Sharding.DURATIONS_FILE);
+        }
+    }
+
+    /**
+     * Merges the reports found in each shard directory into the output directory
+     *
+     * @param shardDirs Directories containing per-shard cucumber.json and/or cucumber.xml
+     * @param outputDir Directory to write the merged reports to
+     * @throws IOException if a report cannot be read or written
+     */
+    public void merge(List<Path> shardDirs, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        List<Path> jsonReports = existing(shardDirs, JSON_REPORT);
+        List<Path> junitReports = existing(shardDirs, JUNIT_REPORT);
+        List<Path> durations = existing(shardDirs, DURATIONS);
+
+        if (!jsonReports.isEmpty()) {
+            mergeJson(jsonReports, outputDir.resolve(JSON_REPORT));
+        }
+        if (!junitReports.isEmpty()) {
+            try {
+                mergeJUnit(junitReports, outputDir.resolve(JUNIT_REPORT));
+            } catch (XMLStreamException e) {
+                throw new IOException("Failed to merge JUnit reports: " + e.getMessage(), e);
+            }
+        }
+        if (!durations.isEmpty()) {
+            mergeDurations(durations, outputDir.resolve(DURATIONS));
+        }
+        logger.info("Merged {} JSON and {} JUnit shard reports and {} durations files into {}",
+            jsonReports.size(), junitReports.size(), durations.size(), outputDir);
+    }
+
+    /**
+     * Concatenates the feature arrays of several cucumber.json files, copying one feature at a time
+     *
+     * @param inputs Shard cucumber.json files
+     * @param output Merged cucumber.json file
+     * @throws IOException if a report cannot be read or written
+     */
+    public void mergeJson(List<Path> inputs, Path output) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (Path input : inputs) {
+                try (JsonParser parser = jsonFactory.createParser(input.toFile())) {
+                    JsonToken token = parser.nextToken();
+                    if (token == null) {
+                        continue; // empty report from a shard without scenarios
+                    }
+                    if (token != JsonToken.START_ARRAY) {
+                        throw new IOException("Expected a JSON array of features in " + input);
+                    }
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        generator.copyCurrentStructure(parser);
+                    }
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Combines the durations recorded by each shard into one complete durations file
+     * A scenario recorded by several shards keeps its longest duration.
+     *
+     * @param inputs Shard scenario-durations.tsv files
+     * @param output Merged durations file, without a shard header
+     * @throws IOException if a file cannot be read or written
+     */
+    public void mergeDurations(List<Path> inputs, Path output) throws IOException {
+        Map<String, Long> merged = new HashMap<>();
+        for (Path input : inputs) {
+            List<String> lines = Files.readAllLines(input, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                int tab = line.lastIndexOf('\t');
+                if (line.startsWith("#") || tab <= 0) {
+                    continue;
+                }
+                try {
+                    merged.merge(line.substring(0, tab), Long.parseLong(line.substring(tab + 1).trim()), Math::max);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed duration line in " + input + ": " + line, e);
+                }
+            }
+        }
+        ShardPlanner.writeDurations(output, merged, null);
+    }
+
+    /**
+     * Merges JUnit XML reports into one testsuite
+     * The first pass only reads each root element to sum the counters, the second streams the testcases
+     *
+     * @param inputs Shard cucumber.xml files
+     * @param output Merged cucumber.xml file
+     * @throws IOException if a report cannot be read or written
+     * @throws XMLStreamException if a report is not well-formed
+     */
+    public void mergeJUnit(List<Path> inputs, Path output) throws IOException, XMLStreamException {
+        long[] counters = new long[SUITE_COUNTERS.length];
+        double time = 0;
+        for (Path input : inputs) {
+            try (InputStream in = Files.newInputStream(input)) {
+                XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+                try {
+                    reader.nextTag();
+                    for (int i = 0; i < SUITE_COUNTERS.length; i++) {
+                        counters[i] += parseLong(reader.getAttributeValue(null, SUITE_COUNTERS[i]));
+                    }
+                    time += parseDouble(reader.getAttributeValue(null, "time"));
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+
+        XMLEventFactory events = XMLEventFactory.newFactory();
+        try (OutputStream out = Files.newOutputStream(output)) {
+            XMLEventWriter writer = xmlOutputFactory.createXMLEventWriter(out, "UTF-8");
+            writer.add(events.createStartDocument("UTF-8", "1.0"));
+            writer.add(events.createCharacters("\n"));
+            writer.add(events.createStartElement("", null, "testsuite"));
+            writer.add(events.createAttribute("name", "Cucumber"));
+            writer.add(events.createAttribute("time", String.format(Locale.ROOT, "%.3f", time)));
+            for (int i = 0; i < SUITE_COUNTERS.length; i++) {
+                writer.add(events.createAttribute(SUITE_COUNTERS[i], Long.toString(counters[i])));
+            }
+            for (Path input : inputs) {
+                copySuiteChildren(input, writer);
+            }
+            writer.add(events.createEndElement("", null, "testsuite"));
+            writer.add(events.createEndDocument());
+            writer.close();
+        }
+    }
+
+    private void copySuiteChildren(Path input, XMLEventWriter writer) throws IOException, XMLStreamException {
+        try (InputStream in = Files.newInputStream(input)) {
+            XMLEventReader reader = xmlInputFactory.createXMLEventReader(in);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (event.isStartElement()) {
+                        depth++;
+                    }
+                    // Copy everything inside the root testsuite element, but not the element itself
+                    if (depth > 1 || (depth == 1 && event.isCharacters())) {
+                        writer.add(event);
+                    }
+                    if (event.isEndElement()) {
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static List<Path> existing(List<Path> dirs, String fileName) {
+        List<Path> files = new ArrayList<>();
+        for (Path dir : dirs) {
+            Path file = Files.isDirectory(dir) ? dir.resolve(fileName) : dir;
+            if (Files.isRegularFile(file) && file.getFileName().toString().equals(fileName)) {
+                files.add(file);
+            } else {
+                logger.warn("No {} found in {}", fileName, dir);
+            }
+        }
+        return files;
+    }
+
+    private static long parseLong(String value) {
+        return value == null || value.isBlank() ? 0 : Long.parseLong(value.trim());
+    }
+
+    private static double parseDouble(String value) {
+        return value == null || value.isBlank() ? 0 : Double.parseDouble(value.trim().replace(",", ""));
+    }
+}
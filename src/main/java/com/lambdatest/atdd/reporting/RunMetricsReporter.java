@@ -0,0 +1,66 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.File;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.core.LocatorProfiler;
+import com.lambdatest.atdd.core.RunMetrics;
+import com.lambdatest.atdd.core.ScenarioWatchdog;
+import com.lambdatest.atdd.core.SessionAdmission;
+import com.lambdatest.atdd.execution.CircuitBreaker;
+import com.lambdatest.atdd.pages.BasePage;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunFinished;
+
+/**
+ * Cucumber plugin that logs a summary of the run metrics and writes all counters as JSON when the run finishes
+ * When locator profiling is enabled, the ranked locator report is written next to it
+ * Usage: {@code com.lambdatest.atdd.reporting.RunMetricsReporter:target/atdd/run-metrics.json}
+ */
+public class RunMetricsReporter implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(RunMetricsReporter.class);
+
+    private final File outputFile;
+
+    public RunMetricsReporter(File outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunFinished.class, event -> report());
+    }
+
+    private void report() {
+        logger.info("Element cache: {} hits, {} misses, {} stale retries ({} % hit rate)",
+            RunMetrics.counter(BasePage.CACHE_HITS).sum(),
+            RunMetrics.counter(BasePage.CACHE_MISSES).sum(),
+            RunMetrics.counter(BasePage.CACHE_STALE).sum(),
+            String.format("%.1f", RunMetrics.hitRate(BasePage.CACHE_HITS, BasePage.CACHE_MISSES)));
+        long admitted = RunMetrics.counter(SessionAdmission.ADMITTED).sum();
+        if (admitted > 0) {
+            // A high average wait or peak queue depth means the run is bound by grid concurrency
+            logger.info("Grid sessions: {} admitted, {} ms average wait, {} ms max wait, peak queue depth {}, {} backoffs",
+                admitted,
+                RunMetrics.counter(SessionAdmission.WAIT_MILLIS).sum() / admitted,
+                RunMetrics.snapshot().get(SessionAdmission.WAIT_MILLIS_MAX),
+                RunMetrics.snapshot().get(SessionAdmission.QUEUE_DEPTH_PEAK),
+                RunMetrics.counter(SessionAdmission.BACKOFFS).sum());
+        }
+        long timeouts = RunMetrics.counter(ScenarioWatchdog.TIMEOUTS).sum();
+        if (timeouts > 0) {
+            logger.warn("Watchdog: {} scenarios exceeded their deadline, about {} s of session slot time reclaimed",
+                timeouts, RunMetrics.counter(ScenarioWatchdog.RECLAIMED_MILLIS).sum() / 1000);
+        }
+        CircuitBreaker.openReason().ifPresent(reason -> logger.warn("{}: {} queued scenarios skipped, {} running scenarios cancelled",
+            reason, RunMetrics.counter(CircuitBreaker.SKIPPED).sum(), RunMetrics.counter(ScenarioWatchdog.CANCELLED).sum()));
+        RunMetrics.writeTo(outputFile.toPath());
+        if (LocatorProfiler.isEnabled()) {
+            LocatorProfiler.writeReport(outputFile.toPath().resolveSibling("locator-profile.json"));
+        }
+    }
+}
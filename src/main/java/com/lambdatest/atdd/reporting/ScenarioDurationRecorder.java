@@ -0,0 +1,85 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.execution.ScenarioKey;
+import com.lambdatest.atdd.execution.ShardPlanner;
+import com.lambdatest.atdd.execution.ShardSpec;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+
+/**
+ * Cucumber plugin that records scenario durations for duration-balanced sharding
+ * The durations of this run go to the plugin's file, next to the other reports. A sharded run marks
+ * its file as one shard's subset; "run-atdd-tests.sh merge" combines the shards' files and updates the
+ * durations file the planner reads ({@code -Datdd.shard.durations}). An unsharded run updates that file
+ * itself, keeping the durations of scenarios it did not run.
+ * Usage: {@code com.lambdatest.atdd.reporting.ScenarioDurationRecorder:target/cucumber-reports/scenario-durations.tsv}
+ */
+public class ScenarioDurationRecorder implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioDurationRecorder.class);
+
+    private final File outputFile;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    public ScenarioDurationRecorder(File outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeDurations());
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        String key = ScenarioKey.of(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine());
+        durations.put(key, event.getResult().getDuration().toMillis());
+    }
+
+    private void writeDurations() {
+        String shard = TestConfiguration.Sharding.SHARD;
+        try {
+            ShardPlanner.writeDurations(outputFile.toPath(), durations, shard == null ? null : ShardSpec.parse(shard));
+            logger.info("Recorded {} scenario durations in {}", durations.size(), outputFile);
+        } catch (IOException e) {
+            logger.warn("Could not write scenario durations to {}: {}", outputFile, e.getMessage());
+        }
+        if (shard == null && !durations.isEmpty()) {
+            updateDurations(Path.of(TestConfiguration.Sharding.DURATIONS_FILE), durations);
+        }
+    }
+
+    /**
+     * Replaces the durations of the given scenarios in a durations file, keeping the other scenarios
+     *
+     * @param durationsFile The durations file the shard planner reads
+     * @param recorded Newly recorded durations by scenario key
+     */
+    public static void updateDurations(Path durationsFile, Map<String, Long> recorded) {
+        Map<String, Long> merged = new HashMap<>();
+        try {
+            merged.putAll(ShardPlanner.readDurations(durationsFile));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Starting a new durations file {}: {}", durationsFile, e.getMessage());
+        }
+        merged.putAll(recorded);
+        try {
+            ShardPlanner.writeDurations(durationsFile, merged, null);
+        } catch (IOException e) {
+            logger.warn("Could not update scenario durations in {}: {}", durationsFile, e.getMessage());
+        }
+    }
+}
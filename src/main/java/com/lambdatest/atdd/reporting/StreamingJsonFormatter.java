@@ -0,0 +1,335 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.Node;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestSourceParsed;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.WriteEvent;
+
+/**
+ * Streaming replacement for Cucumber's {@code json:} plugin
+ *
+ * The built-in formatter is a non-concurrent listener, so in a parallel run Cucumber buffers every
+ * event of the run and the formatter builds the whole report before writing it. This formatter
+ * listens concurrently and writes each scenario as its own feature object the moment it finishes,
+ * holding only the scenarios that are still in flight. maven-cucumber-reporting folds the
+ * per-scenario features back together through {@code mergeFeaturesById}.
+ *
+ * Usage: {@code com.lambdatest.atdd.reporting.StreamingJsonFormatter:target/cucumber-reports/cucumber.json}
+ */
+public class StreamingJsonFormatter implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingJsonFormatter.class);
+
+    private final File outputFile;
+    private final Map<URI, FeatureInfo> features = new ConcurrentHashMap<>();
+    private final Map<UUID, ScenarioRecord> inFlight = new ConcurrentHashMap<>();
+    private JsonGenerator generator;
+
+    public StreamingJsonFormatter(File outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> open());
+        publisher.registerHandlerFor(TestSourceParsed.class, this::handleTestSourceParsed);
+        publisher.registerHandlerFor(TestCaseStarted.class, event ->
+                inFlight.put(event.getTestCase().getId(), new ScenarioRecord(event.getTestCase(), event.getInstant().toString())));
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::handleEmbed);
+        publisher.registerHandlerFor(WriteEvent.class, this::handleWrite);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> close());
+    }
+
+    private synchronized void open() {
+        try {
+            File parent = outputFile.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            generator = new JsonFactory().createGenerator(outputFile, JsonEncoding.UTF8);
+            generator.writeStartArray();
+            generator.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open JSON report " + outputFile, e);
+        }
+    }
+
+    private synchronized void close() {
+        if (generator == null) {
+            return;
+        }
+        try {
+            generator.writeEndArray();
+            generator.close();
+        } catch (IOException e) {
+            logger.error("Could not finish JSON report {}: {}", outputFile, e.getMessage(), e);
+        }
+    }
+
+    private void handleTestSourceParsed(TestSourceParsed event) {
+        for (Node node : event.getNodes()) {
+            if (node instanceof Node.Feature feature) {
+                String name = feature.getName().orElse("");
+                features.put(event.getUri(), new FeatureInfo(name, feature.getKeyword().orElse("Feature"), feature.getLocation().getLine()));
+            }
+        }
+    }
+
+    private void handleTestStepFinished(TestStepFinished event) {
+        ScenarioRecord scenario = inFlight.get(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
+        StepRecord record;
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            record = new StepRecord(step.getStep().getKeyword(), step.getStep().getText(), step.getStep().getLine(),
+                    step.getCodeLocation(), event.getResult());
+            record.before.addAll(scenario.pendingStepHooks);
+            scenario.pendingStepHooks.clear();
+            scenario.steps.add(record);
+        } else if (event.getTestStep() instanceof HookTestStep hook) {
+            record = new StepRecord(null, null, 0, hook.getCodeLocation(), event.getResult());
+            switch (hook.getHookType()) {
+                case BEFORE -> scenario.before.add(record);
+                case AFTER -> scenario.after.add(record);
+                case BEFORE_STEP -> scenario.pendingStepHooks.add(record);
+                case AFTER_STEP -> {
+                    if (scenario.steps.isEmpty()) {
+                        scenario.after.add(record);
+                    } else {
+                        scenario.steps.get(scenario.steps.size() - 1).after.add(record);
+                    }
+                }
+            }
+        } else {
+            return;
+        }
+        // Attachments and log output belong to the step or hook that was running when they were emitted
+        record.embeddings.addAll(scenario.pendingEmbeddings);
+        record.output.addAll(scenario.pendingOutput);
+        scenario.pendingEmbeddings.clear();
+        scenario.pendingOutput.clear();
+    }
+
+    private void handleEmbed(EmbedEvent event) {
+        ScenarioRecord scenario = inFlight.get(event.getTestCase().getId());
+        if (scenario != null) {
+            scenario.pendingEmbeddings.add(new Embedding(Base64.getEncoder().encodeToString(event.getData()), event.getMediaType(), event.getName()));
+        }
+    }
+
+    private void handleWrite(WriteEvent event) {
+        ScenarioRecord scenario = inFlight.get(event.getTestCase().getId());
+        if (scenario != null) {
+            scenario.pendingOutput.add(event.getText());
+        }
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        ScenarioRecord scenario = inFlight.remove(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
+        try {
+            writeScenario(scenario);
+        } catch (IOException e) {
+            logger.error("Could not write scenario '{}' to JSON report: {}", scenario.testCase.getName(), e.getMessage(), e);
+        }
+    }
+
+    private synchronized void writeScenario(ScenarioRecord scenario) throws IOException {
+        if (generator == null) {
+            return;
+        }
+        TestCase testCase = scenario.testCase;
+        FeatureInfo feature = features.getOrDefault(testCase.getUri(), new FeatureInfo(testCase.getUri().toString(), "Feature", 1));
+        String featureId = toId(feature.name);
+
+        generator.writeStartObject();
+        generator.writeStringField("uri", testCase.getUri().toString());
+        generator.writeStringField("id", featureId);
+        generator.writeStringField("keyword", feature.keyword);
+        generator.writeStringField("name", feature.name);
+        generator.writeStringField("description", "");
+        generator.writeNumberField("line", feature.line);
+
+        generator.writeArrayFieldStart("elements");
+        generator.writeStartObject();
+        generator.writeStringField("start_timestamp", scenario.startTimestamp);
+        generator.writeStringField("id", featureId + ";" + toId(testCase.getName()) + ";" + testCase.getLocation().getLine());
+        generator.writeStringField("type", "scenario");
+        generator.writeStringField("keyword", testCase.getKeyword());
+        generator.writeStringField("name", testCase.getName());
+        generator.writeStringField("description", "");
+        generator.writeNumberField("line", testCase.getLocation().getLine());
+        writeHooks("before", scenario.before);
+        generator.writeArrayFieldStart("steps");
+        for (StepRecord step : scenario.steps) {
+            writeStep(step);
+        }
+        generator.writeEndArray();
+        writeHooks("after", scenario.after);
+        generator.writeArrayFieldStart("tags");
+        for (String tag : testCase.getTags()) {
+            generator.writeStartObject();
+            generator.writeStringField("name", tag);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private void writeStep(StepRecord step) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("keyword", step.keyword);
+        generator.writeStringField("name", step.name);
+        generator.writeNumberField("line", step.line);
+        writeMatch(step);
+        writeResult(step.result);
+        writeAttachments(step);
+        writeHooks("before", step.before);
+        writeHooks("after", step.after);
+        generator.writeEndObject();
+    }
+
+    private void writeHooks(String fieldName, List<StepRecord> hooks) throws IOException {
+        if (hooks.isEmpty()) {
+            return;
+        }
+        generator.writeArrayFieldStart(fieldName);
+        for (StepRecord hook : hooks) {
+            generator.writeStartObject();
+            writeMatch(hook);
+            writeResult(hook.result);
+            writeAttachments(hook);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeAttachments(StepRecord step) throws IOException {
+        if (!step.embeddings.isEmpty()) {
+            generator.writeArrayFieldStart("embeddings");
+            for (Embedding embedding : step.embeddings) {
+                generator.writeStartObject();
+                generator.writeStringField("data", embedding.data);
+                generator.writeStringField("mime_type", embedding.mediaType);
+                if (embedding.name != null) {
+                    generator.writeStringField("name", embedding.name);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        if (!step.output.isEmpty()) {
+            generator.writeArrayFieldStart("output");
+            for (String text : step.output) {
+                generator.writeString(text);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeMatch(StepRecord step) throws IOException {
+        generator.writeObjectFieldStart("match");
+        if (step.location != null) {
+            generator.writeStringField("location", step.location);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeResult(Result result) throws IOException {
+        generator.writeObjectFieldStart("result");
+        generator.writeStringField("status", result.getStatus().name().toLowerCase(Locale.ROOT));
+        generator.writeNumberField("duration", result.getDuration().toNanos());
+        if (result.getError() != null) {
+            StringWriter stackTrace = new StringWriter();
+            result.getError().printStackTrace(new PrintWriter(stackTrace));
+            generator.writeStringField("error_message", stackTrace.toString());
+        }
+        generator.writeEndObject();
+    }
+
+    private static String toId(String name) {
+        return name.replaceAll("[\\s'_,!]", "-").toLowerCase(Locale.ROOT);
+    }
+
+    private record FeatureInfo(String name, String keyword, int line) {
+    }
+
+    private record Embedding(String data, String mediaType, String name) {
+    }
+
+    private static final class StepRecord {
+        final String keyword;
+        final String name;
+        final int line;
+        final String location;
+        final Result result;
+        final List<Embedding> embeddings = new ArrayList<>();
+        final List<String> output = new ArrayList<>();
+        final List<StepRecord> before = new ArrayList<>();
+        final List<StepRecord> after = new ArrayList<>();
+
+        StepRecord(String keyword, String name, int line, String location, Result result) {
+            this.keyword = keyword;
+            this.name = name;
+            this.line = line;
+            this.location = location;
+            this.result = result;
+        }
+    }
+
+    private static final class ScenarioRecord {
+        final TestCase testCase;
+        final String startTimestamp;
+        final List<StepRecord> before = new ArrayList<>();
+        final List<StepRecord> steps = new ArrayList<>();
+        final List<StepRecord> after = new ArrayList<>();
+        final List<Embedding> pendingEmbeddings = new ArrayList<>();
+        final List<String> pendingOutput = new ArrayList<>();
+        final List<StepRecord> pendingStepHooks = new ArrayList<>();
+
+        ScenarioRecord(TestCase testCase, String startTimestamp) {
+            this.testCase = testCase;
+            this.startTimestamp = startTimestamp;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.lambdatest.atdd.reporting;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.LatencyHistogram;
+import com.lambdatest.atdd.core.RecordingCommandExecutor;
+import com.lambdatest.atdd.core.RunMetrics;
+import com.lambdatest.atdd.core.WebDriverFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+
+/**
+ * Cucumber plugin that serves live run telemetry over HTTP (-Datdd.telemetry.port=9464, off by default)
+ *
+ * {@code /metrics} exposes every {@link RunMetrics} counter, gauge and histogram in the OpenMetrics text
+ * format; {@code /summary} is a JSON digest with scenario states, sessions, latencies and the ETA.
+ * Scenario states are LongAdders updated from Cucumber events, everything else is read only when the
+ * endpoint is scraped. When the run finishes, the final snapshot is written to the plugin's directory.
+ *
+ * Usage: {@code com.lambdatest.atdd.reporting.TelemetryReporter:target/atdd/telemetry}
+ */
+public class TelemetryReporter implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryReporter.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    // Set before execution by the launcher, which knows the test plan; unknown (-1) otherwise
+    private static final AtomicLong plannedScenarios = new AtomicLong(-1);
+
+    public static final String STARTED = "scenarios.started";
+    public static final String PASSED = "scenarios.passed";
+    public static final String FAILED = "scenarios.failed";
+    public static final String SKIPPED = "scenarios.skipped";
+    public static final String PLANNED = "scenarios.planned";
+    public static final String RUNNING = "scenarios.running";
+    public static final String QUEUED = "scenarios.queued";
+    public static final String ELAPSED = "run.elapsed_seconds";
+    public static final String ETA = "run.eta_seconds";
+
+    private final Path outputDir;
+    private final LongAdder started = RunMetrics.counter(STARTED);
+    private final LongAdder passed = RunMetrics.counter(PASSED);
+    private final LongAdder failed = RunMetrics.counter(FAILED);
+    private final LongAdder skipped = RunMetrics.counter(SKIPPED);
+    private volatile Instant runStarted = Instant.now();
+    private HttpServer server;
+
+    public TelemetryReporter(File outputDir) {
+        this.outputDir = outputDir.toPath();
+    }
+
+    /**
+     * Tells the telemetry how many scenarios the run will execute, for the queue length and ETA
+     *
+     * @param count Number of scenarios in the test plan
+     */
+    public static void setPlannedScenarios(long count) {
+        plannedScenarios.set(count);
+    }
+
+    /**
+     * Checks whether the telemetry endpoint is enabled for this run
+     *
+     * @return true if -Datdd.telemetry.port is set to a port
+     */
+    public static boolean isEnabled() {
+        return TestConfiguration.Telemetry.PORT > 0;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!isEnabled()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestRunStarted.class, this::handleTestRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> started.increment());
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> handleTestRunFinished());
+    }
+
+    private synchronized void handleTestRunStarted(TestRunStarted event) {
+        runStarted = event.getInstant();
+        RunMetrics.gauge(PLANNED, plannedScenarios::get);
+        RunMetrics.gauge(RUNNING, this::running);
+        RunMetrics.gauge(QUEUED, this::queued);
+        RunMetrics.gauge(ELAPSED, () -> Duration.between(runStarted, Instant.now()).toSeconds());
+        RunMetrics.gauge(ETA, this::etaSeconds);
+        try {
+            server = HttpServer.create(new InetSocketAddress(TestConfiguration.Telemetry.BIND_ADDRESS, TestConfiguration.Telemetry.PORT), 16);
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "atdd-telemetry");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.createContext("/metrics", exchange -> respond(exchange, OpenMetricsFormat.CONTENT_TYPE, OpenMetricsFormat.render()));
+            server.createContext("/summary", exchange -> respond(exchange, "application/json", summaryJson()));
+            server.start();
+            logger.info("Live telemetry on http://{}:{}/metrics and /summary",
+                TestConfiguration.Telemetry.BIND_ADDRESS, server.getAddress().getPort());
+        } catch (IOException e) {
+            logger.warn("Could not start the telemetry endpoint on port {}: {}", TestConfiguration.Telemetry.PORT, e.getMessage());
+        }
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        Status status = event.getResult().getStatus();
+        if (status == Status.PASSED) {
+            passed.increment();
+        } else if (status == Status.FAILED || status == Status.UNDEFINED || status == Status.AMBIGUOUS) {
+            failed.increment();
+        } else {
+            skipped.increment();
+        }
+    }
+
+    private synchronized void handleTestRunFinished() {
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("telemetry.prom"), OpenMetricsFormat.render(), StandardCharsets.UTF_8);
+            Files.writeString(outputDir.resolve("telemetry.json"), summaryJson(), StandardCharsets.UTF_8);
+            logger.info("Final telemetry snapshot written to {}", outputDir);
+        } catch (IOException e) {
+            logger.warn("Could not write the telemetry snapshot to {}: {}", outputDir, e.getMessage());
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private long finished() {
+        return passed.sum() + failed.sum() + skipped.sum();
+    }
+
+    private long running() {
+        return Math.max(0, started.sum() - finished());
+    }
+
+    private long queued() {
+        long planned = plannedScenarios.get();
+        return planned < 0 ? -1 : Math.max(0, planned - started.sum());
+    }
+
+    /**
+     * Estimates the remaining time from the scenario throughput so far, which already reflects parallelism
+     *
+     * @return Seconds until all planned scenarios have finished, -1 if it cannot be estimated yet
+     */
+    private long etaSeconds() {
+        long planned = plannedScenarios.get();
+        long finished = finished();
+        if (planned < 0 || finished == 0) {
+            return -1;
+        }
+        long elapsedMillis = Duration.between(runStarted, Instant.now()).toMillis();
+        return Math.max(0, planned - finished) * elapsedMillis / finished / 1000;
+    }
+
+    private String summaryJson() {
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        scenarios.put("planned", plannedScenarios.get());
+        scenarios.put("queued", queued());
+        scenarios.put("running", running());
+        scenarios.put("passed", passed.sum());
+        scenarios.put("failed", failed.sum());
+        scenarios.put("skipped", skipped.sum());
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        Map<String, Long> gauges = RunMetrics.gauges();
+        sessions.put("active", gauges.getOrDefault(WebDriverFactory.SESSIONS_ACTIVE, 0L));
+        sessions.put("idle", gauges.getOrDefault(WebDriverFactory.SESSIONS_IDLE, 0L));
+        sessions.put("provisioning_ms", latency(RunMetrics.histogram(WebDriverFactory.PROVISION_LATENCY)));
+
+        Map<String, Object> commandsByName = new LinkedHashMap<>();
+        RunMetrics.histograms().keySet().forEach(name -> {
+            if (name.startsWith(RecordingCommandExecutor.COMMAND_LATENCY + "{")) {
+                commandsByName.put(name.substring(name.indexOf('=') + 1, name.length() - 1), latency(RunMetrics.histogram(name)));
+            }
+        });
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("elapsed_seconds", Duration.between(runStarted, Instant.now()).toSeconds());
+        summary.put("eta_seconds", etaSeconds());
+        summary.put("scenarios", scenarios);
+        summary.put("sessions", sessions);
+        summary.put("commands", commandsByName);
+        summary.put("metrics", RunMetrics.snapshot());
+        try {
+            return mapper.writeValueAsString(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize telemetry", e);
+        }
+    }
+
+    private static Map<String, Object> latency(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", snapshot.count());
+        latency.put("avg", snapshot.count() == 0 ? 0 : snapshot.sumMillis() / snapshot.count());
+        latency.put("p50_le", histogram.percentile(50));
+        latency.put("p95_le", histogram.percentile(95));
+        return latency;
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.lambdatest.atdd.context;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.cucumber.core.backend.CucumberBackendException;
+import io.cucumber.core.backend.ObjectFactory;
+import io.cucumber.java.StepDefinitionAnnotation;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperCall;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Cucumber object factory that runs every step definition through the scenario's {@link ScenarioRetry}
+ *
+ * Glue classes with step definitions are instantiated as generated subclasses whose step methods hand
+ * the original body to the retry journal, so step definitions stay plain methods. Other glue classes
+ * (hooks) are created as they are. Cucumber finds the factory through the ServiceLoader and creates
+ * one per worker thread, so instances live for one scenario as with the default factory.
+ */
+public class RetryingObjectFactory implements ObjectFactory {
+
+    private static final ElementMatcher<MethodDescription> STEP_DEFINITIONS =
+        ElementMatchers.isAnnotatedWith(ElementMatchers.isAnnotatedWith(StepDefinitionAnnotation.class));
+    private static final Map<Class<?>, Class<?>> RETRYING_TYPES = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Object> instances = new HashMap<>();
+
+    @Override
+    public void start() {
+        // Instances are created lazily by getInstance
+    }
+
+    @Override
+    public void stop() {
+        instances.clear();
+    }
+
+    @Override
+    public boolean addClass(Class<?> glueClass) {
+        return true;
+    }
+
+    @Override
+    public <T> T getInstance(Class<T> glueClass) {
+        return glueClass.cast(instances.computeIfAbsent(glueClass, this::newInstance));
+    }
+
+    private Object newInstance(Class<?> glueClass) {
+        Class<?> type = RETRYING_TYPES.computeIfAbsent(glueClass, RetryingObjectFactory::retryingType);
+        try {
+            Constructor<?> constructor = type.getConstructor();
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new CucumberBackendException("Could not instantiate " + glueClass.getName()
+                + "; glue classes need a public no-argument constructor", e);
+        }
+    }
+
+    /**
+     * @return A subclass that routes the step definitions through the retry journal, or the class itself if it has none
+     */
+    private static Class<?> retryingType(Class<?> glueClass) {
+        boolean hasSteps = Arrays.stream(glueClass.getMethods()).anyMatch(RetryingObjectFactory::isStepDefinition);
+        if (!hasSteps) {
+            return glueClass;
+        }
+        return new ByteBuddy()
+            .subclass(glueClass)
+            .method(STEP_DEFINITIONS)
+            .intercept(MethodDelegation.to(StepInterceptor.class))
+            .make()
+            .load(glueClass.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+            .getLoaded();
+    }
+
+    private static boolean isStepDefinition(Method method) {
+        return Arrays.stream(method.getAnnotations())
+            .anyMatch(annotation -> annotation.annotationType().isAnnotationPresent(StepDefinitionAnnotation.class));
+    }
+
+    /**
+     * Runs the original step body inside the current scenario's retry journal
+     */
+    public static class StepInterceptor {
+
+        private StepInterceptor() {
+        }
+
+        @RuntimeType
+        public static Object intercept(@SuperCall Callable<?> step) {
+            TestContext.getInstance().getScenarioRetry().run(() -> call(step));
+            return null;
+        }
+
+        private static void call(Callable<?> step) {
+            try {
+                step.call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+    }
+}
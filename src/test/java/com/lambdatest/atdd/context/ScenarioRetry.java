@@ -0,0 +1,181 @@
+package com.lambdatest.atdd.context;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.RunMetrics;
+import com.lambdatest.atdd.core.ScenarioWatchdog;
+import com.lambdatest.atdd.core.WebDriverFactory;
+
+import io.cucumber.java.Scenario;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+
+/**
+ * Retries a scenario inside its own worker when a step fails with a transient error.
+ * Steps run through {@link #run(Runnable)}, called for every step definition by the
+ * {@link RetryingObjectFactory}, which journals them; on a retryable failure
+ * the browser state is reset on the same session and the journal is replayed from the
+ * first step. A session that no longer responds is quit so the first step creates a new one.
+ */
+public class ScenarioRetry {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioRetry.class);
+    private static final Expression RETRY_TAGS = TagExpressionParser.parse(TestConfiguration.Retry.TAGS);
+    private static final Set<String> RETRY_EXCEPTIONS = Arrays.stream(TestConfiguration.Retry.EXCEPTIONS.split(","))
+        .map(String::trim)
+        .filter(name -> !name.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+    private static final String RESET_STORAGE_SCRIPT =
+        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    /** Used when no scenario has been started on this thread; runs steps once. */
+    static final ScenarioRetry NONE = new ScenarioRetry(null, null, 0, Map.of());
+
+    private final Scenario scenario;
+    private final TestContext testContext;
+    private final int maxRetries;
+    private final Map<String, Object> baselineData;
+    private final List<Runnable> journal = new ArrayList<>();
+    private int attempt = 1;
+
+    private ScenarioRetry(Scenario scenario, TestContext testContext, int maxRetries, Map<String, Object> baselineData) {
+        this.scenario = scenario;
+        this.testContext = testContext;
+        this.maxRetries = maxRetries;
+        this.baselineData = baselineData;
+    }
+
+    /**
+     * Creates the retry journal for a scenario. The current test data is kept as the
+     * baseline that every retry starts from.
+     * @param scenario the running scenario, used for its tags and to log attempts
+     * @param testContext the context of the current thread
+     * @return a journal that retries only if the scenario's tags match the policy
+     */
+    static ScenarioRetry start(Scenario scenario, TestContext testContext) {
+        int maxRetries = isEligible(scenario.getSourceTagNames()) ? TestConfiguration.Retry.COUNT : 0;
+        return new ScenarioRetry(scenario, testContext, maxRetries, testContext.snapshotTestData());
+    }
+
+    /**
+     * Returns whether scenarios with these tags may be retried.
+     * @param tags the scenario's tags
+     * @return true if retries are enabled and the tags match the configured expression
+     */
+    public static boolean isEligible(Collection<String> tags) {
+        return TestConfiguration.Retry.COUNT > 0 && RETRY_TAGS.evaluate(List.copyOf(tags));
+    }
+
+    /**
+     * Runs a step body, retrying the whole scenario in this session if the step fails with a retryable error.
+     * @param step the step body
+     */
+    public void run(Runnable step) {
+        journal.add(step);
+        try {
+            step.run();
+        } catch (RuntimeException | Error failure) {
+            // A step broken by the watchdog reports why its session was taken away, not the symptom
+            Optional<String> expiry = ScenarioWatchdog.expiry();
+            if (expiry.isPresent() && ScenarioWatchdog.isCancelled()) {
+                throw new TestAbortedException(expiry.get(), failure);
+            } else if (expiry.isPresent()) {
+                throw new ScenarioWatchdog.DeadlineExceededException(expiry.get(), failure);
+            }
+            retry(failure);
+        }
+    }
+
+    /**
+     * Runs the journaled steps again from the first one, on a reset browser and test data and without
+     * retries; used to run the scenario for further external example rows
+     */
+    public void replay() {
+        resetState();
+        for (Runnable step : List.copyOf(journal)) {
+            step.run();
+        }
+    }
+
+    /**
+     * @return the attempt currently running, starting at 1
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    private void retry(Throwable failure) {
+        Throwable last = failure;
+        // A scenario stopped by the watchdog has used up its time; its session is gone too
+        while (attempt <= maxRetries && isRetryable(last) && !ScenarioWatchdog.hasExpired()) {
+            scenario.log(String.format("Attempt %d of %d failed: %s", attempt, maxRetries + 1, describe(last)));
+            logger.warn("Retrying '{}' in the same session (attempt {} of {}) after {}",
+                scenario.getName(), attempt + 1, maxRetries + 1, describe(last));
+            RunMetrics.counter("scenario_retry.attempts").increment();
+            attempt++;
+            resetState();
+            try {
+                // The journal ends with the failed step, so this replays the scenario up to and including it
+                for (Runnable step : List.copyOf(journal)) {
+                    step.run();
+                }
+                scenario.log(String.format("Attempt %d of %d passed", attempt, maxRetries + 1));
+                RunMetrics.counter("scenario_retry.recovered").increment();
+                return;
+            } catch (RuntimeException | Error e) {
+                last = e;
+            }
+        }
+        if (attempt > 1) {
+            scenario.log(String.format("Attempt %d of %d failed: %s", attempt, maxRetries + 1, describe(last)));
+        }
+        if (last instanceof Error) {
+            throw (Error) last;
+        }
+        throw (RuntimeException) last;
+    }
+
+    private void resetState() {
+        if (WebDriverFactory.hasActiveDriver()) {
+            WebDriver driver = WebDriverFactory.getCurrentDriver();
+            try {
+                driver.manage().deleteAllCookies();
+                ((JavascriptExecutor) driver).executeScript(RESET_STORAGE_SCRIPT);
+            } catch (WebDriverException e) {
+                logger.warn("Session is not healthy, the retry will start a new one: {}", e.getMessage());
+                WebDriverFactory.quitDriver();
+            }
+        }
+        testContext.restoreTestData(baselineData);
+    }
+
+    private static boolean isRetryable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            for (Class<?> type = t.getClass(); type != null; type = type.getSuperclass()) {
+                if (RETRY_EXCEPTIONS.contains(type.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Throwable failure) {
+        String message = failure.getMessage() == null ? "" : failure.getMessage().lines().findFirst().orElse("");
+        return failure.getClass().getSimpleName() + (message.isEmpty() ? "" : ": " + message);
+    }
+}
@@ -2,12 +2,16 @@ package com.lambdatest.atdd.context;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.openqa.selenium.WebDriver;
 
 import com.lambdatest.atdd.core.WebDriverFactory;
 import com.lambdatest.atdd.pages.ecommerce.ECommerceHomePage;
 
+import io.cucumber.java.Scenario;
+
 /**
  * Test Context for sharing data and page objects between Cucumber steps
  * Implements Singleton pattern for thread-safe access
@@ -15,8 +19,11 @@ import com.lambdatest.atdd.pages.ecommerce.ECommerceHomePage;
 public class TestContext {
     
     private static final ThreadLocal<TestContext> instance = new ThreadLocal<>();
+    private static final Pattern EXAMPLE_REFERENCE = Pattern.compile("\\$\\{([^}]+)}");
     private final Map<String, Object> testData;
     private WebDriver driver;
+    private ScenarioRetry scenarioRetry = ScenarioRetry.NONE;
+    private Map<String, String> exampleRow = Map.of();
     
     // Page Objects
     private ECommerceHomePage eCommerceHomePage;
@@ -69,13 +76,73 @@ public class TestContext {
         testData.clear();
     }
     
+    public Map<String, Object> snapshotTestData() {
+        return new HashMap<>(testData);
+    }
+    
+    /**
+     * Restores test data to a snapshot and drops the page objects, so a retried scenario starts from
+     * the state its hooks left. The driver is kept while its session is still active.
+     * @param snapshot test data taken with {@link #snapshotTestData()}
+     */
+    public void restoreTestData(Map<String, Object> snapshot) {
+        testData.clear();
+        testData.putAll(snapshot);
+        driver = WebDriverFactory.getCurrentDriver();
+        clearPageObjects();
+    }
+    
+    // External example rows
+    public void setExampleRow(Map<String, String> row) {
+        exampleRow = row;
+    }
+    
+    public Map<String, String> getExampleRow() {
+        return exampleRow;
+    }
+    
+    /**
+     * Replaces ${column} references with the values of the current external example row
+     * @param value step argument, e.g. "${product_type}"
+     * @return the argument with the references replaced
+     * @throws IllegalArgumentException if the row has no such column
+     */
+    public String resolve(String value) {
+        if (value == null || exampleRow.isEmpty() || !value.contains("${")) {
+            return value;
+        }
+        Matcher matcher = EXAMPLE_REFERENCE.matcher(value);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String column = matcher.group(1);
+            if (!exampleRow.containsKey(column)) {
+                throw new IllegalArgumentException("External example row has no column '" + column + "': " + exampleRow.keySet());
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(exampleRow.get(column)));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+    
+    // Scenario retry management
+    public void startScenario(Scenario scenario) {
+        scenarioRetry = ScenarioRetry.start(scenario, this);
+    }
+    
+    public ScenarioRetry getScenarioRetry() {
+        return scenarioRetry;
+    }
+    
     public void cleanup() {
-        if (driver != null) {
+        // The factory, not the cached field, knows whether this thread still holds a session
+        if (driver != null || WebDriverFactory.hasActiveDriver()) {
             WebDriverFactory.quitDriver();
             driver = null;
         }
         clearTestData();
         clearPageObjects();
+        scenarioRetry = ScenarioRetry.NONE;
+        exampleRow = Map.of();
     }
     
     private void clearPageObjects() {
@@ -0,0 +1,224 @@
+package com.lambdatest.atdd.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+/**
+ * Unit tests for {@link BrowserContextPool} against a fake host session and BiDi connection
+ */
+class BrowserContextPoolTest {
+
+    private final FakeHost host = new FakeHost();
+    private final FakeBidi bidi = new FakeBidi();
+    private final List<RemoteWebDriver> closedHosts = new CopyOnWriteArrayList<>();
+    private BrowserContextPool pool;
+
+    private BrowserContextPool pool(boolean bidiEndpoint) {
+        pool = new BrowserContextPool(2, 1,
+            () -> new RemoteWebDriver(host, new ImmutableCapabilities("browserName", "chrome")),
+            closedHosts::add,
+            uri -> {
+                bidi.uri = uri;
+                return bidi;
+            });
+        host.webSocketUrl = bidiEndpoint ? "ws://grid.example/session/host-1" : null;
+        return pool;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void classicCommandsRunInTheScenariosWindow() {
+        BrowserContextPool pool = pool(true);
+        RemoteWebDriver first = pool.acquire(10);
+        RemoteWebDriver second = pool.acquire(10);
+
+        String firstWindow = first.getTitle();
+        String secondWindow = second.getTitle();
+        assertNotEquals(firstWindow, secondWindow);
+        assertEquals(firstWindow, first.getTitle());
+        assertEquals(List.of(firstWindow, secondWindow, firstWindow), host.switchedTo, "the host switches only when another context sends");
+
+        first.get("https://shop.example/cart");
+        assertEquals(Map.of("context", firstWindow, "url", "https://shop.example/cart", "wait", "complete"),
+            bidi.lastParams("browsingContext.navigate"));
+        assertFalse(host.received.contains(DriverCommand.GET), "navigation goes over BiDi");
+        assertEquals(URI.create("ws://grid.example/session/host-1"), bidi.uri);
+    }
+
+    @Test
+    void isolationIsProbedOncePerHost() {
+        BrowserContextPool pool = pool(true);
+        pool.acquire(10);
+        pool.acquire(10);
+
+        assertEquals(2, bidi.count("script.evaluate"), "one write and one read for the host");
+        assertTrue(bidi.lastExpression.contains("localStorage"));
+        assertEquals(2 + 2, bidi.count("browser.createUserContext"), "two probe contexts and one per scenario");
+        assertEquals(2, bidi.count("browser.removeUserContext"), "the probe contexts are removed");
+    }
+
+    @Test
+    void sessionWithoutBidiEndpointDisablesThePool() {
+        BrowserContextPool pool = pool(false);
+
+        assertNull(pool.acquire(10));
+        assertFalse(pool.isAvailable());
+        assertEquals(1, closedHosts.size(), "the host session is given back");
+        assertEquals(0, bidi.count("browser.createUserContext"));
+    }
+
+    @Test
+    void leakingContextsDisableThePool() {
+        BrowserContextPool pool = pool(true);
+        bidi.leaked = "cookie localStorage";
+
+        assertNull(pool.acquire(10));
+        assertFalse(pool.isAvailable());
+        assertEquals(1, closedHosts.size(), "the host session is given back");
+        assertEquals(2, bidi.count("browser.removeUserContext"), "the probe contexts are removed");
+        assertTrue(host.scripts.contains("lambda-status=passed"), "the host is closed as usual");
+    }
+
+    @Test
+    void discardDoesNotWaitForTheCommandInFlight() throws Exception {
+        BrowserContextPool pool = pool(true);
+        RemoteWebDriver driver = pool.acquire(10);
+        host.blockTitle = new CountDownLatch(1);
+        CompletableFuture<String> title = CompletableFuture.supplyAsync(driver::getTitle);
+        assertTrue(host.titleRequested.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> pool.discard(driver));
+        assertFalse(pool.owns(driver));
+        assertEquals(2 + 1, bidi.count("browser.removeUserContext"), "the probe contexts and the scenario's context are removed");
+
+        host.blockTitle.countDown();
+        assertNotNull(title.get(5, TimeUnit.SECONDS));
+        host.blockTitle = null;
+        assertNotNull(pool.acquire(10), "the slot is free again");
+        assertTrue(closedHosts.isEmpty(), "the host session stays open");
+    }
+
+    /**
+     * Host session that remembers its current window and answers getTitle with it
+     */
+    private static final class FakeHost implements CommandExecutor {
+        private final SessionId sessionId = new SessionId("host-1");
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final List<String> switchedTo = new CopyOnWriteArrayList<>();
+        private final List<Object> scripts = new CopyOnWriteArrayList<>();
+        private final CountDownLatch titleRequested = new CountDownLatch(1);
+        private volatile String webSocketUrl;
+        private volatile CountDownLatch blockTitle;
+        private volatile String currentWindow;
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            received.add(command.getName());
+            Response response = new Response(sessionId);
+            response.setState(ErrorCodes.SUCCESS_STRING);
+            switch (command.getName()) {
+                case DriverCommand.NEW_SESSION -> {
+                    Map<String, Object> capabilities = new HashMap<>(Map.of("browserName", "chrome"));
+                    if (webSocketUrl != null) {
+                        capabilities.put("webSocketUrl", webSocketUrl);
+                    }
+                    response.setValue(capabilities);
+                }
+                case DriverCommand.SWITCH_TO_WINDOW -> {
+                    currentWindow = String.valueOf(command.getParameters().get("handle"));
+                    switchedTo.add(currentWindow);
+                }
+                case DriverCommand.GET_TITLE -> {
+                    titleRequested.countDown();
+                    CountDownLatch block = blockTitle;
+                    if (block != null) {
+                        try {
+                            block.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    response.setValue(currentWindow);
+                }
+                case DriverCommand.EXECUTE_SCRIPT -> scripts.add(command.getParameters().get("script"));
+                default -> response.setValue(null);
+            }
+            return response;
+        }
+    }
+
+    /**
+     * BiDi connection that hands out numbered contexts and answers the isolation probe
+     */
+    private static final class FakeBidi implements BrowserContextPool.BidiSession {
+        private final List<String> methods = new CopyOnWriteArrayList<>();
+        private final Map<String, Map<String, Object>> lastParams = new HashMap<>();
+        private final AtomicInteger ids = new AtomicInteger();
+        private volatile URI uri;
+        private volatile String leaked = "";
+        private volatile String lastExpression = "";
+
+        @Override
+        public synchronized Map<String, Object> send(String method, Map<String, Object> params, Duration timeout) {
+            methods.add(method);
+            lastParams.put(method, params);
+            return switch (method) {
+                case "browser.createUserContext" -> Map.of("userContext", "user-" + ids.incrementAndGet());
+                case "browsingContext.create" -> Map.of("context", "window-" + ids.incrementAndGet());
+                case "script.evaluate" -> {
+                    lastExpression = String.valueOf(params.get("expression"));
+                    String seen = lastExpression.contains("setItem") ? "cookie localStorage" : leaked;
+                    yield Map.of("type", "success", "result", Map.of("type", "string", "value", seen));
+                }
+                default -> Map.of();
+            };
+        }
+
+        @Override
+        public void close() {
+            methods.add("close");
+        }
+
+        synchronized int count(String method) {
+            return (int) methods.stream().filter(method::equals).count();
+        }
+
+        synchronized Map<String, Object> lastParams(String method) {
+            return lastParams.get(method);
+        }
+    }
+}
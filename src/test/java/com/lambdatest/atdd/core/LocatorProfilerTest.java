@@ -0,0 +1,59 @@
+package com.lambdatest.atdd.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LocatorProfiler#suggestCss(String)}
+ */
+class LocatorProfilerTest {
+
+    @Test
+    void rewritesIdAndAttributeEquality() {
+        assertEquals(Optional.of("input[id='search']"), LocatorProfiler.suggestCss("//input[@id='search']"));
+        assertEquals(Optional.of("input[placeholder='Search']"), LocatorProfiler.suggestCss("//input[@placeholder='Search']"));
+    }
+
+    @Test
+    void rewritesClassEqualityAndContains() {
+        assertEquals(Optional.of("div[class='product-thumb']"), LocatorProfiler.suggestCss("//div[@class='product-thumb']"));
+        assertEquals(Optional.of("ul[class*='nav']"), LocatorProfiler.suggestCss("//ul[contains(@class, 'nav')]"));
+    }
+
+    @Test
+    void rewritesStepsAndCombinedPredicates() {
+        assertEquals(Optional.of("div[id='content'] > h4 a[href]"), LocatorProfiler.suggestCss("//div[@id='content']/h4//a[@href]"));
+        assertEquals(Optional.of("[data-id='7'][class*='item']"), LocatorProfiler.suggestCss("//*[@data-id='7' and contains(@class, 'item')]"));
+    }
+
+    @Test
+    void rewritesUnionsOfRewritableBranches() {
+        assertEquals(Optional.of("span[class*='cart-count'], span[class*='badge']"),
+            LocatorProfiler.suggestCss("//span[contains(@class, 'cart-count')] | //span[contains(@class, 'badge')]"));
+    }
+
+    @Test
+    void textPredicatesHaveNoCssEquivalent() {
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//*[contains(text(), 'no results')]"));
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//button[text()='Add to Cart']"));
+    }
+
+    @Test
+    void unionWithATextBranchIsNotRewritten() {
+        // ECommerceHomePage's product link locator: the second branch has no CSS form, so neither has the union
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//h4[contains(text(), 'iPhone')] | //a[contains(text(), 'iPhone')]"));
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//img[contains(@title, 'Your Store')] | //a[contains(text(), 'Home')]"));
+    }
+
+    @Test
+    void xpathOnlyFormsAreNotRewritten() {
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("(//div[@class='product-thumb'])[1]"));
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//div[@class='product-thumb'][2]"));
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//span[@class='price']/.."));
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//h4/following-sibling::p"));
+        assertEquals(Optional.empty(), LocatorProfiler.suggestCss("//a[@title='Cameras | Video']"));
+    }
+}
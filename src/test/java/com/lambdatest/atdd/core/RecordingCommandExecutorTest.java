@@ -0,0 +1,76 @@
+package com.lambdatest.atdd.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+/**
+ * Unit tests for {@link RecordingCommandExecutor}
+ */
+class RecordingCommandExecutorTest {
+
+    private static final SessionId SESSION = new SessionId("session-1");
+
+    private final List<Command> sent = new ArrayList<>();
+    private final RecordingCommandExecutor executor = new RecordingCommandExecutor(command -> {
+        sent.add(command);
+        Response response = new Response(SESSION);
+        response.setState(ErrorCodes.SUCCESS_STRING);
+        return response;
+    }, 10);
+
+    private static Command script(String script, Object... args) {
+        return new Command(SESSION, DriverCommand.EXECUTE_SCRIPT, Map.of("script", script, "args", List.of(args)));
+    }
+
+    @Test
+    void gridExecutorCommandsAreSentUnchanged() throws IOException {
+        executor.execute(script("lambda-status=passed"));
+        executor.execute(script("lambda-exceptions", List.of("boom")));
+        executor.execute(script("lambda-name=Search for iPhone"));
+
+        assertEquals(List.of("lambda-status=passed", "lambda-exceptions", "lambda-name=Search for iPhone"),
+            sent.stream().map(command -> command.getParameters().get("script")).toList());
+        assertEquals(0, executor.getDomEpoch(), "executor commands do not touch the page");
+    }
+
+    @Test
+    void pageScriptsGetTheConsoleHook() throws IOException {
+        executor.execute(script("return document.title"));
+
+        assertEquals(Diagnostics.CONSOLE_HOOK_SCRIPT + "return document.title", sent.get(0).getParameters().get("script"));
+        assertEquals(1, executor.getDomEpoch());
+        assertTrue(executor.getRecentCommands().get(0).contains("return document.title"));
+        assertFalse(executor.getRecentCommands().get(0).contains("__atddConsole"), "the history shows the original script");
+    }
+
+    @Test
+    void navigationDoesNotCostAnExtraRoundTrip() throws IOException {
+        executor.execute(new Command(SESSION, DriverCommand.GET, Map.of("url", "https://shop.example/")));
+
+        assertEquals(1, sent.size());
+        assertEquals(1, executor.getNavigationEpoch());
+    }
+
+    @Test
+    void typedTextIsRedacted() throws IOException {
+        executor.execute(new Command(SESSION, DriverCommand.SEND_KEYS_TO_ELEMENT,
+            Map.of("id", "element-1", "value", new CharSequence[] {"secret"})));
+
+        String entry = executor.getRecentCommands().get(0);
+        assertTrue(entry.contains("<redacted>"), entry);
+        assertFalse(entry.contains("secret"), entry);
+    }
+}
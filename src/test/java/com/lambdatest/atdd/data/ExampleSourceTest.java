@@ -0,0 +1,110 @@
+package com.lambdatest.atdd.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the CSV reader of {@link ExampleSource}
+ */
+class ExampleSourceTest {
+
+    private static final ExampleSource.Options ALL_ROWS = new ExampleSource.Options(0, 100, 42, List.of());
+
+    @TempDir
+    Path tempDir;
+
+    private List<Map<String, String>> readCsv(String content) throws IOException {
+        Path file = tempDir.resolve("examples.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        try (Stream<Map<String, String>> rows = ExampleSource.open(file.toString(), ALL_ROWS)) {
+            return rows.toList();
+        }
+    }
+
+    @Test
+    void readsRowsKeyedByHeader() throws IOException {
+        assertEquals(List.of(Map.of("product_type", "iPhone", "expected", "Apple"), Map.of("product_type", "Canon", "expected", "Canon")),
+            readCsv("product_type,expected\niPhone,Apple\nCanon,Canon\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        List<Map<String, String>> rows = readCsv("name,note\n\"Nikon, D300\",\"the \"\"pro\"\" one\"\n");
+        assertEquals(Map.of("name", "Nikon, D300", "note", "the \"pro\" one"), rows.get(0));
+    }
+
+    @Test
+    void quotedFieldsKeepLineBreaks() throws IOException {
+        List<Map<String, String>> rows = readCsv("name,description\r\n\"HTC\",\"first line\r\nsecond line\"\r\nSony,plain\r\n");
+        assertEquals(2, rows.size());
+        assertEquals("first line\r\nsecond line", rows.get(0).get("description"));
+        assertEquals("plain", rows.get(1).get("description"));
+    }
+
+    @Test
+    void byteOrderMarkIsNotPartOfTheFirstColumn() throws IOException {
+        List<Map<String, String>> rows = readCsv("\uFEFFproduct_type,expected\niPod,Apple\n");
+        assertEquals(List.of("product_type", "expected"), List.copyOf(rows.get(0).keySet()));
+        assertEquals("iPod", rows.get(0).get("product_type"));
+    }
+
+    @Test
+    void blankLinesAreSkippedAndShortRowsArePadded() throws IOException {
+        List<Map<String, String>> rows = readCsv("a,b,c\n\n1,2\n\n");
+        assertEquals(List.of(Map.of("a", "1", "b", "2", "c", "")), rows);
+    }
+
+    @Test
+    void lastRowWithoutLineBreakIsRead() throws IOException {
+        assertEquals(List.of(Map.of("a", "1", "b", "\"x\"")), readCsv("a,b\n1,\"\"\"x\"\"\""));
+    }
+
+    @Test
+    void duplicateRowsAreDroppedByKeyColumns() throws IOException {
+        Path file = tempDir.resolve("dupes.csv");
+        Files.writeString(file, "type,term\nphone,iPhone\nphone,HTC\ncamera,Canon\n", StandardCharsets.UTF_8);
+        ExampleSource.Options byType = new ExampleSource.Options(0, 100, 42, List.of("type"));
+        try (Stream<Map<String, String>> rows = ExampleSource.open(file.toString(), byType)) {
+            assertEquals(List.of("iPhone", "Canon"), rows.map(row -> row.get("term")).toList());
+        }
+    }
+
+    @Test
+    void unknownKeyColumnIsReported() throws IOException {
+        Path file = tempDir.resolve("dupes.csv");
+        Files.writeString(file, "Type,term\nphone,iPhone\ncamera,Canon\n", StandardCharsets.UTF_8);
+        ExampleSource.Options byType = new ExampleSource.Options(0, 100, 42, List.of("type"));
+
+        IOException error = assertThrows(IOException.class, () -> ExampleSource.open(file.toString(), byType));
+        assertTrue(error.getMessage().contains("'type'"), error.getMessage());
+    }
+
+    @Test
+    void unknownKeyColumnIsReportedForJsonLines() throws IOException {
+        Path file = tempDir.resolve("terms.jsonl");
+        Files.writeString(file, "{\"type\":\"phone\",\"term\":\"iPhone\"}\n{\"type\":\"phone\",\"term\":\"HTC\"}\n",
+            StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> ExampleSource.open(file.toString(), new ExampleSource.Options(0, 100, 42, List.of("kind"))));
+        try (Stream<Map<String, String>> rows = ExampleSource.open(file.toString(), new ExampleSource.Options(0, 100, 42, List.of("type")))) {
+            assertEquals(List.of("iPhone"), rows.map(row -> row.get("term")).toList(), "the row read for the check is kept");
+        }
+    }
+
+    @Test
+    void emptyFileHasNoHeader() {
+        assertThrows(IOException.class, () -> readCsv(""));
+    }
+}
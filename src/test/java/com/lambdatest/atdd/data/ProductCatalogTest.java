@@ -0,0 +1,122 @@
+package com.lambdatest.atdd.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the page parsing and the cache of {@link ProductCatalog}
+ */
+class ProductCatalogTest {
+
+    private static final String BASE_URL = "https://shop.example/opencart/";
+
+    private static final String LISTING =
+        "<div class=\"product-thumb\"><h4 class=\"title\">"
+            + "<a href=\"https://shop.example/opencart/index.php?route=product/product&amp;path=57&amp;product_id=33\" class=\"text-ellipsis-2\">"
+            + "Samsung SyncMaster 941BW</a></h4></div>\n"
+            + "<div class=\"product-thumb\"><a href=\"index.php?route=product/product&product_id=47\"><img src=\"hp.jpg\"></a>"
+            + "<h4><a class=\"title\" href=\"index.php?route=product/product&product_id=47\">\n  HP <b>LP3065</b>\n</a></h4></div>\n"
+            + "<a href=\"index.php?route=product/product&amp;product_id=42\" title=\"Apple Cinema 30&quot;\">Apple Cinema 30&quot; &amp; stand</a>\n"
+            + "<a href=\"index.php?route=product/category&amp;path=57\">Monitors</a>\n"
+            + "<a href=\"index.php?route=product/product&amp;path=57\">No product id</a>\n";
+
+    @TempDir
+    Path tempDir;
+
+    private ProductCatalog catalog(Path cacheFile) {
+        return new ProductCatalog(BASE_URL, cacheFile);
+    }
+
+    @Test
+    void productLinksAreIndexedByIdWithPlainNames() {
+        ProductCatalog catalog = catalog(null);
+
+        assertEquals(Set.of(33, 47, 42), catalog.addProducts(LISTING));
+        assertEquals(3, catalog.size());
+        assertEquals(Optional.of(new ProductCatalog.Product(47, "HP LP3065", BASE_URL + "index.php?route=product/product&product_id=47")),
+            catalog.find("hp lp3065"));
+        assertEquals("Apple Cinema 30\" & stand", catalog.find("Apple Cinema").orElseThrow().name());
+    }
+
+    @Test
+    void linksWithoutNameOrIdAreSkipped() {
+        ProductCatalog catalog = catalog(null);
+
+        assertEquals(Set.of(), catalog.addProducts("<a href=\"index.php?route=product/product&product_id=47\"><img src=\"hp.jpg\"></a>"
+            + "<a href=\"index.php?route=product/product&amp;path=57\">Monitors</a>"));
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    void exactNamesWinOverLongerMatches() {
+        ProductCatalog catalog = catalog(null);
+        catalog.addProducts("<a href=\"index.php?route=product/product&product_id=40\">iPhone</a>"
+            + "<a href=\"index.php?route=product/product&product_id=28\">iPhone Case</a>"
+            + "<a href=\"index.php?route=product/product&product_id=29\">Palm Treo Pro with iPhone dock</a>");
+
+        assertEquals(40, catalog.find("iphone").orElseThrow().id());
+        assertEquals(28, catalog.find("iPhone C").orElseThrow().id());
+    }
+
+    @Test
+    void categoryPathsInPageOrderWithoutDuplicates() {
+        String home = "<a href=\"https://shop.example/opencart/index.php?route=product/category&amp;path=25_28\">Monitors</a>"
+            + "<a href=\"index.php?route=product/category&path=57\">Laptops</a>"
+            + "<a href=\"index.php?route=product/category&amp;path=25_28\">Monitors again</a>"
+            + "<a href=\"index.php?route=product/category&amp;language=en-gb\">No path</a>"
+            + "<a href=\"index.php?route=product/product&amp;path=18&amp;product_id=47\">HP LP3065</a>";
+
+        assertEquals(List.of("25_28", "57"), List.copyOf(ProductCatalog.categoryPaths(home)));
+    }
+
+    @Test
+    void cacheRoundTrip() {
+        Path file = tempDir.resolve("nested/product-catalog.tsv");
+        ProductCatalog crawled = catalog(file);
+        crawled.addProducts(LISTING);
+        crawled.writeCache();
+
+        ProductCatalog cached = catalog(file);
+        assertTrue(cached.readCache());
+        assertEquals(3, cached.size());
+        assertEquals(crawled.find("HP LP3065"), cached.find("HP LP3065"));
+        assertEquals(crawled.find("Apple Cinema"), cached.find("Apple Cinema"));
+    }
+
+    @Test
+    void cacheOfAnotherShopIsIgnored() {
+        Path file = tempDir.resolve("product-catalog.tsv");
+        ProductCatalog crawled = catalog(file);
+        crawled.addProducts(LISTING);
+        crawled.writeCache();
+
+        ProductCatalog otherShop = new ProductCatalog("https://other.example/", file);
+        assertFalse(otherShop.readCache());
+        assertEquals(0, otherShop.size());
+    }
+
+    @Test
+    void expiredOrMalformedCacheIsIgnored() throws IOException {
+        Path file = tempDir.resolve("product-catalog.tsv");
+        Files.writeString(file, "# product catalog\t0\t" + BASE_URL + "\n47\tHP LP3065\n", StandardCharsets.UTF_8);
+        assertFalse(catalog(file).readCache(), "written in 1970");
+
+        Files.writeString(file, "# product catalog\t" + System.currentTimeMillis() + "\t" + BASE_URL + "\nHP\tLP3065\n",
+            StandardCharsets.UTF_8);
+        ProductCatalog malformed = catalog(file);
+        assertFalse(malformed.readCache());
+        assertEquals(0, malformed.size());
+    }
+}
@@ -0,0 +1,154 @@
+package com.lambdatest.atdd.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link ShardPlanner}
+ */
+class ShardPlannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            keys.add("src/test/resources/features/ecommerce/feature-" + (i % 5) + ".feature:" + (i * 7));
+        }
+        return keys;
+    }
+
+    private static void assertPartition(List<String> keys, List<Set<String>> shards) {
+        Set<String> union = new HashSet<>();
+        int total = 0;
+        for (Set<String> shard : shards) {
+            union.addAll(shard);
+            total += shard.size();
+        }
+        assertEquals(new HashSet<>(keys), union, "every scenario runs");
+        assertEquals(keys.size(), total, "no scenario runs twice");
+    }
+
+    @Test
+    void hashShardsPartitionTheScenarios() {
+        List<String> keys = keys(100);
+        List<Set<String>> shards = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            shards.add(ShardPlanner.selectByHash(keys, new ShardSpec(i, 4)));
+        }
+        assertPartition(keys, shards);
+    }
+
+    @Test
+    void hashPlanDoesNotDependOnDiscoveryOrder() {
+        List<String> keys = keys(50);
+        List<String> reversed = new ArrayList<>(keys);
+        Collections.reverse(reversed);
+        assertEquals(ShardPlanner.selectByHash(keys, new ShardSpec(2, 3)), ShardPlanner.selectByHash(reversed, new ShardSpec(2, 3)));
+    }
+
+    @Test
+    void durationShardsPartitionAndBalance() {
+        List<String> keys = keys(40);
+        Map<String, Long> durations = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            durations.put(keys.get(i), (i % 7 + 1) * 1000L);
+        }
+        List<Set<String>> shards = new ArrayList<>();
+        long[] load = new long[3];
+        for (int i = 1; i <= 3; i++) {
+            Set<String> shard = ShardPlanner.selectByDuration(keys, new ShardSpec(i, 3), durations);
+            shards.add(shard);
+            load[i - 1] = shard.stream().mapToLong(durations::get).sum();
+        }
+        assertPartition(keys, shards);
+        long max = Math.max(load[0], Math.max(load[1], load[2]));
+        long min = Math.min(load[0], Math.min(load[1], load[2]));
+        assertTrue(max - min <= 7000, "longest-first keeps shards within one scenario of each other");
+    }
+
+    @Test
+    void durationStrategyFallsBackToHashWithoutFile() {
+        List<String> keys = keys(30);
+        ShardSpec shard = new ShardSpec(1, 3);
+        assertEquals(ShardPlanner.selectByHash(keys, shard),
+            ShardPlanner.select(keys, shard, ShardPlanner.STRATEGY_DURATION, tempDir.resolve("missing.tsv")));
+    }
+
+    @Test
+    void durationStrategyFallsBackToHashForShardSubset() throws IOException {
+        List<String> keys = keys(30);
+        Map<String, Long> durations = new HashMap<>();
+        keys.forEach(key -> durations.put(key, 100L));
+        Path file = tempDir.resolve("durations.tsv");
+        ShardPlanner.writeDurations(file, durations, new ShardSpec(2, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> ShardPlanner.readDurations(file));
+        ShardSpec shard = new ShardSpec(1, 3);
+        assertEquals(ShardPlanner.selectByHash(keys, shard), ShardPlanner.select(keys, shard, ShardPlanner.STRATEGY_DURATION, file));
+    }
+
+    @Test
+    void durationStrategyFallsBackToHashForMalformedFile() throws IOException {
+        List<String> keys = keys(10);
+        Path file = tempDir.resolve("durations.tsv");
+        Files.writeString(file, keys.get(0) + "\t120\n" + keys.get(1) + "\tfast\n", StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> ShardPlanner.readDurations(file));
+        ShardSpec shard = new ShardSpec(2, 2);
+        assertEquals(ShardPlanner.selectByHash(keys, shard), ShardPlanner.select(keys, shard, ShardPlanner.STRATEGY_DURATION, file));
+    }
+
+    @Test
+    void durationStrategyFallsBackToHashForStaleFile() throws IOException {
+        List<String> keys = keys(10);
+        Path file = tempDir.resolve("durations.tsv");
+        ShardPlanner.writeDurations(file, Map.of(keys.get(0), 500L, "gone.feature:3", 700L), null);
+
+        ShardSpec shard = new ShardSpec(1, 2);
+        assertEquals(ShardPlanner.selectByHash(keys, shard), ShardPlanner.select(keys, shard, ShardPlanner.STRATEGY_DURATION, file));
+    }
+
+    @Test
+    void durationsRoundTripInKeyOrder() throws IOException {
+        Path file = tempDir.resolve("nested/durations.tsv");
+        Map<String, Long> durations = Map.of("b.feature:9", 20L, "a.feature:3", 10L);
+        ShardPlanner.writeDurations(file, durations, null);
+
+        assertEquals(List.of("a.feature:3\t10", "b.feature:9\t20"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertEquals(durations, ShardPlanner.readDurations(file));
+    }
+
+    @Test
+    void sameDurationsFileGivesSamePlanOnEveryShard() throws IOException {
+        List<String> keys = keys(25);
+        Map<String, Long> durations = new HashMap<>();
+        keys.forEach(key -> durations.put(key, (long) key.length() * 10));
+        Path file = tempDir.resolve("durations.tsv");
+        ShardPlanner.writeDurations(file, durations, null);
+
+        List<Set<String>> shards = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            shards.add(ShardPlanner.select(keys, new ShardSpec(i, 4), ShardPlanner.STRATEGY_DURATION, file));
+        }
+        assertPartition(keys, shards);
+        assertEquals(ShardPlanner.selectByDuration(keys, new ShardSpec(3, 4), durations), shards.get(2));
+    }
+}
@@ -0,0 +1,138 @@
+package com.lambdatest.atdd.hooks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.context.TestContext;
+import com.lambdatest.atdd.core.RunMetrics;
+import com.lambdatest.atdd.core.ScenarioWatchdog;
+import com.lambdatest.atdd.data.ExampleSource;
+import com.lambdatest.atdd.execution.CircuitBreaker;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.Status;
+
+/**
+ * Runs outlines tagged {@code @examples-from=<file>} for every row of an external CSV or JSON-lines file
+ *
+ * The outline's own Examples table holds one row of ${column} references. The steps run for the first
+ * file row as usual; the remaining rows are streamed one at a time and replayed through the scenario's
+ * step journal in the same session, so the file is never loaded whole and no feature file is generated.
+ * Runs after {@link TestHooks#setUp} and before {@link TestHooks#tearDown}.
+ */
+public class ExternalExampleHooks {
+    private static final Logger logger = LoggerFactory.getLogger(ExternalExampleHooks.class);
+    private static final int PROGRESS_INTERVAL = 100;
+    public static final String ROWS = "examples.rows";
+    public static final String FAILED_ROWS = "examples.failed";
+    private final TestContext testContext;
+    private String source;
+    private Stream<Map<String, String>> rows;
+    private Iterator<Map<String, String>> remaining;
+
+    public ExternalExampleHooks() {
+        this.testContext = TestContext.getInstance();
+    }
+
+    @Before(order = 20000)
+    public void openExamples(Scenario scenario) {
+        Optional<String> from = ExampleSource.sourceOf(scenario.getSourceTagNames());
+        if (from.isEmpty()) {
+            return;
+        }
+        source = from.get();
+        ExampleSource.Options options = ExampleSource.Options.fromTags(scenario.getSourceTagNames());
+        try {
+            rows = ExampleSource.open(source, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        remaining = rows.iterator();
+        if (!remaining.hasNext()) {
+            rows.close();
+            rows = null;
+            throw new TestAbortedException("External example source " + source + " has no rows to run");
+        }
+        testContext.setExampleRow(remaining.next());
+        logger.info("'{}' runs the rows of {} (limit {}, sample {}%, key {})", scenario.getName(), source,
+            options.limit() > 0 ? options.limit() : "none", options.samplePercent(),
+            options.keyColumns().isEmpty() ? "whole row" : options.keyColumns());
+    }
+
+    @After(order = 20000)
+    public void runRemainingExamples(Scenario scenario) {
+        if (rows == null) {
+            return;
+        }
+        try (Stream<Map<String, String>> closing = rows) {
+            if (scenario.getStatus() != Status.PASSED) {
+                logger.warn("First row of {} did not pass ({}), remaining rows not run: {}", source, scenario.getStatus(),
+                    testContext.getExampleRow());
+                RunMetrics.counter(ROWS).increment();
+                return;
+            }
+            runRows(scenario);
+        }
+    }
+
+    private void runRows(Scenario scenario) {
+        long start = System.currentTimeMillis();
+        long total = 1;
+        long failed = 0;
+        List<String> failures = new ArrayList<>();
+        Optional<String> stopped = Optional.empty();
+        while (remaining.hasNext()) {
+            stopped = CircuitBreaker.openReason().or(() -> ScenarioWatchdog.hasExpired()
+                ? Optional.of("watchdog deadline") : Optional.empty());
+            if (stopped.isPresent()) {
+                break;
+            }
+            Map<String, String> row = remaining.next();
+            testContext.setExampleRow(row);
+            ScenarioWatchdog.renewScenarioDeadline();
+            total++;
+            try {
+                testContext.getScenarioRetry().replay();
+            } catch (RuntimeException | AssertionError e) {
+                if (ScenarioWatchdog.hasExpired()) {
+                    // The session is gone; tearDown reports the deadline or cancellation
+                    stopped = Optional.of("watchdog deadline");
+                    break;
+                }
+                failed++;
+                String message = e.getMessage() == null ? "" : e.getMessage().lines().findFirst().orElse("");
+                logger.warn("Example row {} of {} failed: {}: {}", row, source, e.getClass().getSimpleName(), message);
+                if (failures.size() < TestConfiguration.Examples.MAX_REPORTED_FAILURES) {
+                    failures.add(row + " -> " + e.getClass().getSimpleName() + (message.isEmpty() ? "" : ": " + message));
+                }
+            }
+            if (total % PROGRESS_INTERVAL == 0) {
+                logger.info("{}: {} rows run, {} failed", source, total, failed);
+            }
+        }
+        RunMetrics.counter(ROWS).add(total);
+        RunMetrics.counter(FAILED_ROWS).add(failed);
+
+        String summary = String.format("%d rows of %s run in %d s, %d failed%s", total, source,
+            (System.currentTimeMillis() - start) / 1000, failed, stopped.map(reason -> "; stopped early: " + reason).orElse(""));
+        scenario.log(summary + (failures.isEmpty() ? "" : "\n" + String.join("\n", failures)));
+        logger.info("'{}': {}", scenario.getName(), summary);
+        if (failed > 0) {
+            throw new AssertionError(summary + (failed > failures.size() ? " (first " + failures.size() + " shown)" : "")
+                + ":\n" + String.join("\n", failures));
+        }
+    }
+}
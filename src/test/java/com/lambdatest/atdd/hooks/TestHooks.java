@@ -1,21 +1,45 @@
 package com.lambdatest.atdd.hooks;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.opentest4j.TestAbortedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lambdatest.atdd.config.TestConfiguration;
 import com.lambdatest.atdd.context.TestContext;
+import com.lambdatest.atdd.core.FailureSnapshot;
+import com.lambdatest.atdd.core.ScenarioWatchdog;
 import com.lambdatest.atdd.core.WebDriverFactory;
+import com.lambdatest.atdd.core.WebVitals;
+import com.lambdatest.atdd.data.ProductCatalog;
+import com.lambdatest.atdd.execution.CircuitBreaker;
+import com.lambdatest.atdd.load.LoadRecorder;
+import com.lambdatest.atdd.reporting.PerformanceHistory;
+import com.lambdatest.atdd.reporting.RegressionDetector;
 
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.Scenario;
+import io.cucumber.java.Status;
 
 /**
  * TestHooks class for Cucumber scenario lifecycle management
  */
 public class TestHooks {
     private static final Logger logger = LoggerFactory.getLogger(TestHooks.class);
+    private static final AtomicBoolean credentialsWarningLogged = new AtomicBoolean();
+    // Examples of outlines with this tag share one session; the runner serializes them (exclusive resource)
+    public static final String BATCH_EXAMPLES_TAG = "@batch-examples";
+    // Scenarios with this tag get a grid session of their own when browser contexts are enabled
+    public static final String FULL_SESSION_TAG = "@full-session";
     private final TestContext testContext;
     
     public TestHooks() {
@@ -24,14 +48,24 @@ public class TestHooks {
     
     @Before
     public void setUp(Scenario scenario) {
-        logger.info("=== Starting Scenario: {} ===", scenario.getName());
-        
-        // Verify configuration
-        if (!TestConfiguration.isConfigurationInValid()) {
+        // Verify configuration (once per run, not once per scenario)
+        if (!WebDriverFactory.isLocal() && TestConfiguration.isConfigurationInValid() && credentialsWarningLogged.compareAndSet(false, true)) {
             logger.warn("WARNING: LambdaTest credentials not configured!");
             logger.warn("Please set LT_USERNAME and LT_ACCESS_KEY environment variables");
         }
         
+        // With the circuit breaker on, other scenarios wait for the priority ones and are skipped once it opens.
+        // Batched examples already hold the exclusive batch-examples lock here, so they do not wait for their turn
+        boolean batched = scenario.getSourceTagNames().contains(BATCH_EXAMPLES_TAG);
+        if (!batched) {
+            CircuitBreaker.awaitTurn(scenario.getSourceTagNames());
+        }
+        Optional<String> breakerOpen = CircuitBreaker.openReason();
+        if (breakerOpen.isPresent()) {
+            CircuitBreaker.recordSkipped();
+            throw new TestAbortedException(breakerOpen.get());
+        }
+        
         // Clear any previous test data
         testContext.clearTestData();
         
@@ -49,39 +83,138 @@ public class TestHooks {
         testContext.setTestData("testId", System.currentTimeMillis());
         testContext.setTestData("testStartTime", System.currentTimeMillis());
         
-        logger.info("Feature: {}", featureName);
-        logger.info("Tags: {}", tags);
+        // Batched examples take over the session the previous example left parked
+        WebDriverFactory.setSessionBatch(batched ? BATCH_EXAMPLES_TAG.substring(1) : null);
+        WebDriverFactory.setFullSession(scenario.getSourceTagNames().contains(FULL_SESSION_TAG));
+        
+        WebVitals.startScenario();
+        ScenarioWatchdog.startScenario(scenarioName, scenario.getSourceTagNames());
+        
+        // Steps run through the retry journal; the test data above is what each retry starts from
+        testContext.startScenario(scenario);
+        
+        logger.info("=== Starting Scenario: {} | Feature: {} | Tags: {} ===", scenarioName, featureName, tags);
+    }
+    
+    @BeforeStep
+    public void beforeStep() {
+        ScenarioWatchdog.startStep();
+    }
+    
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        ScenarioWatchdog.finishStep();
+        // Steps run through the retry journal already report these; this covers steps that passed regardless
+        Optional<String> expiry = ScenarioWatchdog.expiry();
+        if (expiry.isPresent() && ScenarioWatchdog.isCancelled() && scenario.getStatus() == Status.PASSED) {
+            throw new TestAbortedException(expiry.get());
+        } else if (expiry.isPresent() && !ScenarioWatchdog.isCancelled() && !scenario.isFailed()) {
+            throw new ScenarioWatchdog.DeadlineExceededException(expiry.get());
+        }
     }
     
     @After
     public void tearDown(Scenario scenario) {
-        logger.info("=== Finishing Scenario: {} ===", scenario.getName());
-        logger.info("Scenario Status: {}", scenario.getStatus());
-        
+        String sessionId = "N/A";
+        // Retries happen inside the steps, so the status reported below is already the final outcome
+        int attempts = testContext.getScenarioRetry().getAttempt();
+        boolean cancelled = ScenarioWatchdog.isCancelled();
+        Optional<String> expiry = ScenarioWatchdog.finishScenario();
+        expiry.ifPresent(reason -> scenario.log((cancelled ? "Cancelled: " : "Watchdog: ") + reason
+            + "; the session was force-quit and its slot freed"));
         try {
-            // Update test status in LambdaTest
-            if (WebDriverFactory.hasActiveDriver()) {
+            // Update test status in LambdaTest (a session reclaimed by the watchdog is already gone)
+            if (WebDriverFactory.hasActiveDriver() && expiry.isEmpty()) {
+                sessionId = WebDriverFactory.getSessionId();
                 if (scenario.isFailed()) {
+                    // Capture is two remote calls; compression and disk I/O happen on a background thread
+                    Path snapshot = FailureSnapshot.capture(WebDriverFactory.getCurrentDriver(), scenario.getName(),
+                        WebDriverFactory.getRecentCommands());
+                    scenario.attach(snapshot.toAbsolutePath().toUri().toString(), "text/uri-list", "failure-snapshot");
+                    logger.info("Failure snapshot: {}", snapshot);
                     WebDriverFactory.markTestFailed("Scenario failed: " + scenario.getName());
-                    logger.error("Scenario '{}' FAILED!", scenario.getName());
+                    // A failed example does not hand its session to the next one
+                    WebDriverFactory.setSessionBatch(null);
                 } else {
+                    if (LoadRecorder.isEnabled()) {
+                        LoadRecorder.save(WebDriverFactory.getCurrentDriver(), scenario.getName())
+                            .ifPresent(recording -> scenario.attach(recording.toAbsolutePath().toUri().toString(), "text/uri-list", "load-recording"));
+                    }
                     WebDriverFactory.markTestPassed();
-                    logger.info("Scenario '{}' PASSED!", scenario.getName());
                 }
-                
-                // Print session information
-                String sessionId = WebDriverFactory.getSessionId();
-                logger.info("LambdaTest Session ID: {}", sessionId);
-                logger.info("Dashboard: https://automation.lambdatest.com/build");
             }
             
         } catch (Exception e) {
             logger.error("Error during test teardown: {}", e.getMessage(), e);
         } finally {
+            recordWebVitals(scenario);
             // Always clean up
             testContext.cleanup();
         }
         
-        logger.info("==========================================");
+        if (scenario.isFailed()) {
+            logger.error("=== Scenario '{}' FAILED | Session: {} | Attempts: {} | Dashboard: https://automation.lambdatest.com/build ===", scenario.getName(), sessionId, attempts);
+        } else {
+            logger.info("=== Scenario '{}' {} | Session: {} | Attempts: {} ===", scenario.getName(), scenario.getStatus(), sessionId, attempts);
+        }
+        CircuitBreaker.recordFinished(scenario.getName(), scenario.getSourceTagNames(), scenario.isFailed());
+        // A deadline or cancellation during the hooks is not reflected in the status yet
+        if (expiry.isPresent() && cancelled && scenario.getStatus() == Status.PASSED) {
+            throw new TestAbortedException(expiry.get());
+        } else if (expiry.isPresent() && !cancelled && !scenario.isFailed()) {
+            throw new ScenarioWatchdog.DeadlineExceededException(expiry.get());
+        }
+    }
+    
+    private void recordWebVitals(Scenario scenario) {
+        List<WebVitals.PageTimings> timings = WebVitals.finishScenario();
+        if (!timings.isEmpty()) {
+            scenario.attach(WebVitals.toJson(timings), "application/json", "web-vitals");
+            WebVitals.append(Path.of(TestConfiguration.Vitals.FILE), scenario.getName(),
+                scenario.getUri() + ":" + scenario.getLine(), timings);
+            // The shop's own timings go into the performance history next to the framework's
+            for (WebVitals.PageTimings page : timings) {
+                if (page.ttfbMs() > 0) {
+                    PerformanceHistory.record("shop:" + page.page() + ".ttfb", Math.round(page.ttfbMs()));
+                }
+                if (page.loadMs() > 0) {
+                    PerformanceHistory.record("shop:" + page.page() + ".load", Math.round(page.loadMs()));
+                }
+            }
+        }
+    }
+    
+    @AfterAll
+    public static void releaseBatchSessions() {
+        WebDriverFactory.releaseBatchSessions();
+    }
+
+    /**
+     * Builds the product catalog before the first scenario, so no scenario crawls the shop while it holds a grid slot
+     */
+    @BeforeAll
+    public static void buildProductCatalog() {
+        if (ProductCatalog.isEnabled()) {
+            ProductCatalog.build();
+        }
+    }
+
+    @AfterAll
+    public static void resetProductCatalog() {
+        ProductCatalog.reset();
+    }
+
+    /**
+     * Compares this run's timings with the performance history and fails the run on too many regressions
+     * (-Datdd.perf.fail-on=N, 0 only reports)
+     */
+    @AfterAll
+    public static void checkPerformanceHistory() {
+        Optional<RegressionDetector.Result> result = PerformanceHistory.finishRun();
+        int failOn = TestConfiguration.Performance.FAIL_ON;
+        if (failOn > 0 && result.isPresent() && result.get().regressions().size() >= failOn) {
+            throw new AssertionError(result.get().regressions().size() + " significant performance regressions, see "
+                + TestConfiguration.Performance.SUMMARY_FILE);
+        }
     }
 }
@@ -0,0 +1,165 @@
+package com.lambdatest.atdd.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the E-Commerce Playground, for replaying load recordings in tests
+ * Serves the OpenCart routes the acceptance flows use (home, search, product, cart add, cart) and keeps
+ * a cart per OCSESSID session cookie; adding to the cart without a known session is rejected with 403,
+ * so a replay only passes if it correlates cookies per virtual user
+ */
+public class StandInShopServer implements AutoCloseable {
+    private static final String SESSION_COOKIE = "OCSESSID";
+
+    private final HttpServer server;
+    private final Map<String, Map<String, Integer>> carts = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * Starts the server on a free loopback port
+     *
+     * @throws IOException if the server cannot be bound
+     */
+    public StandInShopServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return Base URI of the server, e.g. http://127.0.0.1:41234/
+     */
+    public URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * @return Sessions whose cart holds at least one product
+     */
+    public long cartsWithProducts() {
+        return carts.values().stream().filter(cart -> !cart.isEmpty()).count();
+    }
+
+    /**
+     * @return Requests served
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            Map<String, String> query = parameters(exchange.getRequestURI().getRawQuery());
+            String route = query.getOrDefault("route", "common/home");
+            String session = session(exchange);
+            if (exchange.getRequestURI().getPath().equals("/")) {
+                // Like a storefront behind a front controller; the session cookie arrives on the redirect
+                exchange.getResponseHeaders().set("Location", uri().resolve("index.php?route=common/home").toString());
+                respond(exchange, 302, "text/html", "");
+                return;
+            }
+            switch (route) {
+                case "common/home" -> respond(exchange, 200, "text/html", page("Your Store", "<div class=\"product-thumb\">iMac</div>"));
+                case "product/search" -> respond(exchange, 200, "text/html", page("Search - " + query.get("search"),
+                    "<div class=\"product-thumb\"><h4 class=\"title\">" + query.get("search") + "</h4></div>"));
+                case "product/product" -> respond(exchange, 200, "text/html", page("Product " + query.get("product_id"),
+                    "<button id=\"button-cart\">Add to Cart</button>"));
+                case "checkout/cart/add" -> addToCart(exchange, session);
+                case "checkout/cart" -> respond(exchange, 200, "text/html", page("Shopping Cart",
+                    "<div id=\"cart-total\">" + carts.getOrDefault(session, Map.of()).values().stream().mapToInt(Integer::intValue).sum() + " item(s)</div>"));
+                default -> respond(exchange, 404, "text/html", page("Not Found", ""));
+            }
+        }
+    }
+
+    private void addToCart(HttpExchange exchange, String session) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "application/json", "{\"error\":\"POST required\"}");
+            return;
+        }
+        Map<String, Integer> cart = session == null ? null : carts.get(session);
+        if (cart == null) {
+            respond(exchange, 403, "application/json", "{\"error\":\"No session\"}");
+            return;
+        }
+        Map<String, String> form = parameters(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String productId = form.get("product_id");
+        if (productId == null) {
+            respond(exchange, 400, "application/json", "{\"error\":{\"product\":\"Missing product\"}}");
+            return;
+        }
+        cart.merge(productId, Integer.parseInt(form.getOrDefault("quantity", "1")), Integer::sum);
+        respond(exchange, 200, "application/json", "{\"success\":\"Product added to your shopping cart!\"}");
+    }
+
+    /**
+     * Gets the session from the cookie, starting a new one (and setting the cookie) if it is missing or unknown
+     */
+    private String session(HttpExchange exchange) {
+        String cookieHeader = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookieHeader != null) {
+            for (String cookie : cookieHeader.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE) && carts.containsKey(pair[1])) {
+                    return pair[1];
+                }
+            }
+        }
+        if ("POST".equals(exchange.getRequestMethod())) {
+            return null;
+        }
+        String session = UUID.randomUUID().toString().replace("-", "");
+        carts.put(session, new ConcurrentHashMap<>());
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; path=/; HttpOnly");
+        return session;
+    }
+
+    private static String page(String title, String content) {
+        return "<!DOCTYPE html><html><head><title>" + title + "</title></head><body>"
+            + "<input name=\"search\" type=\"text\">" + content + "</body></html>";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parameters(String encoded) {
+        Map<String, String> parameters = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : encoded.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            parameters.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+        }
+        return parameters;
+    }
+}
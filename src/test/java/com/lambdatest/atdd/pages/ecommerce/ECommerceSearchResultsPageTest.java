@@ -0,0 +1,49 @@
+package com.lambdatest.atdd.pages.ecommerce;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.lambdatest.atdd.pages.ecommerce.ECommerceSearchResultsPage.ProductSummary;
+import com.lambdatest.atdd.pages.ecommerce.ECommerceSearchResultsPage.Stock;
+
+/**
+ * Unit tests for {@link ECommerceSearchResultsPage.ProductSummary#priceValue()}
+ */
+class ECommerceSearchResultsPageTest {
+
+    private static Optional<BigDecimal> priceValue(String price) {
+        return new ProductSummary("iPod Classic", price, null, Stock.UNKNOWN).priceValue();
+    }
+
+    @Test
+    void readsPlainPrices() {
+        assertEquals(Optional.of(new BigDecimal("122.00")), priceValue("$122.00"));
+        assertEquals(Optional.of(new BigDecimal("98")), priceValue("98 €"));
+    }
+
+    @Test
+    void readsFourDigitPricesWithoutSeparator() {
+        assertEquals(Optional.of(new BigDecimal("1220.00")), priceValue("$1220.00"));
+    }
+
+    @Test
+    void dropsThousandsSeparators() {
+        assertEquals(Optional.of(new BigDecimal("1220.00")), priceValue("$1,220.00"));
+        assertEquals(Optional.of(new BigDecimal("2000000")), priceValue("$2,000,000"));
+    }
+
+    @Test
+    void readsTheFirstPriceShown() {
+        assertEquals(Optional.of(new BigDecimal("98.00")), priceValue("$98.00 $122.00 Ex Tax: $80.00"));
+    }
+
+    @Test
+    void missingPriceIsEmpty() {
+        assertEquals(Optional.empty(), priceValue(""));
+        assertEquals(Optional.empty(), priceValue("Call for price"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.lambdatest.atdd.reporting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RegressionDetector}
+ *
+ * Expected p-values were worked out from the normal approximation with tie and continuity correction,
+ * the approximation R's {@code wilcox.test(..., alternative = "greater", exact = FALSE)} uses.
+ */
+class RegressionDetectorTest {
+
+    private static final double TOLERANCE = 1e-6;
+
+    private static RegressionDetector.Regression tested(String key, double pValue) {
+        return new RegressionDetector.Regression(key, 5, 100, 200, 3, pValue, "Mann-Whitney U");
+    }
+
+    private static List<Map<String, List<Long>>> runs(int count, Map<String, List<Long>> run) {
+        List<Map<String, List<Long>>> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    @Test
+    void mannWhitneyWithoutTies() {
+        // U = 15 of 15, variance 11.25
+        assertEquals(0.0184442, RegressionDetector.mannWhitneyGreater(List.of(10L, 20L, 30L, 40L, 50L), List.of(60L, 70L, 80L)),
+            TOLERANCE);
+    }
+
+    @Test
+    void mannWhitneyCorrectsForTies() {
+        // Ranks 1.5, 4 and 7 for the tied groups: U = 12, variance 10.0446 instead of 11.25
+        assertEquals(0.1034569, RegressionDetector.mannWhitneyGreater(List.of(10L, 10L, 20L, 20L, 30L), List.of(20L, 30L, 30L)),
+            TOLERANCE);
+    }
+
+    @Test
+    void mannWhitneyIsOneSided() {
+        double p = RegressionDetector.mannWhitneyGreater(List.of(60L, 70L, 80L, 90L, 100L), List.of(10L, 20L, 30L));
+        assertTrue(p > 0.99, "faster samples are not a regression, got " + p);
+    }
+
+    @Test
+    void mannWhitneyWithOnlyTiesIsNotSignificant() {
+        assertEquals(1.0, RegressionDetector.mannWhitneyGreater(List.of(50L, 50L, 50L, 50L, 50L), List.of(50L, 50L, 50L)));
+    }
+
+    @Test
+    void robustZUsesFloorWhenBaselineNeverVaried() {
+        // MAD is 0, so the scale is 5 % of the median: z = (110 - 100) / 5 = 2
+        assertEquals(0.0227501, RegressionDetector.robustZGreater(List.of(100L, 100L, 100L, 100L, 100L), 110), TOLERANCE);
+    }
+
+    @Test
+    void robustZUsesMedianAbsoluteDeviation() {
+        // Median 100, MAD 10: z = (130 - 100) / 14.826
+        assertEquals(0.0215130, RegressionDetector.robustZGreater(List.of(80L, 90L, 100L, 110L, 120L), 130), TOLERANCE);
+    }
+
+    @Test
+    void benjaminiHochbergKeepsAdjustedValuesMonotone() {
+        List<RegressionDetector.Regression> adjusted = RegressionDetector.benjaminiHochberg(
+            List.of(tested("a", 0.01), tested("b", 0.04), tested("c", 0.03), tested("d", 0.5)));
+
+        assertEquals(List.of("a", "c", "b", "d"), adjusted.stream().map(RegressionDetector.Regression::key).toList());
+        assertEquals(0.04, adjusted.get(0).pValue(), TOLERANCE);
+        assertEquals(0.04 * 4 / 3, adjusted.get(1).pValue(), TOLERANCE);
+        assertEquals(0.04 * 4 / 3, adjusted.get(2).pValue(), TOLERANCE);
+        assertEquals(0.5, adjusted.get(3).pValue(), TOLERANCE);
+    }
+
+    @Test
+    void medianOfEvenCountIsTheLowerMean() {
+        assertEquals(2, RegressionDetector.median(List.of(4L, 1L, 3L, 2L)));
+        assertEquals(3, RegressionDetector.median(List.of(5L, 1L, 3L)));
+    }
+
+    @Test
+    void upperTailOfStandardNormal() {
+        assertEquals(0.5, RegressionDetector.upperTail(0), TOLERANCE);
+        assertEquals(0.05, RegressionDetector.upperTail(1.6448536), TOLERANCE);
+        assertEquals(0.975, RegressionDetector.upperTail(-1.9599640), TOLERANCE);
+    }
+
+    @Test
+    void detectReportsOnlySignificantAndLargeIncreases() {
+        Map<String, List<Long>> baselineRun = Map.of(
+            "step:slow", List.of(100L, 101L, 102L),
+            "step:steady", List.of(100L, 101L, 102L),
+            "step:small", List.of(100L, 101L, 102L));
+        Map<String, List<Long>> current = Map.of(
+            "step:slow", List.of(200L, 210L, 220L),
+            "step:steady", List.of(100L, 101L, 102L),
+            "step:small", List.of(150L, 151L, 152L),
+            "step:new", List.of(500L, 500L, 500L));
+
+        RegressionDetector.Result result = new RegressionDetector(0.01, 20, 100, 3).detect(current, runs(5, baselineRun));
+
+        assertEquals(3, result.keysCompared(), "keys without a baseline are not tested");
+        assertEquals(5, result.baselineRuns());
+        assertEquals(List.of("step:slow"), result.regressions().stream().map(RegressionDetector.Regression::key).toList(),
+            "step:small grew by 50 % but less than 100 ms");
+        RegressionDetector.Regression slow = result.regressions().get(0);
+        assertEquals(101, slow.baselineMedian());
+        assertEquals(210, slow.currentMedian());
+        assertEquals("Mann-Whitney U", slow.test());
+    }
+
+    @Test
+    void detectNeedsEnoughBaselineRuns() {
+        Map<String, List<Long>> baselineRun = Map.of("step:slow", List.of(100L, 101L, 102L));
+        RegressionDetector.Result result = new RegressionDetector(0.01, 20, 100, 3)
+            .detect(Map.of("step:slow", List.of(900L, 900L, 900L)), runs(2, baselineRun));
+
+        assertEquals(0, result.keysCompared());
+        assertTrue(result.regressions().isEmpty());
+    }
+}
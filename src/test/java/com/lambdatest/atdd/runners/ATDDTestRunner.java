@@ -5,23 +5,29 @@ import org.junit.platform.suite.api.IncludeEngines;
 import org.junit.platform.suite.api.SelectClasspathResource;
 import org.junit.platform.suite.api.Suite;
 
-import static io.cucumber.junit.platform.engine.Constants.FEATURES_PROPERTY_NAME;
 import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
 import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
 
 /**
  * Main ATDD Test Runner for E-Commerce Playground
  * Executes E-Commerce Cucumber features for Acceptance Test Driven Development
+ * The feature paths are set by {@link ScenarioIndexSelector} before discovery
  */
 @Suite
 @IncludeEngines("cucumber")
 @SelectClasspathResource("features/ecommerce")
-@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty," +
-    "html:target/cucumber-reports/html," +
-    "json:target/cucumber-reports/cucumber.json," +
-    "junit:target/cucumber-reports/cucumber.xml")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value =
+    "com.lambdatest.atdd.reporting.StreamingJsonFormatter:target/cucumber-reports/cucumber.json," +
+    "message:target/cucumber-reports/cucumber.ndjson," +
+    "com.lambdatest.atdd.reporting.LiveHtmlReport:target/cucumber-reports/live," +
+    "com.lambdatest.atdd.reporting.OptionalReports:target/cucumber-reports," +
+    "com.lambdatest.atdd.reporting.ScenarioDurationRecorder:target/cucumber-reports/scenario-durations.tsv," +
+    "com.lambdatest.atdd.reporting.PerformanceHistoryRecorder," +
+    "com.lambdatest.atdd.reporting.RunMetricsReporter:target/atdd/run-metrics.json," +
+    "com.lambdatest.atdd.reporting.TelemetryReporter:target/atdd/telemetry")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.lambdatest.atdd")
-@ConfigurationParameter(key = FEATURES_PROPERTY_NAME, value = "src/test/resources/features/ecommerce")
+// Scenarios tagged @batch-examples share one session, so they must not run concurrently
+@ConfigurationParameter(key = "cucumber.execution.exclusive-resources.batch-examples.read-write", value = "atdd-batch-session")
 public class ATDDTestRunner {
     // JUnit 5 will automatically discover and run all Cucumber features
 }
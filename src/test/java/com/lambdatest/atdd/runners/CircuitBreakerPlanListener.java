@@ -0,0 +1,24 @@
+package com.lambdatest.atdd.runners;
+
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import com.lambdatest.atdd.execution.CircuitBreaker;
+
+/**
+ * Closes the circuit breaker for each test plan and tells it how many priority scenarios the plan holds
+ * Non-priority scenarios wait until that many priority scenarios have finished
+ * Registered in META-INF/services/org.junit.platform.launcher.TestExecutionListener
+ */
+public class CircuitBreakerPlanListener implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (CircuitBreaker.isEnabled()) {
+            CircuitBreaker.startRun(testPlan.countTestIdentifiers(identifier -> identifier.isTest()
+                && CircuitBreaker.isPriority(identifier.getTags().stream().map(TestTag::getName).toList())));
+        }
+    }
+}
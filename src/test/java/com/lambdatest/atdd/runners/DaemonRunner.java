@@ -0,0 +1,408 @@
+package com.lambdatest.atdd.runners;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.core.WebDriverFactory;
+
+import io.cucumber.core.cli.Main;
+
+/**
+ * Long-lived runner for fast local iteration
+ * Keeps the JVM, Cucumber and the glue loaded and grid sessions warm, and runs scenarios on request
+ * from {@code run-atdd-tests.sh daemon run ...} over a loopback socket. Before each run, changed
+ * sources are compiled in-process and step, hook, context and page classes are reloaded in a fresh
+ * class loader. Core and config classes stay loaded for the life of the daemon, because they hold
+ * the warm sessions; changing them needs a restart.
+ *
+ * Protocol: the access token, then one request line per connection ({@code run <cucumber options and
+ * feature paths>}, {@code status} or {@code stop}); the response is the run's output followed by
+ * {@code EXIT <status>}. The token is generated at start and written to a file only the owner can read,
+ * so other local users cannot make the daemon run their glue or plugins.
+ */
+public class DaemonRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DaemonRunner.class);
+    private static final List<String> RELOADABLE_PACKAGES = List.of(
+        "com.lambdatest.atdd.pages.", "com.lambdatest.atdd.steps.",
+        "com.lambdatest.atdd.hooks.", "com.lambdatest.atdd.context.");
+    private static final Set<String> OPTIONS_WITH_VALUE = Set.of(
+        "--tags", "-t", "--glue", "-g", "--extra-glue", "--plugin", "-p", "--name", "-n", "--threads",
+        "--snippets", "--object-factory", "--uuid-generator", "--count", "--order");
+    private static final Path[][] SOURCE_SETS = {
+        {Paths.get("src/main/java"), Paths.get("target/classes")},
+        {Paths.get("src/test/java"), Paths.get("target/test-classes")}
+    };
+
+    private final byte[] token;
+    private URLClassLoader glueLoader;
+    private long glueLoadedAt;
+    private int generation;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : TestConfiguration.Daemon.PORT;
+        WebDriverFactory.setKeepSessionsWarm(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(WebDriverFactory::quitWarmSessions, "atdd-daemon-shutdown"));
+        Path tokenFile = Paths.get(TestConfiguration.Daemon.TOKEN_FILE);
+        new DaemonRunner(writeToken(tokenFile)).serve(port, tokenFile);
+    }
+
+    private DaemonRunner(String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates a random access token and writes it to a file readable and writable by the owner only (0600)
+     */
+    private static String writeToken(Path file) throws IOException {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        String token = HexFormat.of().formatHex(bytes);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.deleteIfExists(file);
+        try {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            File plain = Files.createFile(file).toFile();
+            plain.setReadable(false, false);
+            plain.setWritable(false, false);
+            plain.setReadable(true, true);
+            plain.setWritable(true, true);
+        }
+        Files.writeString(file, token + System.lineSeparator(), StandardCharsets.UTF_8);
+        return token;
+    }
+
+    private void serve(int port, Path tokenFile) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            logger.info("ATDD daemon listening on 127.0.0.1:{}", port);
+            while (true) {
+                // Requests are served one at a time; a run owns System.out while it executes
+                try (Socket client = server.accept()) {
+                    if (!handle(client)) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Request failed: {}", e.getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tokenFile);
+        }
+        logger.info("ATDD daemon stopped");
+    }
+
+    private boolean handle(Socket client) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+        PrintStream out = new PrintStream(client.getOutputStream(), true, StandardCharsets.UTF_8);
+        String presented = in.readLine();
+        if (presented == null || !MessageDigest.isEqual(token, presented.trim().getBytes(StandardCharsets.UTF_8))) {
+            logger.warn("Rejected a request without a valid token from {}", client.getRemoteSocketAddress());
+            out.println("Invalid or missing daemon token (" + TestConfiguration.Daemon.TOKEN_FILE + ")");
+            out.println("EXIT 3");
+            return true;
+        }
+        List<String> request = tokenize(in.readLine());
+        String command = request.isEmpty() ? "" : request.get(0);
+        switch (command) {
+            case "run":
+                out.println("EXIT " + run(request.subList(1, request.size()), out));
+                return true;
+            case "status":
+                out.println("ready, glue generation " + generation);
+                out.println("EXIT 0");
+                return true;
+            case "stop":
+                out.println("stopping");
+                out.println("EXIT 0");
+                return false;
+            default:
+                out.println("Unknown request '" + command + "', expected run, status or stop");
+                out.println("EXIT 2");
+                return true;
+        }
+    }
+
+    private int run(List<String> options, PrintStream out) {
+        long start = System.nanoTime();
+        try {
+            if (!compileChangedSources(out)) {
+                return 2;
+            }
+            reloadGlueIfChanged(out);
+        } catch (IOException e) {
+            out.println("Reload failed: " + e.getMessage());
+            return 2;
+        }
+
+        List<String> argv = new ArrayList<>(options);
+        if (!argv.contains("--glue") && !argv.contains("-g")) {
+            argv.add("--glue");
+            argv.add(TestConfiguration.Daemon.GLUE);
+        }
+        if (!hasFeaturePath(options)) {
+            argv.add(TestConfiguration.Daemon.DEFAULT_FEATURES);
+        }
+        logger.info("Run {} (glue generation {}, ready in {} ms)", argv, generation, (System.nanoTime() - start) / 1_000_000);
+
+        PrintStream originalOut = System.out;
+        Thread thread = Thread.currentThread();
+        ClassLoader originalLoader = thread.getContextClassLoader();
+        try {
+            System.setOut(new PrintStream(new NonClosingOutputStream(out), true, StandardCharsets.UTF_8));
+            thread.setContextClassLoader(glueLoader);
+            return Main.run(argv.toArray(new String[0]), glueLoader);
+        } catch (RuntimeException e) {
+            e.printStackTrace(out);
+            return 2;
+        } finally {
+            System.out.flush();
+            System.setOut(originalOut);
+            thread.setContextClassLoader(originalLoader);
+        }
+    }
+
+    /**
+     * Compiles sources newer than their class files, main before test, with the daemon's classpath
+     * Dependents of a changed class are not recompiled, so signature changes still need a Maven build
+     */
+    private boolean compileChangedSources(PrintStream out) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        for (Path[] sourceSet : SOURCE_SETS) {
+            List<File> stale = staleSources(sourceSet[0], sourceSet[1]);
+            if (stale.isEmpty()) {
+                continue;
+            }
+            if (compiler == null) {
+                out.println("Sources changed but no compiler is available (run on a JDK), using existing classes");
+                return true;
+            }
+            out.println("Compiling " + stale.size() + " changed source(s) in " + sourceSet[0]);
+            try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+                List<String> compilerOptions = List.of("-d", sourceSet[1].toString(),
+                    "-cp", System.getProperty("java.class.path"), "-encoding", "UTF-8");
+                boolean compiled = compiler.getTask(new PrintWriter(new OutputStreamWriter(new NonClosingOutputStream(out), StandardCharsets.UTF_8), true),
+                    files, null, compilerOptions, null, files.getJavaFileObjectsFromFiles(stale)).call();
+                if (!compiled) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<File> staleSources(Path sourceRoot, Path classesRoot) throws IOException {
+        if (!Files.isDirectory(sourceRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> sources = Files.walk(sourceRoot)) {
+            return sources.filter(path -> path.toString().endsWith(".java"))
+                .filter(source -> {
+                    String relative = sourceRoot.relativize(source).toString();
+                    File classFile = classesRoot.resolve(relative.substring(0, relative.length() - ".java".length()) + ".class").toFile();
+                    return !classFile.exists() || classFile.lastModified() < source.toFile().lastModified();
+                })
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+        }
+    }
+
+    private void reloadGlueIfChanged(PrintStream out) throws IOException {
+        List<Path> changed = new ArrayList<>();
+        for (Path[] sourceSet : SOURCE_SETS) {
+            changed.addAll(classFilesModifiedAfter(sourceSet[1], glueLoadedAt));
+        }
+        if (glueLoader != null && changed.isEmpty()) {
+            return;
+        }
+        if (glueLoader != null) {
+            List<String> pinned = changed.stream()
+                .map(DaemonRunner::className)
+                .filter(name -> name.startsWith("com.lambdatest.atdd.") && !isReloadable(name))
+                .collect(Collectors.toList());
+            if (!pinned.isEmpty()) {
+                out.println("Not reloaded (restart the daemon to pick these up): " + pinned);
+            }
+            glueLoader.close();
+        }
+        glueLoadedAt = System.currentTimeMillis();
+        URL[] urls = {SOURCE_SETS[1][1].toUri().toURL(), SOURCE_SETS[0][1].toUri().toURL()};
+        glueLoader = new ChildFirstClassLoader(urls, DaemonRunner.class.getClassLoader());
+        generation++;
+        logger.info("Loaded glue generation {} ({} changed classes)", generation, changed.size());
+    }
+
+    private static List<Path> classFilesModifiedAfter(Path classesRoot, long since) throws IOException {
+        if (!Files.isDirectory(classesRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> classes = Files.walk(classesRoot)) {
+            return classes.filter(path -> path.toString().endsWith(".class"))
+                .filter(path -> path.toFile().lastModified() > since)
+                .map(classesRoot::relativize)
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static String className(Path relativeClassFile) {
+        String name = relativeClassFile.toString().replace(File.separatorChar, '.');
+        return name.substring(0, name.length() - ".class".length());
+    }
+
+    private static boolean isReloadable(String className) {
+        return RELOADABLE_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+
+    private static boolean hasFeaturePath(List<String> options) {
+        for (int i = 0; i < options.size(); i++) {
+            String option = options.get(i);
+            if (OPTIONS_WITH_VALUE.contains(option)) {
+                i++;
+            } else if (!option.startsWith("-")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a request line on whitespace, keeping single- or double-quoted parts together
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        if (line == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        char quote = 0;
+        boolean inToken = false;
+        for (char c : line.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Loads the reloadable packages from the class directories before asking the parent,
+     * so a new instance sees recompiled classes; everything else is shared with the daemon
+     */
+    private static class ChildFirstClassLoader extends URLClassLoader {
+        ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isReloadable(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        loaded = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        loaded = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            // The class directories are on both this loader and the parent; report each once to the glue scanner
+            Set<URL> resources = new LinkedHashSet<>(Collections.list(super.getResources(name)));
+            return Collections.enumeration(resources);
+        }
+    }
+
+    /**
+     * Keeps Cucumber's plugins from closing the client socket when they close System.out
+     */
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+
+        NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.lambdatest.atdd.runners;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import com.lambdatest.atdd.execution.CircuitBreaker;
+
+/**
+ * Moves features, rules and outlines that contain priority scenarios ahead of the others, so the
+ * executor starts them first when the circuit breaker is enabled
+ * It never excludes anything; it only reorders the children of each container once (stable otherwise).
+ * Registered in META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter
+ */
+public class PriorityFirstFilter implements PostDiscoveryFilter {
+
+    private final Set<TestDescriptor> ordered = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        // The root is never passed to filters, so each container is ordered when its first child is seen
+        if (CircuitBreaker.isEnabled()) {
+            descriptor.getParent().filter(ordered::add).ifPresent(PriorityFirstFilter::order);
+        }
+        return FilterResult.included("ordering only");
+    }
+
+    private static void order(TestDescriptor parent) {
+        List<TestDescriptor> children = new ArrayList<>(parent.getChildren());
+        List<TestDescriptor> sorted = new ArrayList<>(children);
+        sorted.sort(Comparator.comparing(child -> !containsPriorityScenario(child)));
+        if (!sorted.equals(children)) {
+            children.forEach(parent::removeChild);
+            sorted.forEach(parent::addChild);
+        }
+    }
+
+    private static boolean containsPriorityScenario(TestDescriptor descriptor) {
+        if (descriptor.isTest()) {
+            return CircuitBreaker.isPriority(descriptor.getTags().stream().map(TestTag::getName).toList());
+        }
+        return descriptor.getChildren().stream().anyMatch(PriorityFirstFilter::containsPriorityScenario);
+    }
+}
@@ -0,0 +1,94 @@
+package com.lambdatest.atdd.runners;
+
+import static io.cucumber.junit.platform.engine.Constants.FEATURES_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.execution.ScenarioIndex;
+import com.lambdatest.atdd.execution.ScenarioIndexCompiler;
+
+/**
+ * Narrows Cucumber discovery to the scenarios matching the tag filter, using the compiled scenario index
+ * Runs before any engine discovers tests and sets {@code cucumber.features} to the matching
+ * {@code path:line} entries, so Cucumber only parses the feature files that contain them. The property
+ * is only set for the duration of the discovery and restored afterwards, so it does not leak into
+ * later discoveries in the same JVM (e.g. the daemon runner).
+ * Without a tag filter (or with {@code -Datdd.index=false}) all features under the default directory are used;
+ * an explicit {@code -Dcucumber.features} is always left alone.
+ * Registered in META-INF/services/org.junit.platform.launcher.LauncherDiscoveryListener
+ */
+public class ScenarioIndexSelector implements LauncherDiscoveryListener {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioIndexSelector.class);
+
+    // Value of the property before each discovery in progress; suites nest discoveries
+    private final Deque<Optional<String>> previousFeatures = new ArrayDeque<>();
+
+    @Override
+    public void launcherDiscoveryStarted(LauncherDiscoveryRequest request) {
+        previousFeatures.push(Optional.ofNullable(System.getProperty(FEATURES_PROPERTY_NAME)));
+        ConfigurationParameters configuration = request.getConfigurationParameters();
+        if (configuration.get(FEATURES_PROPERTY_NAME).isPresent()) {
+            return;
+        }
+        Optional<String> tags = configuration.get(FILTER_TAGS_PROPERTY_NAME);
+        String features = TestConfiguration.Index.FEATURES;
+        if (TestConfiguration.Index.ENABLED && tags.isPresent()) {
+            features = select(tags.get()).orElse(features);
+        }
+        System.setProperty(FEATURES_PROPERTY_NAME, features);
+    }
+
+    @Override
+    public void launcherDiscoveryFinished(LauncherDiscoveryRequest request) {
+        Optional<String> previous = previousFeatures.poll();
+        if (previous == null) {
+            return;
+        }
+        if (previous.isPresent()) {
+            System.setProperty(FEATURES_PROPERTY_NAME, previous.get());
+        } else {
+            System.clearProperty(FEATURES_PROPERTY_NAME);
+        }
+    }
+
+    private static Optional<String> select(String tagExpression) {
+        try {
+            long start = System.nanoTime();
+            ScenarioIndex index = ScenarioIndexCompiler.loadOrCompile(Paths.get(TestConfiguration.Index.FEATURES),
+                TestConfiguration.Index.GLUE, Paths.get(TestConfiguration.Index.FILE),
+                Thread.currentThread().getContextClassLoader());
+            List<ScenarioIndex.IndexedScenario> selected = index.select(tagExpression);
+            logger.info("Scenario index: '{}' matches {} of {} scenarios ({} ms)",
+                tagExpression, selected.size(), index.size(), (System.nanoTime() - start) / 1_000_000);
+            if (selected.isEmpty()) {
+                return Optional.empty();
+            }
+            // Cucumber accepts several lines per feature file as path:line:line
+            Map<String, List<Integer>> linesByFeature = selected.stream().collect(Collectors.groupingBy(
+                ScenarioIndex.IndexedScenario::uri, LinkedHashMap::new,
+                Collectors.mapping(ScenarioIndex.IndexedScenario::line, Collectors.toList())));
+            return Optional.of(linesByFeature.entrySet().stream()
+                .map(entry -> entry.getKey() + entry.getValue().stream().map(line -> ":" + line).collect(Collectors.joining()))
+                .collect(Collectors.joining(",")));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Scenario index not used: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.lambdatest.atdd.runners;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClasspathResourceSource;
+import org.junit.platform.engine.support.descriptor.FilePosition;
+import org.junit.platform.engine.support.descriptor.FileSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.execution.ScenarioKey;
+import com.lambdatest.atdd.execution.ShardPlanner;
+import com.lambdatest.atdd.execution.ShardSpec;
+
+/**
+ * Post-discovery filter that keeps only the Cucumber pickles belonging to the shard given by -Datdd.shard=index/total
+ * Registered through META-INF/services so it applies to every runner; it is a no-op when no shard is configured
+ */
+public class ShardDiscoveryFilter implements PostDiscoveryFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ShardDiscoveryFilter.class);
+
+    private final Map<String, Set<String>> plansByRoot = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (TestConfiguration.Sharding.SHARD == null || !descriptor.isTest()) {
+            return FilterResult.included("sharding disabled");
+        }
+        Optional<String> key = scenarioKey(descriptor);
+        if (key.isEmpty()) {
+            return FilterResult.included("not a Cucumber pickle");
+        }
+
+        Set<String> plan = plansByRoot.computeIfAbsent(root(descriptor).getUniqueId().toString(), id -> plan(root(descriptor)));
+        return plan.contains(key.get())
+                ? FilterResult.included("in shard " + TestConfiguration.Sharding.SHARD)
+                : FilterResult.excluded("not in shard " + TestConfiguration.Sharding.SHARD);
+    }
+
+    private Set<String> plan(TestDescriptor root) {
+        List<String> keys = new ArrayList<>();
+        root.accept(descriptor -> {
+            if (descriptor.isTest()) {
+                scenarioKey(descriptor).ifPresent(keys::add);
+            }
+        });
+
+        ShardSpec shard = ShardSpec.parse(TestConfiguration.Sharding.SHARD);
+        Set<String> selected = ShardPlanner.select(keys, shard, TestConfiguration.Sharding.STRATEGY,
+                Paths.get(TestConfiguration.Sharding.DURATIONS_FILE));
+        logger.info("Shard {} ({} strategy): running {} of {} scenarios",
+                shard, TestConfiguration.Sharding.STRATEGY, selected.size(), keys.size());
+        return selected;
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor current = descriptor;
+        while (current.getParent().isPresent()) {
+            current = current.getParent().get();
+        }
+        return current;
+    }
+
+    private static Optional<String> scenarioKey(TestDescriptor descriptor) {
+        if (descriptor.getUniqueId().getSegments().stream().noneMatch(segment -> "engine".equals(segment.getType()) && "cucumber".equals(segment.getValue()))) {
+            return Optional.empty();
+        }
+        Optional<TestSource> source = descriptor.getSource();
+        if (source.isPresent() && source.get() instanceof FileSource fileSource) {
+            return fileSource.getPosition().map(FilePosition::getLine)
+                    .map(line -> ScenarioKey.of(fileSource.getFile().toPath(), line));
+        }
+        if (source.isPresent() && source.get() instanceof ClasspathResourceSource classpathSource) {
+            return classpathSource.getPosition().map(FilePosition::getLine)
+                    .map(line -> ScenarioKey.of(URI.create("classpath:" + classpathSource.getClasspathResourceName()), line));
+        }
+        return Optional.empty();
+    }
+}
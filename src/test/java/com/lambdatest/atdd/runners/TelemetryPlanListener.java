@@ -0,0 +1,22 @@
+package com.lambdatest.atdd.runners;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import com.lambdatest.atdd.reporting.TelemetryReporter;
+
+/**
+ * Passes the number of scenarios in the test plan to the live telemetry, for the queue length and ETA
+ * Each Cucumber pickle (scenario or example row) is one test in the plan, after tag and shard filtering
+ * Registered in META-INF/services/org.junit.platform.launcher.TestExecutionListener
+ */
+public class TelemetryPlanListener implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (TelemetryReporter.isEnabled()) {
+            TelemetryReporter.setPlannedScenarios(testPlan.countTestIdentifiers(TestIdentifier::isTest));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lambdatest.atdd.context.TestContext;
+import com.lambdatest.atdd.core.Diagnostics;
 import com.lambdatest.atdd.core.WebDriverFactory;
 import com.lambdatest.atdd.pages.ecommerce.ECommerceHomePage;
 import com.lambdatest.atdd.pages.ecommerce.ECommerceProductPage;
@@ -38,7 +39,10 @@ public class ECommerceSteps {
         String scenarioName = (String) testContext.getTestData("scenarioName");
         String tags = (String) testContext.getTestData("scenarioTags");
         
-        driver = WebDriverFactory.createNamedRemoteDriver(featureName, scenarioName, tags);
+        // A retry replays this step; it keeps the session the reset left healthy
+        driver = WebDriverFactory.hasActiveDriver()
+            ? WebDriverFactory.getCurrentDriver()
+            : WebDriverFactory.createNamedRemoteDriver(featureName, scenarioName, tags);
         testContext.setDriver(driver);
         
         homePage = testContext.getECommerceHomePage();
@@ -49,8 +53,10 @@ public class ECommerceSteps {
     
     @When("I search for {string}")
     public void i_search_for(String searchTerm) {
-        searchResultsPage = homePage.searchForProduct(searchTerm);
-        testContext.setTestData("searchTerm", searchTerm);
+        // Resolved per run, so a replay for the next external example row searches its term
+        String term = testContext.resolve(searchTerm);
+        searchResultsPage = homePage.searchForProduct(term);
+        testContext.setTestData("searchTerm", term);
     }
     
     @Then("I should see search results")
@@ -60,11 +66,9 @@ public class ECommerceSteps {
     
     @Then("the results should contain products related to {string}")
     public void the_results_should_contain_products_related_to(String searchTerm) {
-        boolean hasResults = searchResultsPage.hasResults();
-        boolean containsRelatedProducts = searchResultsPage.containsProduct(searchTerm);
-        
-        assertTrue(hasResults || containsRelatedProducts, 
-            "Expected to find products related to '" + searchTerm + "' in search results");
+        String term = testContext.resolve(searchTerm);
+        assertTrue(searchResultsPage.hasResults() || searchResultsPage.containsProduct(term),
+            "Expected to find products related to '" + term + "' in search results");
     }
     
     @Then("I should see all available products")
@@ -102,8 +106,9 @@ public class ECommerceSteps {
     
     @When("I click on the first {string} product")
     public void i_click_on_the_first_product(String productName) {
-        productPage = homePage.clickProduct(productName);
-        testContext.setTestData("selectedProduct", productName);
+        String name = testContext.resolve(productName);
+        productPage = homePage.clickProduct(name);
+        testContext.setTestData("selectedProduct", name);
     }
     
     @When("I click the {string} button on product page")
@@ -115,24 +120,20 @@ public class ECommerceSteps {
     
     @Then("the add to cart action should be executed")
     public void the_add_to_cart_action_should_be_executed() {
-        // Enhanced debugging for cart verification
-        logger.info("Add to Cart Action Verification:");
-        logger.info("Current page URL: {}", driver.getCurrentUrl());
-        logger.info("Current page title: {}", driver.getTitle());
+        // Page details are remote calls, so they are only fetched when DEBUG is enabled
+        logger.debug("Current page URL: {}", Diagnostics.lazy(driver::getCurrentUrl));
+        logger.debug("Current page title: {}", Diagnostics.lazy(driver::getTitle));
         
         boolean successMessageDisplayed = productPage.isSuccessMessageDisplayed();
-        logger.info("Success message displayed: {}", successMessageDisplayed);
-        
-        // Verify that the action was attempted (we already know the button was clicked)
-        logger.info("Add to Cart button was successfully clicked");
-        logger.info("Note: Product may be out of stock, which is expected behavior");
+        logger.info("Add to Cart action executed (success message displayed: {}; product may be out of stock, which is expected)",
+            successMessageDisplayed);
         assertTrue(true, "Add to Cart action was executed successfully");
     }
     
     @Then("the cart functionality should work")
     public void the_cart_functionality_should_work() {
         // Navigate back to homepage to check cart functionality
-        logger.info("Navigating back to homepage to verify cart functionality...");
+        logger.debug("Navigating back to homepage to verify cart functionality...");
         homePage.navigateToHomepage();
         
         // Wait a moment for page to load
@@ -144,8 +145,7 @@ public class ECommerceSteps {
         
         try {
             String cartCount = homePage.getCartCount();
-            logger.info("Cart count after navigation: '{}'", cartCount);
-            logger.info("Cart functionality is accessible and working");
+            logger.info("Cart functionality is accessible, cart count after navigation: '{}'", cartCount);
             assertTrue(true, "Cart functionality verified successfully");
         } catch (Exception e) {
             logger.warn("Could not access cart count, but navigation and cart area exist");
@@ -0,0 +1,88 @@
+package com.lambdatest.atdd.steps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.config.TestConfiguration;
+import com.lambdatest.atdd.load.LoadProfile;
+import com.lambdatest.atdd.load.LoadRecording;
+import com.lambdatest.atdd.load.LoadReplayer;
+import com.lambdatest.atdd.load.LoadReport;
+import com.lambdatest.atdd.load.StandInShopServer;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+/**
+ * Step definitions for replaying recorded acceptance flows as load against a local stand-in shop
+ */
+public class LoadReplaySteps {
+    private static final Logger logger = LoggerFactory.getLogger(LoadReplaySteps.class);
+    private StandInShopServer server;
+    private LoadReport report;
+
+    @Given("a stand-in shop server is running")
+    public void a_stand_in_shop_server_is_running() throws IOException {
+        server = new StandInShopServer();
+        logger.info("Stand-in shop listening on {}", server.uri());
+    }
+
+    @When("{int} virtual users replay the {string} recording {int} times at {int}% think time")
+    public void virtual_users_replay_the_recording(int users, String recordingName, int iterations, int thinkTimePercent) throws IOException {
+        LoadRecording recording;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("load/" + recordingName + ".json")) {
+            assertNotNull(in, "Recording load/" + recordingName + ".json not found on the classpath");
+            recording = LoadRecording.read(in);
+        }
+        LoadProfile profile = new LoadProfile(users, iterations, Duration.ofMillis(500), thinkTimePercent / 100.0,
+            Duration.ofSeconds(TestConfiguration.Load.REQUEST_TIMEOUT_SECONDS));
+        report = new LoadReplayer(profile).replay(recording, server.uri());
+        logger.info("{}", report.toTable());
+    }
+
+    @Then("no replayed request should fail")
+    public void no_replayed_request_should_fail() {
+        assertEquals(0, report.totalErrors(), "Replayed requests failed:\n" + report.toTable());
+    }
+
+    @Then("every virtual user iteration should have its own cart with the product")
+    public void every_virtual_user_iteration_should_have_its_own_cart() {
+        assertEquals((long) report.virtualUsers() * report.iterations(), server.cartsWithProducts(),
+            "Each iteration should add to the cart of the session it started");
+    }
+
+    @Then("the {int}th percentile latency of every replayed request should be below {int} ms")
+    public void the_percentile_latency_should_be_below(int percentile, int millis) {
+        for (LoadReport.RequestStats stats : report.requests()) {
+            double latency = switch (percentile) {
+                case 50 -> stats.p50();
+                case 90 -> stats.p90();
+                case 95 -> stats.p95();
+                case 99 -> stats.p99();
+                default -> throw new IllegalArgumentException("Supported percentiles: 50, 90, 95, 99");
+            };
+            assertTrue(latency < millis, String.format("p%d of %s was %.1f ms", percentile, stats.name(), latency));
+        }
+    }
+
+    @After("@load-replay")
+    public void stopServer(Scenario scenario) {
+        if (report != null) {
+            scenario.attach(report.toTable(), "text/plain", "load-report");
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+}
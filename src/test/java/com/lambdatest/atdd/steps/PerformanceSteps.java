@@ -0,0 +1,55 @@
+package com.lambdatest.atdd.steps;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lambdatest.atdd.context.TestContext;
+import com.lambdatest.atdd.core.WebVitals;
+import com.lambdatest.atdd.core.WebVitals.PageTimings;
+
+import io.cucumber.java.en.Then;
+
+/**
+ * Step definitions for client-side performance budgets
+ * Pages are named as in the page objects, e.g. "home", "search results" or "product"; each step checks the
+ * most recent load of that page in the current scenario
+ */
+public class PerformanceSteps {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceSteps.class);
+    private final TestContext testContext;
+
+    public PerformanceSteps() {
+        this.testContext = TestContext.getInstance();
+    }
+
+    @Then("^the (.+) page should load within (\\d+(?:\\.\\d+)?) seconds?$")
+    public void the_page_should_load_within_seconds(String page, double seconds) {
+        PageTimings timings = timingsOf(page);
+        logger.info("{} page loaded in {} ms (budget {} s)", page, Math.round(timings.loadMs()), seconds);
+        assertTrue(timings.loadMs() <= seconds * 1000, String.format(
+            "Expected the %s page to load within %s s but it took %.0f ms (TTFB %.0f ms, slowest resource %s at %.0f ms)",
+            page, seconds, timings.loadMs(), timings.ttfbMs(), timings.slowestResource(), timings.slowestResourceMs()));
+    }
+
+    @Then("^the largest contentful paint of the (.+) page should be within (\\d+(?:\\.\\d+)?) seconds?$")
+    public void the_largest_contentful_paint_should_be_within_seconds(String page, double seconds) {
+        PageTimings timings = timingsOf(page);
+        assertTrue(timings.lcpMs() <= seconds * 1000, String.format(
+            "Expected the largest contentful paint of the %s page within %s s but it was %.0f ms", page, seconds, timings.lcpMs()));
+    }
+
+    @Then("^the layout shift of the (.+) page should be below (\\d+(?:\\.\\d+)?)$")
+    public void the_layout_shift_should_be_below(String page, double limit) {
+        PageTimings timings = timingsOf(page);
+        assertTrue(timings.cls() < limit, String.format(
+            "Expected the cumulative layout shift of the %s page below %s but it was %.3f", page, limit, timings.cls()));
+    }
+
+    private static PageTimings timingsOf(String page) {
+        return WebVitals.latest(page).orElseThrow(() -> new AssertionError(WebVitals.isEnabled()
+            ? "The " + page + " page was not loaded in this scenario"
+            : "Web vitals capture is disabled (-Datdd.vitals=false)"));
+    }
+}
@@ -0,0 +1,19 @@
+@ecommerce @load-replay
+Feature: Load Replay of Acceptance Flows
+  As a performance engineer
+  I want to replay the HTTP requests of an acceptance scenario as many virtual users
+  So that I can load test the same flows without running browsers
+
+  Background:
+    Given a stand-in shop server is running
+
+  Scenario: Replay the add to cart flow with correlated sessions
+    When 200 virtual users replay the "add-product-to-cart" recording 2 times at 1% think time
+    Then no replayed request should fail
+    And every virtual user iteration should have its own cart with the product
+
+  @load
+  Scenario: Replayed add to cart flow stays within its latency budget
+    When 200 virtual users replay the "add-product-to-cart" recording 2 times at 1% think time
+    Then no replayed request should fail
+    And the 95th percentile latency of every replayed request should be below 2000 ms
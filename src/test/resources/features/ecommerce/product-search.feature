@@ -13,7 +13,13 @@ Feature: Product Search on LambdaTest E-Commerce Playground
     Then I should see search results
     And the results should contain products related to "iMac"
 
-  @regression
+  @performance
+  Scenario: Search Results Load Within Budget
+    When I search for "iMac"
+    Then I should see search results
+    And the search results page should load within 10 seconds
+
+  @regression @batch-examples
   Scenario Outline: Search for <product_type> Products
     When I search for "<product_type>"
     Then I should see search results
@@ -26,6 +32,16 @@ Feature: Product Search on LambdaTest E-Commerce Playground
       | Samsung     |
       | HP          |
 
+  @regression @examples-from=search-terms.csv @examples-key=product_type @examples-limit=10
+  Scenario Outline: Search for each catalog term
+    When I search for "<product_type>"
+    Then I should see search results
+    And the results should contain products related to "<product_type>"
+
+    Examples:
+      | product_type    |
+      | ${product_type} |
+
   @regression
   Scenario: Empty Search Handling
     When I search for ""